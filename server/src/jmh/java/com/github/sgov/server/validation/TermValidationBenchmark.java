@@ -0,0 +1,110 @@
+package com.github.sgov.server.validation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.fuseki.main.FusekiServer;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.topbraid.shacl.validation.ValidationReport;
+
+/**
+ * Latency of the term validation: fetching the neighbourhood of a term from a triple store,
+ * inference and SHACL validation restricted to the term. The sample time mode reports the
+ * percentiles, the 99th one is to be compared with the term latency target.
+ *
+ * <p>The benchmark validates the small test vocabularies with the test shapes, not with the SGoV
+ * rules, so its percentiles only show the overhead of the term validation path. They are not the
+ * latency of the term validation of real vocabularies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TermValidationBenchmark {
+
+    private static final String ENDPOINT = "http://localhost:1240/ds";
+
+    private static final String CONTEXT = "https://example.org/context/";
+
+    private static final String TERMS = "https://example.org/slovník/";
+
+    @Param({"test-1/pojem/osoba", "test-2/pojem/vozidlo-v-provozu"})
+    private String term;
+
+    private FusekiServer server;
+
+    private CompiledShapes shapes;
+
+    private List<String> contexts;
+
+    private List<URI> terms;
+
+    private Set<RDFNode> focusNodes;
+
+    private static Model read(final String file) throws IOException {
+        final Model model = ModelFactory.createDefaultModel();
+        try (InputStream is = TermValidationBenchmark.class
+            .getResourceAsStream("/validation/" + file)) {
+            model.read(is, null, "TTL");
+        }
+        return model;
+    }
+
+    /**
+     * Starts a triple store with the test vocabularies.
+     */
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        shapes = new CompiledShapes(read("shapes.ttl"), "benchmark");
+        final Dataset dataset = DatasetFactory.create();
+        for (String vocabulary : new String[] {"vocabulary-1.ttl", "vocabulary-2.ttl"}) {
+            dataset.addNamedModel(CONTEXT + vocabulary,
+                read("vocabulary-schema.ttl").add(read(vocabulary)));
+        }
+        server = FusekiServer.create().port(1240).add("/ds", dataset).build();
+        server.start();
+        contexts = Arrays.asList(CONTEXT + "vocabulary-1.ttl", CONTEXT + "vocabulary-2.ttl");
+        terms = Collections.singletonList(URI.create(TERMS + term));
+        focusNodes = Collections.singleton(ModelFactory.createDefaultModel()
+            .createResource(TERMS + term));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        server.stop();
+    }
+
+    /**
+     * Validates the term the same way as the term validation endpoint.
+     */
+    @Benchmark
+    public ValidationReport validateTerm() {
+        final Model neighbourhood = TermNeighbourhood.fetch(ENDPOINT, contexts, terms);
+        return shapes.validate(InferenceMode.MATERIALIZATION.apply(neighbourhood),
+            focusNodes::contains);
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.sgov.server.validation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sgov.server.ValidationResultSeverityComparator;
+import com.github.sgov.server.controller.util.ValidationReportSerializer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+
+/**
+ * Cost of the in-memory part of the workspace validation, which follows the fetch of a vocabulary
+ * context: inference, SHACL validation, sorting of the results and serialization of the report.
+ * The vocabulary contexts are generated by the {@link VocabularyGenerator}, from 1k to 1M triples.
+ *
+ * <p>The rules are either the SGoV validation rules ({@code sgov}) or the small set of the test
+ * rules ({@code test}), which does not change with the validator releases.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ValidationPipelineBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int triples;
+
+    @Param({"MATERIALIZATION", "REASONER"})
+    private InferenceMode inference;
+
+    @Param({"sgov", "test"})
+    private String rules;
+
+    private Model vocabulary;
+
+    private CompiledShapes shapes;
+
+    private Model dataModel;
+
+    private ValidationReport report;
+
+    private ObjectMapper mapper;
+
+    private JsonFactory jsonFactory;
+
+    private ValidationReportSerializer serializer;
+
+    private static Model read(final String file) throws IOException {
+        final Model model = ModelFactory.createDefaultModel();
+        try (InputStream is = ValidationPipelineBenchmark.class
+            .getResourceAsStream("/validation/" + file)) {
+            model.read(is, null, "TTL");
+        }
+        return model;
+    }
+
+    /**
+     * Generates the vocabulary and prepares the input of each stage.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        vocabulary = VocabularyGenerator.generate(triples);
+        shapes = "test".equals(rules)
+            ? new CompiledShapes(read("shapes.ttl"), "benchmark")
+            : new ShapesRegistry().getShapes();
+        dataModel = inference.apply(vocabulary);
+        report = shapes.validate(dataModel);
+        mapper = new ObjectMapper();
+        jsonFactory = mapper.getFactory();
+        serializer = new ValidationReportSerializer();
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addPreferredLocale(new Locale("cs"));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * Builds the model to be validated.
+     */
+    @Benchmark
+    public Model inference() {
+        final Model model = inference.apply(vocabulary);
+        // the reasoner runs lazily, make it infer the entailments
+        model.size();
+        return model;
+    }
+
+    /**
+     * Validates the model with the entailments.
+     */
+    @Benchmark
+    public ValidationReport shacl() {
+        return shapes.validate(dataModel);
+    }
+
+    /**
+     * Sorts the results of the report by severity, as the workspace validation does.
+     */
+    @Benchmark
+    public List<ValidationResult> sort() {
+        final List<ValidationResult> results = new ArrayList<>(report.results());
+        results.sort(new ValidationResultSeverityComparator());
+        return results;
+    }
+
+    /**
+     * Serializes the report to JSON, as returned by the validation endpoint.
+     */
+    @Benchmark
+    public void serialize(final Blackhole blackhole) throws IOException {
+        final CountingOutputStream os = new CountingOutputStream();
+        try (JsonGenerator gen = jsonFactory.createGenerator(os)) {
+            serializer.serialize(report, gen, mapper.getSerializerProvider());
+        }
+        blackhole.consume(os.count);
+    }
+
+    /**
+     * Discards the serialized report, keeping only its size.
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(final int b) {
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.util.Vocabulary;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.DCTerms;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.jena.vocabulary.SKOS;
+
+/**
+ * Generates synthetic SGoV vocabularies of the given size, with the structure of the published
+ * ones: a glossary of terms with labels and definitions, typed by the foundational ontology
+ * types, linked by broader relations, and a model specializing the kinds and attaching the
+ * properties to their bearers.
+ *
+ * <p>The vocabularies are generated from a fixed seed, so a vocabulary of the given size is always
+ * the same. A small share of the terms misses a label, a definition, a super kind or a bearer, so
+ * that the validation reports are not empty.
+ */
+public final class VocabularyGenerator {
+
+    private static final String Z_SGOV = "https://slovník.gov.cz/základní/pojem/";
+
+    private static final String VOCABULARY = "https://slovník.gov.cz/generovaný/";
+
+    private final Model model = ModelFactory.createDefaultModel();
+
+    private final Random random;
+
+    private final Resource glossary;
+
+    private final List<Resource> kinds = new ArrayList<>();
+
+    private final List<Resource> objectTypes = new ArrayList<>();
+
+    private VocabularyGenerator(final String name, final long seed) {
+        this.random = new Random(seed);
+        final Resource vocabulary = model.createResource(VOCABULARY + name);
+        vocabulary.addProperty(RDF.type, model.createResource(Vocabulary.s_c_slovnik))
+            .addProperty(DCTerms.title, model.createLiteral("Slovník " + name, "cs"));
+        this.glossary = model.createResource(vocabulary.getURI() + "/glosář")
+            .addProperty(RDF.type, SKOS.ConceptScheme);
+        model.createResource(vocabulary.getURI() + "/model")
+            .addProperty(RDF.type, OWL.Ontology);
+        addSchema();
+    }
+
+    /**
+     * Generates a vocabulary of at least the given number of triples.
+     *
+     * @param triples number of triples
+     * @return generated vocabulary, including the schema of the foundational ontology
+     */
+    public static Model generate(final int triples) {
+        final VocabularyGenerator generator =
+            new VocabularyGenerator("v" + triples, triples);
+        for (int i = 0; generator.model.size() < triples; i++) {
+            generator.addTerm(i);
+        }
+        return generator.model;
+    }
+
+    private Resource zsgov(final String name) {
+        return model.createResource(Z_SGOV + name);
+    }
+
+    private void addSchema() {
+        final Property subClassOf = RDFS.subClassOf;
+        zsgov("typ-objektu").addProperty(subClassOf, zsgov("typ"));
+        zsgov("typ-vlastnosti").addProperty(subClassOf, zsgov("typ"));
+        zsgov("typ-vztahu").addProperty(subClassOf, zsgov("typ"));
+        zsgov("druh").addProperty(subClassOf, zsgov("typ-objektu"));
+        zsgov("role").addProperty(subClassOf, zsgov("typ-objektu"));
+        zsgov("subkind").addProperty(subClassOf, zsgov("druh"));
+        model.createProperty(Z_SGOV + "je-vlastností")
+            .addProperty(RDFS.domain, zsgov("typ-vlastnosti"));
+        SKOS.broader.addProperty(RDFS.subPropertyOf, SKOS.broaderTransitive);
+        SKOS.broaderTransitive.addProperty(RDFS.subPropertyOf, SKOS.semanticRelation);
+        SKOS.semanticRelation.addProperty(RDFS.domain, SKOS.Concept)
+            .addProperty(RDFS.range, SKOS.Concept);
+        SKOS.prefLabel.addProperty(RDFS.subPropertyOf, RDFS.label);
+    }
+
+    private void addTerm(final int i) {
+        final Resource term = model.createResource(glossary.getURI()
+            .replace("/glosář", "/pojem/pojem-" + i));
+        term.addProperty(RDF.type, SKOS.Concept).addProperty(SKOS.inScheme, glossary);
+        if (random.nextInt(50) != 0) {
+            term.addProperty(SKOS.prefLabel, model.createLiteral("Pojem " + i, "cs"))
+                .addProperty(SKOS.prefLabel, model.createLiteral("Term " + i, "en"));
+        }
+        if (random.nextInt(10) != 0) {
+            term.addProperty(SKOS.definition,
+                model.createLiteral("Definice pojmu " + i + ".", "cs"));
+        }
+        final int type = kinds.isEmpty() ? 0 : random.nextInt(5);
+        switch (type) {
+            case 0:
+                term.addProperty(RDF.type, zsgov("druh"));
+                kinds.add(term);
+                objectTypes.add(term);
+                break;
+            case 1:
+                term.addProperty(RDF.type, zsgov("subkind"));
+                term.addProperty(RDFS.subClassOf, addBroader(term, kinds));
+                kinds.add(term);
+                objectTypes.add(term);
+                break;
+            case 2:
+                term.addProperty(RDF.type, zsgov("role"));
+                if (random.nextInt(20) != 0) {
+                    addBroader(term, kinds);
+                }
+                objectTypes.add(term);
+                break;
+            case 3:
+                term.addProperty(RDF.type, zsgov("typ-vlastnosti"));
+                if (random.nextInt(20) != 0) {
+                    term.addProperty(model.createProperty(Z_SGOV + "je-vlastností"),
+                        pick(objectTypes));
+                }
+                break;
+            default:
+                term.addProperty(RDF.type, zsgov("typ-vztahu"));
+                term.addProperty(SKOS.related, pick(objectTypes))
+                    .addProperty(SKOS.related, pick(objectTypes));
+                break;
+        }
+    }
+
+    private Resource addBroader(final Resource term, final List<Resource> candidates) {
+        final Resource broader = pick(candidates);
+        term.addProperty(SKOS.broader, broader);
+        return broader;
+    }
+
+    private Resource pick(final List<Resource> candidates) {
+        // prefer the recent terms, as related terms are usually defined close to each other
+        final int window = Math.min(candidates.size(), 100);
+        return candidates.get(candidates.size() - 1 - random.nextInt(window));
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.sgov.server.config;
 
 import com.github.sgov.server.security.Security;
+import com.github.sgov.server.util.Constants;
 import java.util.Collections;
 import org.keycloak.adapters.KeycloakConfigResolver;
 import org.keycloak.adapters.springsecurity.KeycloakConfiguration;
@@ -80,6 +81,7 @@ public class SecurityConfig extends KeycloakWebSecurityConfigurerAdapter {
         corsConfiguration.addExposedHeader(HttpHeaders.AUTHORIZATION);
         corsConfiguration.addExposedHeader(HttpHeaders.LOCATION);
         corsConfiguration.addExposedHeader(HttpHeaders.CONTENT_DISPOSITION);
+        corsConfiguration.addExposedHeader(Constants.Headers.SERVER_TIMING);
         final UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", corsConfiguration);
         return source;
@@ -4,11 +4,13 @@ import com.github.sgov.server.service.Services;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
 @Configuration
+@EnableScheduling
 @ComponentScan(basePackageClasses = Services.class)
 @SuppressWarnings("checkstyle:MissingJavadocType")
 public class ServiceConfig {
@@ -1,6 +1,7 @@
 package com.github.sgov.server.config.conf;
 
 import com.github.sgov.server.config.conf.components.ComponentsConf;
+import java.time.Duration;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.logging.log4j.util.Strings;
@@ -25,6 +26,18 @@ public class RepositoryConf {
      */
     private String releaseSparqlEndpointUrl;
 
+    /**
+     * Time after which the cached catalog of the released vocabularies is fetched again, in the
+     * background.
+     */
+    private Duration releaseCatalogTtl = Duration.ofMinutes(10);
+
+    /**
+     * Delay between the checks of the release SPARQL endpoint for changes, which invalidate the
+     * caches of the released data.
+     */
+    private Duration releaseWatchInterval = Duration.ofMinutes(5);
+
     /**
      * URL of the workspace repository.
      */
@@ -43,6 +56,31 @@ public class RepositoryConf {
     @Transient
     private String remoteUrl;
 
+    /**
+     * Maximum number of HTTP connections to the repositories, kept in a shared pool.
+     */
+    private int clientPoolSize = 20;
+
+    /**
+     * Time an idle HTTP connection to a repository is kept alive in the pool.
+     */
+    private Duration clientKeepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Timeout of establishing an HTTP connection to a repository.
+     */
+    private Duration clientConnectTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Timeout of waiting for data from a repository, e.g. for the results of a query.
+     */
+    private Duration clientSocketTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Timeout of waiting for a free HTTP connection in the pool.
+     */
+    private Duration clientPoolTimeout = Duration.ofSeconds(30);
+
     @Autowired
     public RepositoryConf(ComponentsConf componentsConf) {
         this.componentsConf = componentsConf;
@@ -0,0 +1,171 @@
+package com.github.sgov.server.config.conf;
+
+import com.github.sgov.server.validation.InferenceMode;
+import java.nio.file.Paths;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Setter
+@Getter
+@Configuration
+@EnableConfigurationProperties
+@ConfigurationProperties("validation")
+@SuppressWarnings("checkstyle:MissingJavadocType")
+public class ValidationConf {
+
+    /**
+     * Number of vocabulary contexts fetched and validated concurrently.
+     */
+    private int threads = 4;
+
+    /**
+     * Maximum number of vocabulary context reports kept in the validation report cache.
+     */
+    private int cacheSize = 1000;
+
+    /**
+     * Maximum number of the last vocabulary context reports kept for the incremental validation.
+     */
+    private int incrementalCacheSize = 500;
+
+    /**
+     * Number of statements from a changed entity within which the nodes are validated again by
+     * the incremental validation. The longest property path of the rules is used if longer. It
+     * covers the SHACL-SPARQL constraints, whose reach is not known.
+     */
+    private int incrementalRadius = 2;
+
+    /**
+     * Number of the nodes around the changed entities above which the incremental validation
+     * validates the whole vocabulary context instead.
+     */
+    private int incrementalLimit = 2000;
+
+    /**
+     * Inference applied to the vocabulary data before SHACL validation.
+     */
+    private InferenceMode inference = InferenceMode.MATERIALIZATION;
+
+    /**
+     * Whether to fetch all vocabulary contexts to validate in a single request, instead of one
+     * request per context.
+     */
+    private boolean bulkFetch = true;
+
+    /**
+     * Number of triples above which a vocabulary context is validated by SPARQL queries run in
+     * the workspace repository, instead of being fetched and validated in memory. Only the
+     * SHACL-SPARQL and cardinality constraints are validated in the repository. Zero disables
+     * validation in the repository.
+     */
+    private long pushdownThreshold = 1000000;
+
+    /**
+     * Number of triples above which a vocabulary context is fetched and validated in a temporary
+     * disk-backed store instead of in memory. It also bounds the number of triples of the
+     * contexts fetched in bulk. Zero disables the disk-backed store.
+     */
+    private long memoryBudget = 250000;
+
+    /**
+     * Directory of the temporary disk-backed stores. Defaults to a directory in the system
+     * temporary directory.
+     */
+    private String temporaryDirectory =
+        Paths.get(System.getProperty("java.io.tmpdir"), "sgov-validation").toString();
+
+    /**
+     * Number of validation jobs running concurrently.
+     */
+    private int jobThreads = 2;
+
+    /**
+     * Maximum number of validation jobs waiting for a free worker.
+     */
+    private int jobQueueSize = 100;
+
+    /**
+     * Number of finished validation jobs kept for polling.
+     */
+    private int jobHistory = 100;
+
+    /**
+     * Directory of the last validation reports of the workspaces. Defaults to a directory in the
+     * system temporary directory, which should be replaced by a persistent one.
+     */
+    private String reportDirectory =
+        Paths.get(System.getProperty("java.io.tmpdir"), "sgov-validation-reports").toString();
+
+    /**
+     * Number of the last workspace validation reports kept in memory, the others are read from the
+     * report directory when needed.
+     */
+    private int storedReports = 100;
+
+    /**
+     * Number of the previous versions of the last validation report of a workspace the delta of
+     * the report can be requested since.
+     */
+    private int reportHistory = 20;
+
+    /**
+     * Target of the 99th percentile of the term validation latency. The term validation timer
+     * counts the validations within the target, the slower ones are logged.
+     */
+    private Duration termLatencyTarget = Duration.ofMillis(50);
+
+    /**
+     * Whether all workspaces are periodically validated in the background.
+     */
+    private boolean fleetEnabled = false;
+
+    /**
+     * Delay between the starts of the background validations of all workspaces. A validation is
+     * not started while the previous one is still running.
+     */
+    private Duration fleetInterval = Duration.ofHours(6);
+
+    /**
+     * Delay between the server start and the first background validation of all workspaces.
+     */
+    private Duration fleetInitialDelay = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of workspaces validated concurrently in the background, and the number of
+     * the low priority threads validating their vocabulary contexts.
+     */
+    private int fleetThreads = 2;
+
+    /**
+     * Latency of a trivial query to the workspace repository above which the repository is
+     * considered overloaded, and fewer workspaces are validated concurrently in the background.
+     */
+    private Duration fleetLatencyTarget = Duration.ofMillis(200);
+
+    /**
+     * Whether the workspaces are validated before they are published. Each vocabulary context is
+     * validated concurrently with its serialization, from the same data.
+     */
+    private boolean publishValidation = false;
+
+    /**
+     * Lowest severity of the validation results which abort the publication, one of Info,
+     * Warning and Violation.
+     */
+    private String publishAbortSeverity = "Violation";
+
+    /**
+     * Whether the vocabulary contexts are validated together with the released vocabularies
+     * they import, so that references to the imported terms are resolved.
+     */
+    private boolean releasedImports = true;
+
+    /**
+     * Time after which the cached released vocabularies are fetched again.
+     */
+    private Duration releasedVocabularyTtl = Duration.ofHours(1);
+}
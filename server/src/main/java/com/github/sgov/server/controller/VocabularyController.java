@@ -1,6 +1,7 @@
 package com.github.sgov.server.controller;
 
 import com.github.sgov.server.controller.dto.VocabularyDto;
+import com.github.sgov.server.security.SecurityConstants;
 import com.github.sgov.server.service.repository.VocabularyService;
 import com.github.sgov.server.util.Constants;
 import cz.cvut.kbss.jsonld.JsonLd;
@@ -11,12 +12,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -48,6 +53,18 @@ public class VocabularyController extends BaseController {
         return vocabularyService.getVocabulariesAsContextDtos(lang);
     }
 
+    /**
+     * Fetches the catalog of the released vocabularies again, e.g. when a new release is
+     * published.
+     */
+    @PostMapping(value = "/catalog/refresh")
+    @ApiOperation(value = "Refresh the cached catalog of the released vocabularies.")
+    @PreAuthorize("hasRole('" + SecurityConstants.ROLE_ADMIN + "')")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void refreshCatalog() {
+        vocabularyService.refreshReleaseCatalog();
+    }
+
     /**
      * Retrieve existing workspace.
      *
@@ -69,4 +86,24 @@ public class VocabularyController extends BaseController {
             namespace, vocabularyFragment, null);
         return vocabularyService.getTransitiveImports(identifier);
     }
+
+    /**
+     * Retrieves the released vocabularies which import the given one, directly or transitively.
+     *
+     * @param vocabularyFragment Localname of vocabulary id.
+     * @param namespace          Namespace used for resource identifier resolution.
+     * @return IRIs of the importing vocabularies
+     */
+    @GetMapping(value = "/{vocabularyFragment}/dependents",
+        produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            JsonLd.MEDIA_TYPE})
+    @ApiOperation(value = "Get vocabularies importing the vocabulary, directly or transitively.")
+    public Set<URI> getVocabularyDependents(
+        @PathVariable String vocabularyFragment,
+        @RequestParam(name = Constants.QueryParams.NAMESPACE) String namespace) {
+        final URI identifier = resolveIdentifier(
+            namespace, vocabularyFragment, null);
+        return vocabularyService.getTransitiveDependents(identifier);
+    }
 }
@@ -1,13 +1,28 @@
 package com.github.sgov.server.controller;
 
+import com.github.sgov.server.controller.dto.ValidationReportDeltaDto;
+import com.github.sgov.server.controller.dto.ValidationReportSummaryDto;
+import com.github.sgov.server.controller.dto.ValidationResultDto;
 import com.github.sgov.server.controller.dto.VocabularyContextDto;
+import com.github.sgov.server.controller.util.RestUtils;
+import com.github.sgov.server.controller.util.ValidationReportStreamWriter;
+import com.github.sgov.server.exception.NotFoundException;
 import com.github.sgov.server.exception.VocabularyRegisteredinReadWriteException;
 import com.github.sgov.server.model.Asset;
 import com.github.sgov.server.model.VocabularyContext;
 import com.github.sgov.server.model.Workspace;
+import com.github.sgov.server.service.FleetValidationService;
+import com.github.sgov.server.service.ValidationJobService;
 import com.github.sgov.server.service.WorkspaceService;
+import com.github.sgov.server.util.Constants.Headers;
 import com.github.sgov.server.util.Constants.QueryParams;
 import com.github.sgov.server.util.Vocabulary;
+import com.github.sgov.server.validation.FleetValidationSummary;
+import com.github.sgov.server.validation.RuleGroup;
+import com.github.sgov.server.validation.ValidationJob;
+import com.github.sgov.server.validation.ValidationOptions;
+import com.github.sgov.server.validation.ValidationResultFilter;
+import com.github.sgov.server.validation.ValidationTimings;
 import cz.cvut.kbss.jsonld.JsonLd;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
@@ -15,11 +30,15 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import java.net.URI;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -36,7 +55,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.vocabulary.SH;
+import springfox.documentation.annotations.ApiIgnore;
 
 @RestController
 @RequestMapping("/workspaces")
@@ -45,11 +67,26 @@ import org.topbraid.shacl.validation.ValidationReport;
 @Slf4j
 public class WorkspaceController extends BaseController {
 
+    private static final String DEFAULT_PAGE_SIZE = "100";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final WorkspaceService workspaceService;
 
+    private final ValidationJobService validationJobService;
+
+    private final FleetValidationService fleetValidationService;
+
+    /**
+     * Constructor.
+     */
     @Autowired
-    public WorkspaceController(WorkspaceService workspaceService) {
+    public WorkspaceController(WorkspaceService workspaceService,
+                               ValidationJobService validationJobService,
+                               FleetValidationService fleetValidationService) {
         this.workspaceService = workspaceService;
+        this.validationJobService = validationJobService;
+        this.fleetValidationService = fleetValidationService;
     }
 
     @GetMapping(produces = {
@@ -59,6 +96,14 @@ public class WorkspaceController extends BaseController {
         return workspaceService.findAllInferred();
     }
 
+    @GetMapping(value = "/validation-summary", produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Retrieve the outcome of the last background validation of each "
+        + "workspace, the failed and non-conforming workspaces first.")
+    @PreAuthorize("permitAll()")
+    public FleetValidationSummary getValidationSummary() {
+        return fleetValidationService.getSummary();
+    }
+
     /**
      * Create new workspace. If uri of workspace is not specified, it will be generated.
      *
@@ -315,7 +360,11 @@ public class WorkspaceController extends BaseController {
      * @param workspaceFragment Localname of workspace id.
      * @param namespace         Namespace used for resource identifier resolution. Optional, if not
      *                          specified, the configured namespace is used.
-     * @return set of validation results
+     * @param incremental       Whether to revalidate only the changes since the last validation.
+     * @param rules             Rule groups to validate, all of them if not specified.
+     * @param contexts          Vocabulary contexts to validate, all of them if not specified.
+     * @return set of validation results, with the durations of the validation phases in the
+     *     Server-Timing header
      */
     @GetMapping(value = "/{workspaceFragment}/validate",
         produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
@@ -331,7 +380,7 @@ public class WorkspaceController extends BaseController {
         example = "cs"
     )
     @PreAuthorize("permitAll()")
-    public ValidationReport validate(
+    public ResponseEntity<ValidationReport> validate(
         @ApiParam(value = "instance-1775747014",
             required = true,
             example = "instance-1775747014"
@@ -341,11 +390,372 @@ public class WorkspaceController extends BaseController {
             value = "https://slovník.gov.cz/datový/pracovní-prostor/pojem/metadatový-kontext/",
             example = "https://slovník.gov.cz/datový/pracovní-prostor/pojem/metadatový-kontext/"
         )
-        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace
+        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace,
+        @ApiParam(value = "Revalidate only the entities changed since the last validation, "
+            + "according to the change tracking contexts.")
+        @RequestParam(name = "incremental", required = false, defaultValue = "false")
+            boolean incremental,
+        @ApiParam(value = "Rule groups to validate, all of them if not specified.",
+            allowableValues = "GLOSSARY, MODEL, VOCABULARY")
+        @RequestParam(name = "rules", required = false) Set<RuleGroup> rules,
+        @ApiParam(value = "IRIs of the vocabulary contexts to validate, all contexts of the "
+            + "workspace if not specified.")
+        @RequestParam(name = "contexts", required = false) Set<URI> contexts
+    ) {
+        final URI identifier = resolveIdentifier(
+            namespace, workspaceFragment, Vocabulary.s_c_metadatovy_kontext);
+        final ValidationTimings timings = new ValidationTimings();
+        final ValidationReport report = workspaceService.validate(identifier,
+            validationOptions(incremental, rules, contexts), timings);
+        return ResponseEntity.ok()
+            .header(Headers.SERVER_TIMING, timings.toServerTiming())
+            .body(report);
+    }
+
+    /**
+     * Validates the given terms of a workspace alone, for instant feedback while the terms are
+     * edited. Only the neighbourhood of the terms is fetched and validated.
+     *
+     * @param workspaceFragment Localname of workspace id.
+     * @param namespace         Namespace used for resource identifier resolution. Optional, if not
+     *                          specified, the configured namespace is used.
+     * @param terms             IRIs of the terms to validate.
+     * @param rules             Rule groups to validate, all of them if not specified.
+     * @param contexts          Vocabulary contexts to validate, all of them if not specified.
+     * @return set of validation results of the terms, with the durations of the validation
+     *     phases in the Server-Timing header
+     */
+    @GetMapping(value = "/{workspaceFragment}/validate/terms",
+        produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Validates the given terms of workspace using predefined rules. Only "
+        + "the results of the terms are returned.")
+    @ResponseBody
+    @ApiImplicitParam(name = "Accept-language",
+        value = "cs",
+        required = true,
+        paramType = "header",
+        dataTypeClass = String.class,
+        example = "cs"
+    )
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<ValidationReport> validateTerms(
+        @PathVariable String workspaceFragment,
+        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace,
+        @ApiParam(value = "IRIs of the terms to validate.", required = true)
+        @RequestParam(name = "terms") Set<URI> terms,
+        @ApiParam(value = "Rule groups to validate, all of them if not specified.",
+            allowableValues = "GLOSSARY, MODEL, VOCABULARY")
+        @RequestParam(name = "rules", required = false) Set<RuleGroup> rules,
+        @ApiParam(value = "IRIs of the vocabulary contexts containing the terms, all contexts "
+            + "of the workspace if not specified.")
+        @RequestParam(name = "contexts", required = false) Set<URI> contexts
+    ) {
+        final URI identifier = resolveIdentifier(
+            namespace, workspaceFragment, Vocabulary.s_c_metadatovy_kontext);
+        final ValidationTimings timings = new ValidationTimings();
+        final ValidationReport report = workspaceService.validateTerms(identifier, terms,
+            validationOptions(false, rules, contexts), timings);
+        return ResponseEntity.ok()
+            .header(Headers.SERVER_TIMING, timings.toServerTiming())
+            .body(report);
+    }
+
+    /**
+     * Validates a workspace, streaming the results as newline delimited JSON as soon as each
+     * vocabulary context is validated.
+     *
+     * @param workspaceFragment Localname of workspace id.
+     * @param namespace         Namespace used for resource identifier resolution. Optional, if not
+     *                          specified, the configured namespace is used.
+     * @param incremental       Whether to revalidate only the changes since the last validation.
+     * @param rules             Rule groups to validate, all of them if not specified.
+     * @param contexts          Vocabulary contexts to validate, all of them if not specified.
+     * @param locale            Locale of the messages, resolved from the request.
+     * @return stream of validation results
+     */
+    @GetMapping(value = "/{workspaceFragment}/validate/stream",
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Validates workspace using predefined rules, streaming one result per "
+        + "line. The last line holds the conforms flag, or the error if the validation failed.")
+    @ApiImplicitParam(name = "Accept-language",
+        value = "cs",
+        required = true,
+        paramType = "header",
+        dataTypeClass = String.class,
+        example = "cs"
+    )
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<StreamingResponseBody> validateStreaming(
+        @PathVariable String workspaceFragment,
+        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace,
+        @ApiParam(value = "Revalidate only the entities changed since the last validation, "
+            + "according to the change tracking contexts.")
+        @RequestParam(name = "incremental", required = false, defaultValue = "false")
+            boolean incremental,
+        @ApiParam(value = "Rule groups to validate, all of them if not specified.",
+            allowableValues = "GLOSSARY, MODEL, VOCABULARY")
+        @RequestParam(name = "rules", required = false) Set<RuleGroup> rules,
+        @ApiParam(value = "IRIs of the vocabulary contexts to validate, all contexts of the "
+            + "workspace if not specified.")
+        @RequestParam(name = "contexts", required = false) Set<URI> contexts,
+        @ApiIgnore Locale locale
+    ) {
+        final URI identifier = resolveIdentifier(
+            namespace, workspaceFragment, Vocabulary.s_c_metadatovy_kontext);
+        final ValidationOptions options = validationOptions(incremental, rules, contexts);
+        final String lang = locale.toLanguageTag();
+        final StreamingResponseBody body = out -> {
+            final ValidationReportStreamWriter writer =
+                new ValidationReportStreamWriter(out, lang);
+            try {
+                writer.finish(workspaceService.validate(identifier, options, writer));
+            } catch (RuntimeException e) {
+                log.error("Streaming validation of workspace {} failed.", identifier, e);
+                writer.fail(e);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Starts validation of a workspace in the background. If the workspace is already being
+     * validated with the same options, the running job is returned.
+     *
+     * @param workspaceFragment Localname of workspace id.
+     * @param namespace         Namespace used for resource identifier resolution. Optional, if not
+     *                          specified, the configured namespace is used.
+     * @param incremental       Whether to revalidate only the changes since the last validation.
+     * @param rules             Rule groups to validate, all of them if not specified.
+     * @param contexts          Vocabulary contexts to validate, all of them if not specified.
+     * @return validation job, with its location
+     */
+    @PostMapping(value = "/{workspaceFragment}/validation-jobs",
+        produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Starts validation of workspace in the background. Returns the job, "
+        + "whose progress can be polled.")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<ValidationJob> submitValidationJob(
+        @PathVariable String workspaceFragment,
+        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace,
+        @ApiParam(value = "Revalidate only the entities changed since the last validation, "
+            + "according to the change tracking contexts.")
+        @RequestParam(name = "incremental", required = false, defaultValue = "false")
+            boolean incremental,
+        @ApiParam(value = "Rule groups to validate, all of them if not specified.",
+            allowableValues = "GLOSSARY, MODEL, VOCABULARY")
+        @RequestParam(name = "rules", required = false) Set<RuleGroup> rules,
+        @ApiParam(value = "IRIs of the vocabulary contexts to validate, all contexts of the "
+            + "workspace if not specified.")
+        @RequestParam(name = "contexts", required = false) Set<URI> contexts
     ) {
         final URI identifier = resolveIdentifier(
             namespace, workspaceFragment, Vocabulary.s_c_metadatovy_kontext);
-        return workspaceService.validate(identifier);
+        final ValidationJob job = validationJobService.submit(identifier,
+            validationOptions(incremental, rules, contexts));
+        return ResponseEntity.accepted()
+            .location(RestUtils.createLocationFromCurrentUriWithPath("/{id}", job.getId()))
+            .body(job);
+    }
+
+    /**
+     * Returns the state of a validation job, including the progress of each vocabulary context.
+     *
+     * @param workspaceFragment Localname of workspace id.
+     * @param jobId             Identifier of the validation job.
+     * @param namespace         Namespace used for resource identifier resolution. Optional, if not
+     *                          specified, the configured namespace is used.
+     * @return validation job
+     */
+    @GetMapping(value = "/{workspaceFragment}/validation-jobs/{jobId}",
+        produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Retrieve state of a validation job.")
+    @PreAuthorize("permitAll()")
+    public ValidationJob getValidationJob(
+        @PathVariable String workspaceFragment,
+        @PathVariable String jobId,
+        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace) {
+        final URI identifier = resolveIdentifier(
+            namespace, workspaceFragment, Vocabulary.s_c_metadatovy_kontext);
+        return findValidationJob(identifier, jobId);
+    }
+
+    /**
+     * Returns the report of a finished validation job.
+     *
+     * @param workspaceFragment Localname of workspace id.
+     * @param jobId             Identifier of the validation job.
+     * @param namespace         Namespace used for resource identifier resolution. Optional, if not
+     *                          specified, the configured namespace is used.
+     * @return set of validation results
+     */
+    @GetMapping(value = "/{workspaceFragment}/validation-jobs/{jobId}/report",
+        produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Retrieve report of a finished validation job.")
+    @ResponseBody
+    @ApiImplicitParam(name = "Accept-language",
+        value = "cs",
+        required = true,
+        paramType = "header",
+        dataTypeClass = String.class,
+        example = "cs"
+    )
+    @PreAuthorize("permitAll()")
+    public ValidationReport getValidationJobReport(
+        @PathVariable String workspaceFragment,
+        @PathVariable String jobId,
+        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace) {
+        final URI identifier = resolveIdentifier(
+            namespace, workspaceFragment, Vocabulary.s_c_metadatovy_kontext);
+        final ValidationJob job = findValidationJob(identifier, jobId);
+        if (job.getReport() == null) {
+            throw new NotFoundException(
+                "Report of validation job " + jobId + " is not available, the job is "
+                    + job.getStatus() + ".");
+        }
+        return job.getReport();
+    }
+
+    /**
+     * Returns the summary of the last validation report of a workspace, without running the
+     * validation again.
+     *
+     * @param workspaceFragment Localname of workspace id.
+     * @param namespace         Namespace used for resource identifier resolution. Optional, if not
+     *                          specified, the configured namespace is used.
+     * @return summary of the last validation report
+     */
+    @GetMapping(value = "/{workspaceFragment}/validation-report",
+        produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Retrieve summary of the last validation report of workspace.")
+    @PreAuthorize("permitAll()")
+    public ValidationReportSummaryDto getLastValidationReport(
+        @PathVariable String workspaceFragment,
+        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace) {
+        final URI identifier = resolveIdentifier(
+            namespace, workspaceFragment, Vocabulary.s_c_metadatovy_kontext);
+        return ValidationReportSummaryDto.of(workspaceService.getLastValidationReport(identifier));
+    }
+
+    /**
+     * Returns a page of the results of the last validation report of a workspace, without
+     * running the validation again.
+     *
+     * @param workspaceFragment Localname of workspace id.
+     * @param namespace         Namespace used for resource identifier resolution. Optional, if not
+     *                          specified, the configured namespace is used.
+     * @param severities        Severities of the results, local names or IRIs.
+     * @param shapes            IRIs of the shapes of the results.
+     * @param focusNodes        Focus nodes of the results.
+     * @param contexts          Vocabulary contexts of the results.
+     * @param page              Page number, starting from 0.
+     * @param size              Page size.
+     * @param locale            Locale of the messages, resolved from the request.
+     * @return page of the matching results
+     */
+    @GetMapping(value = "/{workspaceFragment}/validation-report/results",
+        produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Retrieve page of the results of the last validation report of "
+        + "workspace. All filters are optional, values of one filter are alternatives.")
+    @ApiImplicitParam(name = "Accept-language",
+        value = "cs",
+        required = true,
+        paramType = "header",
+        dataTypeClass = String.class,
+        example = "cs"
+    )
+    @PreAuthorize("permitAll()")
+    public Page<ValidationResultDto> getLastValidationResults(
+        @PathVariable String workspaceFragment,
+        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace,
+        @ApiParam(value = "Severities, e.g. Violation, Warning or Info.")
+        @RequestParam(name = "severity", required = false) Set<String> severities,
+        @ApiParam(value = "IRIs of the shapes.")
+        @RequestParam(name = "shape", required = false) Set<String> shapes,
+        @ApiParam(value = "Focus nodes.")
+        @RequestParam(name = "focusNode", required = false) Set<String> focusNodes,
+        @ApiParam(value = "IRIs of the vocabulary contexts.")
+        @RequestParam(name = "context", required = false) Set<URI> contexts,
+        @RequestParam(name = QueryParams.PAGE, required = false, defaultValue = "0") int page,
+        @RequestParam(name = QueryParams.PAGE_SIZE, required = false,
+            defaultValue = DEFAULT_PAGE_SIZE) int size,
+        @ApiIgnore Locale locale) {
+        final URI identifier = resolveIdentifier(
+            namespace, workspaceFragment, Vocabulary.s_c_metadatovy_kontext);
+        final ValidationResultFilter filter = new ValidationResultFilter();
+        if (severities != null) {
+            filter.setSeverities(severities.stream()
+                .map(s -> s.contains(":") ? s : SH.NS + s).collect(Collectors.toSet()));
+        }
+        if (shapes != null) {
+            filter.setShapes(shapes);
+        }
+        if (focusNodes != null) {
+            filter.setFocusNodes(focusNodes);
+        }
+        if (contexts != null) {
+            filter.setContexts(contexts);
+        }
+        final String lang = locale.toLanguageTag();
+        return workspaceService.findValidationResults(identifier, filter,
+            PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE)))
+            .map(r -> ValidationResultDto.of(r, lang));
+    }
+
+    /**
+     * Returns the results of the last validation report of a workspace added and removed since
+     * the given version of the report, without running the validation again.
+     *
+     * @param workspaceFragment Localname of workspace id.
+     * @param namespace         Namespace used for resource identifier resolution. Optional, if not
+     *                          specified, the configured namespace is used.
+     * @param since             Version of the report the client has.
+     * @param locale            Locale of the messages, resolved from the request.
+     * @return delta of the last validation report
+     */
+    @GetMapping(value = "/{workspaceFragment}/validation-report/delta",
+        produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Retrieve results of the last validation report of workspace added and "
+        + "removed since the given version. If the version is too old, all results are added.")
+    @ApiImplicitParam(name = "Accept-language",
+        value = "cs",
+        required = true,
+        paramType = "header",
+        dataTypeClass = String.class,
+        example = "cs"
+    )
+    @PreAuthorize("permitAll()")
+    public ValidationReportDeltaDto getLastValidationReportDelta(
+        @PathVariable String workspaceFragment,
+        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace,
+        @ApiParam(value = "Version of the report the client has.")
+        @RequestParam(name = "since") long since,
+        @ApiIgnore Locale locale) {
+        final URI identifier = resolveIdentifier(
+            namespace, workspaceFragment, Vocabulary.s_c_metadatovy_kontext);
+        return ValidationReportDeltaDto.of(
+            workspaceService.getValidationReportDelta(identifier, since),
+            locale.toLanguageTag());
+    }
+
+    private static ValidationOptions validationOptions(final boolean incremental,
+                                                       final Set<RuleGroup> rules,
+                                                       final Set<URI> contexts) {
+        final ValidationOptions options = new ValidationOptions().setIncremental(incremental);
+        if (rules != null && !rules.isEmpty()) {
+            options.setRuleGroups(EnumSet.copyOf(rules));
+        }
+        if (contexts != null) {
+            options.setContexts(contexts);
+        }
+        return options;
+    }
+
+    private ValidationJob findValidationJob(final URI workspaceUri, final String jobId) {
+        final ValidationJob job = validationJobService.getJob(jobId);
+        if (!job.getWorkspace().equals(workspaceUri)) {
+            throw NotFoundException.create("Validation job", jobId);
+        }
+        return job;
     }
 
     /**
@@ -354,6 +764,8 @@ public class WorkspaceController extends BaseController {
      * @param workspaceFragment Localname of workspace id.
      * @param namespace         Namespace used for resource identifier resolution. Optional, if not
      *                          specified, the configured namespace is used.
+     * @param validate          Whether to validate the workspace before publishing it. Optional,
+     *                          if not specified, the configured behaviour applies.
      */
     @PostMapping(value = "/{workspaceFragment}/publish",
         produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
@@ -368,11 +780,16 @@ public class WorkspaceController extends BaseController {
             value = "https://slovník.gov.cz/datový/pracovní-prostor/pojem/metadatový-kontext/",
             example = "https://slovník.gov.cz/datový/pracovní-prostor/pojem/metadatový-kontext/"
         )
-        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace
+        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace,
+        @ApiParam(value = "Whether to validate the workspace first, the publication is aborted "
+            + "if there are validation results of the configured severity or higher.")
+        @RequestParam(name = "validate", required = false) Boolean validate
     ) {
         final URI identifier = resolveIdentifier(
             namespace, workspaceFragment, Vocabulary.s_c_metadatovy_kontext);
-        URI id = workspaceService.publish(identifier);
+        URI id = validate != null
+            ? workspaceService.publish(identifier, validate)
+            : workspaceService.publish(identifier);
         log.info("Workspace published at {}", id);
         return ResponseEntity.created(
             id
@@ -0,0 +1,52 @@
+package com.github.sgov.server.controller.dto;
+
+import com.github.sgov.server.validation.ValidationReportDelta;
+import java.net.URI;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+@SuppressWarnings("checkstyle:MissingJavadocType")
+public class ValidationReportDeltaDto {
+
+    private URI workspace;
+
+    private long since;
+
+    private long version;
+
+    /**
+     * Whether the delta could not be computed since the version, all the results of the report
+     * are then added.
+     */
+    private boolean complete;
+
+    private boolean conforms;
+
+    private List<ValidationResultDto> added;
+
+    private List<ValidationResultDto> removed;
+
+    /**
+     * Creates the delta with the messages in the given language.
+     *
+     * @param delta delta of the stored validation report
+     * @param lang  language tag of the messages
+     * @return delta
+     */
+    public static ValidationReportDeltaDto of(ValidationReportDelta delta, String lang) {
+        return new ValidationReportDeltaDto()
+            .setWorkspace(delta.getWorkspace())
+            .setSince(delta.getSince())
+            .setVersion(delta.getVersion())
+            .setComplete(delta.isComplete())
+            .setConforms(delta.isConforms())
+            .setAdded(delta.getAdded().stream()
+                .map(r -> ValidationResultDto.of(r, lang)).collect(Collectors.toList()))
+            .setRemoved(delta.getRemoved().stream()
+                .map(r -> ValidationResultDto.of(r, lang)).collect(Collectors.toList()));
+    }
+}
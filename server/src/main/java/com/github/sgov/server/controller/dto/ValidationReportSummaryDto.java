@@ -0,0 +1,53 @@
+package com.github.sgov.server.controller.dto;
+
+import com.github.sgov.server.validation.RuleGroup;
+import com.github.sgov.server.validation.StoredValidationReport;
+import java.net.URI;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+@SuppressWarnings("checkstyle:MissingJavadocType")
+public class ValidationReportSummaryDto {
+
+    private URI workspace;
+
+    private Date created;
+
+    private long version;
+
+    private boolean conforms;
+
+    private Set<RuleGroup> ruleGroups;
+
+    private Set<URI> contexts;
+
+    private int resultCount;
+
+    /**
+     * Number of results of each severity, keyed by severity IRI.
+     */
+    private Map<String, Integer> severities;
+
+    /**
+     * Creates the summary of the given report.
+     *
+     * @param report stored validation report
+     * @return summary
+     */
+    public static ValidationReportSummaryDto of(StoredValidationReport report) {
+        return new ValidationReportSummaryDto()
+            .setWorkspace(report.getWorkspace())
+            .setCreated(report.getCreated())
+            .setVersion(report.getVersion())
+            .setConforms(report.isConforms())
+            .setRuleGroups(report.getRuleGroups())
+            .setContexts(report.getContexts())
+            .setResultCount(report.getResults().size())
+            .setSeverities(report.getSeverityCounts());
+    }
+}
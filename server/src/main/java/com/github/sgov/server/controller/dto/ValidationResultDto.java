@@ -0,0 +1,44 @@
+package com.github.sgov.server.controller.dto;
+
+import com.github.sgov.server.validation.StoredValidationResult;
+import java.net.URI;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+@SuppressWarnings("checkstyle:MissingJavadocType")
+public class ValidationResultDto {
+
+    private URI context;
+
+    private String severity;
+
+    private String message;
+
+    private String focusNode;
+
+    private String shape;
+
+    private String path;
+
+    private String value;
+
+    /**
+     * Creates the result with the messages in the given language.
+     *
+     * @param r    stored validation result
+     * @param lang language tag of the messages
+     * @return result
+     */
+    public static ValidationResultDto of(StoredValidationResult r, String lang) {
+        return new ValidationResultDto()
+            .setContext(r.getContext())
+            .setSeverity(r.getSeverity())
+            .setMessage(r.getMessage(lang))
+            .setFocusNode(r.getFocusNode())
+            .setShape(r.getShape())
+            .setPath(r.getPath())
+            .setValue(r.getValue());
+    }
+}
@@ -5,8 +5,10 @@ import com.github.sgov.server.exception.AuthorizationException;
 import com.github.sgov.server.exception.NotFoundException;
 import com.github.sgov.server.exception.PersistenceException;
 import com.github.sgov.server.exception.PublicationException;
+import com.github.sgov.server.exception.PublicationRejectedException;
 import com.github.sgov.server.exception.SGoVException;
 import com.github.sgov.server.exception.ValidationException;
+import com.github.sgov.server.exception.ValidationJobRejectedException;
 import com.github.sgov.server.exception.VocabularyRegisteredinReadWriteException;
 import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
 import cz.cvut.kbss.jsonld.exception.JsonLdException;
@@ -106,6 +108,16 @@ public class RestExceptionHandler {
         return new ResponseEntity<>(errorInfo(request, e), HttpStatus.CONFLICT);
     }
 
+    /**
+     * Validation job rejected.
+     */
+    @ExceptionHandler(ValidationJobRejectedException.class)
+    public ResponseEntity<ErrorInfo> validationJobRejected(HttpServletRequest request,
+                                                           ValidationJobRejectedException e) {
+        logException(e);
+        return new ResponseEntity<>(errorInfo(request, e), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * SGoVException.
      */
@@ -150,6 +162,16 @@ public class RestExceptionHandler {
         return new ResponseEntity<>(errorInfo(request, e), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * Publication rejected by the validation.
+     */
+    @ExceptionHandler(PublicationRejectedException.class)
+    public ResponseEntity<ErrorInfo> publicationRejectedException(HttpServletRequest request,
+                                                                  PublicationRejectedException e) {
+        logException(e);
+        return new ResponseEntity<>(errorInfo(request, e), HttpStatus.CONFLICT);
+    }
+
     /**
      * Publication Exception.
      */
@@ -3,16 +3,23 @@ package com.github.sgov.server.controller.util;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.github.sgov.server.validation.ValidationMetrics;
+import com.github.sgov.server.validation.ValidationPhase;
+import io.micrometer.core.instrument.Timer;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
 
 /**
  * Serializes the SHACL validation report to JSON.
  */
 public class ValidationReportSerializer extends JsonSerializer<ValidationReport> {
 
+    private final Timer timer = ValidationMetrics.phaseTimer(ValidationPhase.SERIALIZE);
+
     public ValidationReportSerializer() {
     }
 
@@ -21,32 +28,43 @@ public class ValidationReportSerializer extends JsonSerializer<ValidationReport>
             .getRequestAttributes()).getRequest().getLocale().toLanguageTag();
     }
 
+    /**
+     * Writes a single validation result as a JSON object, with the messages in the given
+     * language.
+     *
+     * @param r    validation result
+     * @param lang language tag of the messages
+     * @param gen  generator to write to
+     */
+    public static void writeResult(ValidationResult r, String lang, JsonGenerator gen)
+        throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        r.getMessages().forEach(n -> {
+            if (lang.startsWith(n.asLiteral().getLanguage())) {
+                sb.append(n);
+            }
+        });
+        gen.writeStringField("severity", r.getSeverity().getURI());
+        gen.writeStringField("message", sb.toString());
+        gen.writeStringField("focusNode", r.getFocusNode().toString());
+    }
+
     @Override
     public void serialize(ValidationReport value, JsonGenerator gen,
                           SerializerProvider serializers) throws IOException {
+        final long start = System.nanoTime();
+        final String lang = getLang();
         gen.writeStartObject();
         gen.writeBooleanField("conforms", value.conforms());
         gen.writeFieldName("results");
         gen.writeStartArray();
-        value.results().forEach(r -> {
-            try {
-                final StringBuilder sb = new StringBuilder();
-                r.getMessages().forEach(n -> {
-                    if (getLang().startsWith(n.asLiteral().getLanguage())) {
-                        sb.append(n);
-                    }
-                });
-                gen.writeStartObject();
-                gen.writeStringField("severity", r.getSeverity().getURI());
-                gen.writeStringField("message", sb.toString());
-                gen.writeStringField("focusNode", r.getFocusNode().toString());
-                gen.writeEndObject();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        });
+        for (ValidationResult r : value.results()) {
+            gen.writeStartObject();
+            writeResult(r, lang, gen);
+            gen.writeEndObject();
+        }
         gen.writeEndArray();
         gen.writeEndObject();
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
     }
 }
-
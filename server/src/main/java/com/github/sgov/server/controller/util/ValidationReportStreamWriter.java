@@ -0,0 +1,79 @@
+package com.github.sgov.server.controller.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.github.sgov.server.validation.ValidationListener;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+
+/**
+ * Writes the validation report as newline delimited JSON while the workspace is validated.
+ *
+ * <p>Each line holds one validation result, together with the vocabulary context it comes from.
+ * The results of a context are written and flushed as soon as the context is validated. The last
+ * line holds the overall {@code conforms} flag, or the {@code error} if the validation failed.
+ */
+public class ValidationReportStreamWriter implements ValidationListener {
+
+    private final JsonGenerator gen;
+
+    private final String lang;
+
+    /**
+     * Creates the writer.
+     *
+     * @param out  stream to write to
+     * @param lang language tag of the messages
+     */
+    public ValidationReportStreamWriter(OutputStream out, String lang) throws IOException {
+        this.gen = new JsonFactory().createGenerator(out);
+        this.gen.setRootValueSeparator(null);
+        this.lang = lang;
+    }
+
+    @Override
+    public synchronized void contextValidated(URI context, ValidationReport report) {
+        try {
+            for (ValidationResult r : report.results()) {
+                gen.writeStartObject();
+                gen.writeStringField("context", context.toString());
+                ValidationReportSerializer.writeResult(r, lang, gen);
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+            }
+            gen.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the summary line of a finished validation.
+     *
+     * @param report report of the whole workspace
+     */
+    public synchronized void finish(ValidationReport report) throws IOException {
+        gen.writeStartObject();
+        gen.writeBooleanField("conforms", report.conforms());
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+        gen.flush();
+    }
+
+    /**
+     * Writes the summary line of a failed validation.
+     *
+     * @param e cause of the failure
+     */
+    public synchronized void fail(Exception e) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("error", e.getMessage());
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+        gen.flush();
+    }
+}
@@ -1,42 +1,90 @@
 package com.github.sgov.server.dao;
 
 import com.github.sgov.server.ValidationResultSeverityComparator;
-import com.github.sgov.server.Validator;
 import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.config.conf.ValidationConf;
 import com.github.sgov.server.exception.PersistenceException;
+import com.github.sgov.server.exception.SGoVException;
 import com.github.sgov.server.model.VocabularyContext;
 import com.github.sgov.server.model.Workspace;
 import com.github.sgov.server.model.util.DescriptorFactory;
+import com.github.sgov.server.service.repository.RepositoryClients;
+import com.github.sgov.server.util.Rdf4jToJena;
 import com.github.sgov.server.util.Vocabulary;
+import com.github.sgov.server.validation.BasicValidationReport;
+import com.github.sgov.server.validation.CompiledShapes;
+import com.github.sgov.server.validation.ContextDigest;
+import com.github.sgov.server.validation.IncrementalValidationCache;
+import com.github.sgov.server.validation.InferenceMode;
+import com.github.sgov.server.validation.ReleasedVocabularyCache;
+import com.github.sgov.server.validation.ShapesRegistry;
+import com.github.sgov.server.validation.TemporaryStore;
+import com.github.sgov.server.validation.TermNeighbourhood;
+import com.github.sgov.server.validation.ValidationListener;
+import com.github.sgov.server.validation.ValidationMetrics;
+import com.github.sgov.server.validation.ValidationOptions;
+import com.github.sgov.server.validation.ValidationPhase;
+import com.github.sgov.server.validation.ValidationReportCache;
+import com.github.sgov.server.validation.VocabularyImports;
 import com.google.gson.JsonObject;
 import cz.cvut.kbss.jopa.model.EntityManager;
 import cz.cvut.kbss.ontodriver.Connection;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import java.io.IOException;
 import java.net.URI;
-import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
 import kong.unirest.HttpResponse;
 import kong.unirest.Unirest;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.datatypes.xsd.XSDDateTime;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.compose.MultiUnion;
 import org.apache.jena.ontology.OntDocumentManager;
-import org.apache.jena.ontology.OntModelSpec;
 import org.apache.jena.query.ParameterizedSparqlString;
 import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.eclipse.rdf4j.repository.http.HTTPRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Repository;
+import org.springframework.util.DigestUtils;
 import org.topbraid.shacl.validation.ValidationReport;
 import org.topbraid.shacl.validation.ValidationResult;
 
@@ -47,19 +95,116 @@ import org.topbraid.shacl.validation.ValidationResult;
 @Repository
 public class WorkspaceDao extends BaseDao<Workspace> {
 
+    /**
+     * Number of the hexadecimal digits of a triple hash summed up into a part of the digest.
+     */
+    private static final int DIGEST_SLICE = 12;
+
+    private static final ContextDigest EMPTY_CONTEXT_DIGEST =
+        new ContextDigest(DigestUtils.md5DigestAsHex(new byte[0]), 0);
+
     private final RepositoryConf properties;
 
     private final DescriptorFactory descriptorFactory;
 
+    private final ShapesRegistry shapesRegistry;
+
+    private final IncrementalValidationCache incrementalValidationCache;
+
+    private final ValidationReportCache validationReportCache;
+
+    private final ValidationMetrics validationMetrics;
+
+    private final ReleasedVocabularyCache releasedVocabularyCache;
+
+    private final RepositoryClients repositoryClients;
+
+    private final ExecutorService validationExecutor;
+
+    private final ExecutorService backgroundExecutor;
+
+    private final InferenceMode inference;
+
+    private final boolean bulkFetch;
+
+    private final long pushdownThreshold;
+
+    private final long memoryBudget;
+
+    private final Path temporaryDirectory;
+
+    private Path storesDirectory;
+
+    private final Duration termLatencyTarget;
+
+    private final boolean releasedImports;
+
+    private final int incrementalRadius;
+
+    private final int incrementalLimit;
+
     /**
      * Constructor.
      */
     @Autowired
     public WorkspaceDao(EntityManager em, DescriptorFactory descriptorFactory,
-                        RepositoryConf properties) {
+                        RepositoryConf properties, ValidationConf validationConf,
+                        ShapesRegistry shapesRegistry,
+                        IncrementalValidationCache incrementalValidationCache,
+                        ValidationReportCache validationReportCache,
+                        ValidationMetrics validationMetrics,
+                        ReleasedVocabularyCache releasedVocabularyCache,
+                        RepositoryClients repositoryClients) {
         super(Workspace.class, em);
         this.properties = properties;
         this.descriptorFactory = descriptorFactory;
+        this.shapesRegistry = shapesRegistry;
+        this.incrementalValidationCache = incrementalValidationCache;
+        this.validationReportCache = validationReportCache;
+        this.validationMetrics = validationMetrics;
+        this.releasedVocabularyCache = releasedVocabularyCache;
+        this.repositoryClients = repositoryClients;
+        this.validationExecutor = Executors.newFixedThreadPool(validationConf.getThreads(),
+            new CustomizableThreadFactory("validation-"));
+        final CustomizableThreadFactory backgroundThreadFactory =
+            new CustomizableThreadFactory("background-validation-");
+        backgroundThreadFactory.setThreadPriority(Thread.MIN_PRIORITY);
+        this.backgroundExecutor = Executors.newFixedThreadPool(validationConf.getFleetThreads(),
+            backgroundThreadFactory);
+        this.inference = validationConf.getInference();
+        this.bulkFetch = validationConf.isBulkFetch();
+        this.pushdownThreshold = validationConf.getPushdownThreshold();
+        this.memoryBudget = validationConf.getMemoryBudget();
+        this.temporaryDirectory = Paths.get(validationConf.getTemporaryDirectory());
+        this.termLatencyTarget = validationConf.getTermLatencyTarget();
+        this.releasedImports = validationConf.isReleasedImports();
+        this.incrementalRadius = validationConf.getIncrementalRadius();
+        this.incrementalLimit = validationConf.getIncrementalLimit();
+    }
+
+    /**
+     * Stops the validation threads and deletes the temporary stores of this DAO.
+     */
+    @PreDestroy
+    public void shutdownValidationExecutor() {
+        validationExecutor.shutdownNow();
+        backgroundExecutor.shutdownNow();
+        synchronized (this) {
+            if (storesDirectory != null) {
+                TemporaryStore.deleteDirectory(storesDirectory);
+            }
+        }
+    }
+
+    /**
+     * Directory of the temporary stores of this DAO, created under the configured temporary
+     * directory, which may be shared, on the first use.
+     */
+    private synchronized Path getStoresDirectory() throws IOException {
+        if (storesDirectory == null) {
+            storesDirectory = TemporaryStore.createDirectory(temporaryDirectory);
+        }
+        return storesDirectory;
     }
 
     @Override
@@ -137,64 +282,747 @@ public class WorkspaceDao extends BaseDao<Workspace> {
         return list;
     }
 
-    private ValidationReport validateVocabulary(final String v,
-                                                final String endpointUlozistePracovnichProstoru,
-                                                final Validator validator,
-                                                final Set<URL> rules)
-        throws IOException {
+    /**
+     * Measures the latency of a trivial query to the workspace repository, which grows when the
+     * repository is overloaded.
+     *
+     * @return latency of the query in nanoseconds
+     */
+    public long measureRepositoryLatency() {
+        final long start = System.nanoTime();
+        try (QueryExecution e = QueryExecutionFactory
+            .sparqlService(properties.getUrl(), "ASK { ?s ?p ?o }")) {
+            e.execAsk();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private Model fetchVocabulary(final String v,
+                                  final String endpointUlozistePracovnichProstoru) {
         final String bindings = "<" + v + ">";
         final ParameterizedSparqlString query = new ParameterizedSparqlString(
             "CONSTRUCT {?s ?p ?o} WHERE  {GRAPH ?g {?s ?p ?o}} VALUES ?g {" + bindings + "}");
         log.debug("- getting all statements for the vocabularies using query {}", query);
-        final QueryExecution e = QueryExecutionFactory
-            .sparqlService(endpointUlozistePracovnichProstoru, query.asQuery());
-        final Model m = e.execConstruct();
-        log.debug("- found {} statements. Now validating", m.listStatements().toSet().size());
-        final Model dataModel =
-            ModelFactory.createOntologyModel(OntModelSpec.OWL_DL_MEM_RDFS_INF, m);
-        return validator.validate(dataModel, rules);
+        try (QueryExecution e = QueryExecutionFactory
+            .sparqlService(endpointUlozistePracovnichProstoru, query.asQuery())) {
+            return e.execConstruct();
+        }
+    }
+
+    private <T> T timed(final ValidationPhase phase, final URI context,
+                        final ValidationListener listener, final Supplier<T> action) {
+        final long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            final long nanos = System.nanoTime() - start;
+            validationMetrics.recordPhase(phase, nanos);
+            listener.phaseCompleted(phase, context, nanos);
+        }
+    }
+
+    private ValidationReport validateModel(final URI context,
+                                           final Model m,
+                                           final CompiledShapes shapes,
+                                           final Predicate<RDFNode> focusFilter,
+                                           final ValidationListener listener) {
+        return validateModel(context, m, null, null, shapes, focusFilter, listener);
+    }
+
+    /**
+     * Validates the model on top of the background graph of the released vocabularies it imports,
+     * if not null, keeping the entailments in the given target model, or in a new in-memory model
+     * if the target is null. The focus nodes described only in the background graph are not
+     * validated, they are validated in their own vocabularies.
+     */
+    private ValidationReport validateModel(final URI context,
+                                           final Model m,
+                                           final Model target,
+                                           final Graph background,
+                                           final CompiledShapes shapes,
+                                           final Predicate<RDFNode> focusFilter,
+                                           final ValidationListener listener) {
+        final long fetched = m.size();
+        validationMetrics.recordFetchedTriples(fetched);
+        final long start = System.nanoTime();
+        final Model dataModel = timed(ValidationPhase.INFERENCE, context, listener, () -> {
+            if (background != null) {
+                return target != null ? inference.apply(m, background, target)
+                    : inference.apply(m, background);
+            }
+            return target != null ? inference.apply(m, target) : inference.apply(m);
+        });
+        final long inferenceNanos = System.nanoTime() - start;
+        // the size of an inference model is expensive, it is only counted for plain models
+        final long inferred = dataModel instanceof InfModel ? -1 : getOwnSize(dataModel) - fetched;
+        if (inferred >= 0) {
+            validationMetrics.recordInferredTriples(inferred);
+        }
+        final Predicate<RDFNode> filter = background == null ? focusFilter
+            : n -> (focusFilter == null || focusFilter.test(n))
+            && isDescribedInModel(n, m, background);
+        final ValidationReport report = timed(ValidationPhase.SHACL, context, listener,
+            () -> shapes.validate(dataModel, filter));
+        log.debug("- {}: {} triples, {} inferred in {} ms, SHACL validated in {} ms", context,
+            fetched, inferred, TimeUnit.NANOSECONDS.toMillis(inferenceNanos),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start - inferenceNanos));
+        return report;
+    }
+
+    /**
+     * Number of triples of the model, without the background graph it is layered on.
+     */
+    private static long getOwnSize(final Model model) {
+        return model.getGraph() instanceof MultiUnion
+            ? ((MultiUnion) model.getGraph()).getBaseGraph().size() : model.size();
+    }
+
+    /**
+     * Whether the node is described in the validated model, or is not described in the background
+     * graph at all.
+     */
+    private static boolean isDescribedInModel(final RDFNode node, final Model m,
+                                              final Graph background) {
+        final Node n = node.asNode();
+        return m.getGraph().contains(n, Node.ANY, Node.ANY)
+            || !background.contains(n, Node.ANY, Node.ANY);
+    }
+
+    /**
+     * Returns the union of the released versions of the given imports, or null if there are
+     * none, or they are not available. The vocabulary contexts are then validated without them.
+     */
+    private Graph getReleasedImports(final VocabularyImports vocabularyImports) {
+        if (!releasedImports || vocabularyImports.isEmpty()) {
+            return null;
+        }
+        try {
+            final Graph imports = releasedVocabularyCache.getImports(vocabularyImports);
+            return imports.isEmpty() ? null : imports;
+        } catch (RuntimeException e) {
+            log.warn("Unable to get the released vocabularies imported by {}, validating "
+                + "without them.", vocabularyImports.getVocabularies(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Finds the vocabularies imported by the vocabularies of each of the given vocabulary
+     * contexts, as stated in the contexts themselves, in a single query. This way, also the
+     * imports of the vocabularies not released yet and the imports added in the workspace are
+     * taken into account. No imports are looked up if the released vocabularies are not
+     * validated against.
+     */
+    private Map<String, VocabularyImports> getImports(
+        final Collection<String> contexts,
+        final String endpointUlozistePracovnichProstoru) {
+        final Map<String, VocabularyImports> imports = new HashMap<>();
+        contexts.forEach(c -> imports.put(c, VocabularyImports.NONE));
+        if (!releasedImports || contexts.isEmpty()) {
+            return imports;
+        }
+        final String bindings = contexts.stream().map(c -> "<" + c + ">")
+            .collect(Collectors.joining(" "));
+        final ParameterizedSparqlString query = new ParameterizedSparqlString(
+            "SELECT ?g ?v ?i WHERE { VALUES ?g {" + bindings + "} "
+                + "GRAPH ?g { ?v ?imports ?i } FILTER(isIRI(?v) && isIRI(?i)) }");
+        query.setIri("imports", VocabularyImports.IMPORTS);
+        final Map<String, Model> statements = new HashMap<>();
+        try (QueryExecution e = QueryExecutionFactory
+            .sparqlService(endpointUlozistePracovnichProstoru, query.asQuery())) {
+            e.execSelect().forEachRemaining(s -> {
+                final Model m = statements.computeIfAbsent(s.getResource("g").getURI(),
+                    g -> ModelFactory.createDefaultModel());
+                m.add(s.getResource("v"), m.createProperty(VocabularyImports.IMPORTS),
+                    s.getResource("i"));
+            });
+        }
+        statements.forEach((c, m) -> imports.put(c, VocabularyImports.of(m)));
+        return imports;
+    }
+
+    /**
+     * Fetches the given vocabulary contexts in a single request to the workspace repository,
+     * using the binary RDF format if the repository supports it, and splits the statements into
+     * a model per context.
+     */
+    private Map<String, Model> fetchVocabularies(final Collection<String> contexts,
+                                                 final String endpointUlozistePracovnichProstoru) {
+        final Map<String, Model> models = new ConcurrentHashMap<>();
+        contexts.forEach(c -> models.put(c, ModelFactory.createDefaultModel()));
+        return fetchVocabularies(models, endpointUlozistePracovnichProstoru);
+    }
+
+    /**
+     * Fetches the vocabulary contexts into the given models, keyed by context.
+     */
+    private Map<String, Model> fetchVocabularies(final Map<String, Model> models,
+                                                 final String endpointUlozistePracovnichProstoru) {
+        final Collection<String> contexts = models.keySet();
+        if (contexts.isEmpty()) {
+            return models;
+        }
+        final HTTPRepository repository =
+            repositoryClients.getHttpRepository(endpointUlozistePracovnichProstoru);
+        final ValueFactory f = repository.getValueFactory();
+        final IRI[] iris = contexts.stream().map(f::createIRI).toArray(IRI[]::new);
+        try (RepositoryConnection connection = repository.getConnection();
+             RepositoryResult<Statement> statements =
+                 connection.getStatements(null, null, null, false, iris)) {
+            for (Statement st : statements) {
+                models.get(st.getContext().stringValue()).getGraph()
+                    .add(Rdf4jToJena.toTriple(st));
+            }
+        }
+        log.debug("- fetched {} contexts with {} statements in total", contexts.size(),
+            models.values().stream().mapToLong(Model::size).sum());
+        return models;
+    }
+
+    /**
+     * Computes the digests of the given vocabulary contexts in the triple store, in a single
+     * query. Only the digests cross the wire. Each triple is hashed and two 48-bit slices of the
+     * hashes are summed up, so a digest does not depend on the order in which the store returns
+     * the triples. The contexts with blank nodes get no digest.
+     */
+    private Map<String, ContextDigest> getDigests(final Collection<String> contexts,
+                                                  final String endpointUlozistePracovnichProstoru) {
+        final Map<String, ContextDigest> digests = new HashMap<>();
+        // empty contexts do not appear in the results
+        contexts.forEach(c -> digests.put(c, EMPTY_CONTEXT_DIGEST));
+        if (contexts.isEmpty()) {
+            return digests;
+        }
+        final String bindings = contexts.stream().map(c -> "<" + c + ">")
+            .collect(Collectors.joining(" "));
+        final ParameterizedSparqlString query = new ParameterizedSparqlString(
+            "SELECT ?g (COUNT(?h) AS ?size) (SUM(?x) AS ?sumX) (SUM(?y) AS ?sumY) "
+                + "(SUM(?blank) AS ?blanks) "
+                + "WHERE { VALUES ?g {" + bindings + "} "
+                + "GRAPH ?g { ?s ?p ?o } "
+                + "BIND(MD5(CONCAT(STR(?s), ' ', STR(?p), ' ', IF(isLiteral(?o), "
+                + "CONCAT(STR(?o), '@', LANG(?o), '^^', STR(DATATYPE(?o))), STR(?o)))) AS ?h) "
+                + "BIND(" + hexToInteger("?h", 0) + " AS ?x) "
+                + "BIND(" + hexToInteger("?h", DIGEST_SLICE) + " AS ?y) "
+                + "BIND(IF(isBlank(?s) || isBlank(?o), 1, 0) AS ?blank) "
+                + "} GROUP BY ?g");
+        try (QueryExecution e = QueryExecutionFactory
+            .sparqlService(endpointUlozistePracovnichProstoru, query.asQuery())) {
+            e.execSelect().forEachRemaining(s -> {
+                final String digest = s.getLiteral("blanks").getLong() > 0 ? null
+                    : DigestUtils.md5DigestAsHex((s.getLiteral("sumX").getLexicalForm() + " "
+                    + s.getLiteral("sumY").getLexicalForm()).getBytes(StandardCharsets.UTF_8));
+                digests.put(s.getResource("g").getURI(),
+                    new ContextDigest(digest, s.getLiteral("size").getLong()));
+            });
+        }
+        return digests;
+    }
+
+    /**
+     * SPARQL expression of the integer value of the hexadecimal digits of the given variable,
+     * starting at the given (zero-based) position.
+     */
+    private static String hexToInteger(final String variable, final int from) {
+        final List<String> digits = new ArrayList<>();
+        for (int i = 0; i < DIGEST_SLICE; i++) {
+            digits.add("STRLEN(STRBEFORE('0123456789abcdef', SUBSTR(" + variable + ", "
+                + (from + i + 1) + ", 1))) * " + (1L << (4 * (DIGEST_SLICE - 1 - i))));
+        }
+        return "(" + String.join(" + ", digits) + ")";
+    }
+
+    /**
+     * Whether the vocabulary context is too big to be validated in memory and is validated in the
+     * triple store instead. This is only the case if all the constraints of the rules are
+     * validated in the triple store and the context does not import released vocabularies, as
+     * their schema is not available there.
+     */
+    private boolean isPushedDown(final ContextDigest digest, final VocabularyImports imports,
+                                 final CompiledShapes shapes) {
+        return pushdownThreshold > 0 && digest.getSize() > pushdownThreshold
+            && (!releasedImports || imports.isEmpty())
+            && shapes.getPushdownValidator().isComplete();
     }
 
     /**
-     * Validates workspace.
+     * Whether the vocabulary context is too big to be validated in memory and is fetched into a
+     * temporary disk-backed store instead. This includes the contexts over the pushdown threshold
+     * which cannot be validated in the triple store.
+     */
+    private boolean isStoredOnDisk(final ContextDigest digest, final VocabularyImports imports,
+                                   final CompiledShapes shapes) {
+        return !isPushedDown(digest, imports, shapes)
+            && ((memoryBudget > 0 && digest.getSize() > memoryBudget)
+            || (pushdownThreshold > 0 && digest.getSize() > pushdownThreshold));
+    }
+
+    /**
+     * Fetches the vocabulary context into a temporary disk-backed store and validates it from
+     * there, on top of the background graph if not null. The store is deleted afterwards.
+     */
+    private ValidationReport validateOnDisk(final String v,
+                                            final Graph background,
+                                            final String endpointUlozistePracovnichProstoru,
+                                            final CompiledShapes shapes,
+                                            final ValidationListener listener) {
+        final URI context = URI.create(v);
+        try (TemporaryStore store = TemporaryStore.create(getStoresDirectory())) {
+            log.debug("- {}: validating in the temporary store {}", context,
+                store.getDirectory());
+            final Model m = store.createModel();
+            timed(ValidationPhase.FETCH, context, listener, () -> fetchVocabularies(
+                Collections.singletonMap(v, m), endpointUlozistePracovnichProstoru));
+            return validateModel(context, m, store.createModel(), background, shapes, null,
+                listener);
+        } catch (IOException e) {
+            throw new SGoVException("Unable to create a temporary store for " + v, e);
+        }
+    }
+
+    /**
+     * Version of the rules the report of the context is cached for. The reports of the contexts
+     * validated in the triple store are kept apart, as the entailments are only emulated
+     * there. The reports of the contexts validated on top of the released vocabularies depend on
+     * the imported vocabularies and on the generation of the released vocabulary cache.
+     */
+    private String getRulesVersion(final ContextDigest digest, final VocabularyImports imports,
+                                   final CompiledShapes shapes) {
+        if (isPushedDown(digest, imports, shapes)) {
+            return shapes.getVersion() + "+pushdown";
+        }
+        return getRulesVersion(imports, shapes);
+    }
+
+    private String getRulesVersion(final VocabularyImports imports, final CompiledShapes shapes) {
+        if (!releasedImports || imports.isEmpty()) {
+            return shapes.getVersion();
+        }
+        return shapes.getVersion() + "+release-" + releasedVocabularyCache.getGeneration() + "-"
+            + imports.getDigest();
+    }
+
+    private ValidationReport validateInRepository(final String v,
+                                                  final String endpointUlozistePracovnichProstoru,
+                                                  final CompiledShapes shapes,
+                                                  final ValidationListener listener) {
+        final URI context = URI.create(v);
+        final ValidationReport report = timed(ValidationPhase.SHACL, context, listener,
+            () -> shapes.getPushdownValidator().validate(endpointUlozistePracovnichProstoru,
+                context));
+        log.debug("- {}: validated in the triple store", context);
+        return report;
+    }
+
+    /**
+     * Validates the given vocabulary contexts, reusing the cached reports of the contexts whose
+     * content did not change, unless they contain blank nodes. The remaining contexts are fetched
+     * in bulk, unless disabled, as long as they fit in the memory budget together. The others are
+     * fetched one by one when validated, so that they do not wait for a validation thread in
+     * memory. The contexts with more triples than the pushdown threshold are not
+     * fetched, they are validated in the triple store if possible. The other contexts with more
+     * triples than the pushdown threshold or the memory budget are fetched separately, into a
+     * temporary disk-backed store. The contexts not validated in the triple store are validated
+     * on top of the released vocabularies imported by their vocabularies. The contexts are
+     * validated by the given executor.
+     */
+    private List<Future<ValidationReport>> submitCached(final List<String> contexts,
+                                                        final String endpoint,
+                                                        final CompiledShapes shapes,
+                                                        final ExecutorService executor,
+                                                        final ValidationListener listener) {
+        final Map<String, ContextDigest> digests = timed(ValidationPhase.DIGEST, null, listener,
+            () -> getDigests(contexts, endpoint));
+        final Map<String, VocabularyImports> imports = timed(ValidationPhase.DIGEST, null,
+            listener, () -> getImports(contexts, endpoint));
+        final List<String> misses = contexts.stream()
+            .filter(c -> !isPushedDown(digests.get(c), imports.get(c), shapes)
+                && !isStoredOnDisk(digests.get(c), imports.get(c), shapes))
+            .filter(c -> !digests.get(c).isCacheable()
+                || !validationReportCache.contains(digests.get(c).getDigest(),
+                getRulesVersion(digests.get(c), imports.get(c), shapes)))
+            .collect(Collectors.toList());
+        final List<String> bulk = new ArrayList<>();
+        long bulkSize = 0;
+        for (String c : misses) {
+            bulkSize += digests.get(c).getSize();
+            if (memoryBudget > 0 && bulkSize > memoryBudget) {
+                break;
+            }
+            bulk.add(c);
+        }
+        final Map<String, Model> models = bulkFetch
+            ? timed(ValidationPhase.FETCH, null, listener,
+                () -> fetchVocabularies(bulk, endpoint))
+            : Collections.emptyMap();
+        return contexts.stream().map(c -> executor.submit(() -> {
+            final ContextDigest digest = digests.get(c);
+            final VocabularyImports contextImports = imports.get(c);
+            final Supplier<ValidationReport> validation = () -> {
+                if (isPushedDown(digest, contextImports, shapes)) {
+                    return validateInRepository(c, endpoint, shapes, listener);
+                }
+                final Graph background = getReleasedImports(contextImports);
+                if (isStoredOnDisk(digest, contextImports, shapes)) {
+                    return validateOnDisk(c, background, endpoint, shapes, listener);
+                }
+                final Model m = models.remove(c);
+                return m != null
+                    ? validateModel(URI.create(c), m, null, background, shapes, null, listener)
+                    : validateVocabulary(c, background, endpoint, shapes, listener);
+            };
+            final ValidationReport report = digest.isCacheable()
+                ? validationReportCache.get(digest.getDigest(),
+                getRulesVersion(digest, contextImports, shapes), validation)
+                : validation.get();
+            models.remove(c);
+            listener.contextValidated(URI.create(c), report);
+            return report;
+        })).collect(Collectors.toList());
+    }
+
+    private ValidationReport validateVocabulary(final String v,
+                                                final Graph background,
+                                                final String endpointUlozistePracovnichProstoru,
+                                                final CompiledShapes shapes,
+                                                final ValidationListener listener) {
+        final URI context = URI.create(v);
+        final Model m = timed(ValidationPhase.FETCH, context, listener,
+            () -> fetchVocabulary(v, endpointUlozistePracovnichProstoru));
+        return validateModel(context, m, null, background, shapes, null, listener);
+    }
+
+    /**
+     * Validates the vocabulary context incrementally. The last report of the context is reused
+     * and only the nodes around the entities changed since then (according to the change
+     * tracking context) are validated again. Only their neighbourhood is fetched and inferred
+     * from, so the cost is proportional to the change rather than to the context. The whole
+     * context is validated instead if the rules have an unbounded path, or if the neighbourhood
+     * is too big.
+     *
+     * @see #getIncrementalRadius(CompiledShapes)
+     */
+    private ValidationReport validateVocabularyIncrementally(
+        final VocabularyContext c,
+        final String endpointUlozistePracovnichProstoru,
+        final CompiledShapes shapes,
+        final ValidationListener listener) {
+        final URI changeTrackingContext = c.getChangeTrackingContext().getUri();
+        final VocabularyImports imports = timed(ValidationPhase.DIGEST, c.getUri(), listener,
+            () -> getImports(Collections.singleton(c.getUri().toString()),
+                endpointUlozistePracovnichProstoru).get(c.getUri().toString()));
+        final String rulesVersion = getRulesVersion(imports, shapes);
+        final IncrementalValidationCache.Entry last =
+            incrementalValidationCache.get(c.getUri(), rulesVersion);
+        final Graph background = getReleasedImports(imports);
+        if (last == null) {
+            final Literal lastChange = timed(ValidationPhase.FETCH, c.getUri(), listener,
+                () -> getLastChange(changeTrackingContext, endpointUlozistePracovnichProstoru));
+            final ValidationReport report = validateVocabulary(c.getUri().toString(),
+                background, endpointUlozistePracovnichProstoru, shapes, listener);
+            incrementalValidationCache.put(c.getUri(), rulesVersion,
+                new IncrementalValidationCache.Entry(lastChange, report));
+            return report;
+        }
+
+        final Map<Resource, Literal> changes = timed(ValidationPhase.FETCH, c.getUri(), listener,
+            () -> getChangedEntities(changeTrackingContext, last.getLastChange(),
+                endpointUlozistePracovnichProstoru));
+        if (changes.isEmpty()) {
+            log.debug("- no changes in {} since the last validation", c.getUri());
+            return last.getReport();
+        }
+        final Literal lastChange = changes.values().stream()
+            .max(WorkspaceDao::compareTimestamps)
+            .orElse(last.getLastChange());
+
+        final ValidationReport report = validateChanges(c.getUri(), changes.keySet(),
+            last.getReport(), background, endpointUlozistePracovnichProstoru, shapes, listener);
+        incrementalValidationCache.put(c.getUri(), rulesVersion,
+            new IncrementalValidationCache.Entry(lastChange, report));
+        return report;
+    }
+
+    /**
+     * Number of statements from a changed entity within which a validation result may change.
+     * It is the configured radius, covering the SHACL-SPARQL constraints, or the longest property
+     * path of the rules if longer.
+     *
+     * @return radius, -1 if the rules have an unbounded path
+     */
+    private int getIncrementalRadius(final CompiledShapes shapes) {
+        final int length = shapes.getMaxPathLength();
+        return length < 0 ? -1 : Math.max(1, Math.max(incrementalRadius, length));
+    }
+
+    /**
+     * Validates the nodes within the incremental radius from the changed entities again, on top
+     * of the neighbourhood of the changed entities twice as big, and replaces their results in
+     * the last report. The rdf:type statements are not followed, the classes are part of the
+     * neighbourhood only through the schema statements.
+     */
+    private ValidationReport validateChanges(final URI context,
+                                             final Set<Resource> changed,
+                                             final ValidationReport last,
+                                             final Graph background,
+                                             final String endpoint,
+                                             final CompiledShapes shapes,
+                                             final ValidationListener listener) {
+        final int radius = getIncrementalRadius(shapes);
+        final Collection<String> contexts = Collections.singleton(context.toString());
+        final List<Set<URI>> rings = radius < 0 ? null : timed(ValidationPhase.FETCH, context,
+            listener, () -> TermNeighbourhood.findRings(endpoint, contexts, changed.stream()
+                    .filter(Resource::isURIResource).map(r -> URI.create(r.getURI()))
+                    .collect(Collectors.toSet()), 2 * radius - 1, incrementalLimit));
+        final Set<URI> neighbourhood = rings == null ? Collections.emptySet()
+            : rings.stream().flatMap(Set::stream).collect(Collectors.toSet());
+        if (rings == null || neighbourhood.size() > incrementalLimit) {
+            log.debug("- revalidating the whole {}, the rules have an unbounded path or the "
+                + "changes affect more than {} nodes", context, incrementalLimit);
+            return validateVocabulary(context.toString(), background, endpoint, shapes,
+                listener);
+        }
+
+        final Model m = timed(ValidationPhase.FETCH, context, listener,
+            () -> TermNeighbourhood.fetch(endpoint, contexts, neighbourhood));
+        final Set<RDFNode> affected = rings.subList(0, Math.min(radius + 1, rings.size()))
+            .stream().flatMap(Set::stream).map(u -> m.createResource(u.toString()))
+            .collect(Collectors.toSet());
+        log.debug("- revalidating {} nodes affected by {} changed entities in {}, from {} nodes "
+            + "and {} statements around them", affected.size(), changed.size(), context,
+            neighbourhood.size(), m.size());
+        final ValidationReport delta = validateModel(context, m, null, background, shapes,
+            affected::contains, listener);
+
+        final List<ValidationResult> results = last.results().stream()
+            .filter(r -> !affected.contains(r.getFocusNode()))
+            .collect(Collectors.toCollection(ArrayList::new));
+        results.addAll(delta.results());
+        return new BasicValidationReport(results.isEmpty(), results);
+    }
+
+    private Literal getLastChange(final URI changeTrackingContext,
+                                  final String endpointUlozistePracovnichProstoru) {
+        final ParameterizedSparqlString query = new ParameterizedSparqlString(
+            "SELECT (MAX(?t) AS ?last) WHERE { GRAPH ?ctc { ?r ?modified ?t } }");
+        query.setIri("ctc", changeTrackingContext.toString());
+        query.setIri("modified", Vocabulary.s_p_ma_datum_a_cas_modifikace);
+        try (QueryExecution e = QueryExecutionFactory
+            .sparqlService(endpointUlozistePracovnichProstoru, query.asQuery())) {
+            final ResultSet rs = e.execSelect();
+            if (rs.hasNext()) {
+                final QuerySolution s = rs.next();
+                if (s.contains("last")) {
+                    return s.getLiteral("last");
+                }
+            }
+            return null;
+        }
+    }
+
+    private Map<Resource, Literal> getChangedEntities(final URI changeTrackingContext,
+                                                      final Literal since,
+                                                      final String endpoint) {
+        final ParameterizedSparqlString query = new ParameterizedSparqlString(
+            "SELECT ?entity ?t WHERE { GRAPH ?ctc { ?r ?changed ?entity ; ?modified ?t . "
+                + (since != null ? "FILTER (?t > ?since)" : "") + " } }");
+        query.setIri("ctc", changeTrackingContext.toString());
+        query.setIri("changed", Vocabulary.s_p_ma_zmenenou_entitu);
+        query.setIri("modified", Vocabulary.s_p_ma_datum_a_cas_modifikace);
+        if (since != null) {
+            query.setLiteral("since", since);
+        }
+        final Map<Resource, Literal> changes = new HashMap<>();
+        try (QueryExecution e = QueryExecutionFactory.sparqlService(endpoint, query.asQuery())) {
+            e.execSelect().forEachRemaining(s ->
+                changes.merge(s.getResource("entity"), s.getLiteral("t"),
+                    (a, b) -> compareTimestamps(a, b) >= 0 ? a : b));
+        }
+        return changes;
+    }
+
+    private static int compareTimestamps(final Literal a, final Literal b) {
+        if (a.getValue() instanceof XSDDateTime && b.getValue() instanceof XSDDateTime) {
+            return ((XSDDateTime) a.getValue()).compareTo((XSDDateTime) b.getValue());
+        }
+        return a.getLexicalForm().compareTo(b.getLexicalForm());
+    }
+
+    /**
+     * Validates workspace. Vocabulary contexts are fetched and validated concurrently, the results
+     * are then merged in the order of the workspace contexts and sorted by severity, so the
+     * report is the same as if the contexts were validated one after another.
      *
      * @param workspace workspace to be validated
      * @return ValidationReport
      */
     public ValidationReport validateWorkspace(final Workspace workspace) throws IOException {
+        return validateWorkspace(workspace, new ValidationOptions());
+    }
+
+    /**
+     * Validates workspace using the given options. Only the selected rule groups and vocabulary
+     * contexts are validated.
+     *
+     * @param workspace workspace to be validated
+     * @param options   validation options
+     * @return ValidationReport
+     * @see #validateWorkspace(Workspace)
+     */
+    public ValidationReport validateWorkspace(final Workspace workspace,
+                                              final ValidationOptions options)
+        throws IOException {
+        return validateWorkspace(workspace, options, ValidationListener.NONE);
+    }
+
+    /**
+     * Validates workspace using the given options, notifying the listener as soon as each of the
+     * vocabulary contexts is validated. The background validations are run by low priority
+     * threads, apart from the threads serving the interactive validations.
+     *
+     * @param workspace workspace to be validated
+     * @param options   validation options
+     * @param listener  listener of the vocabulary context reports
+     * @return ValidationReport
+     * @see #validateWorkspace(Workspace)
+     */
+    public ValidationReport validateWorkspace(final Workspace workspace,
+                                              final ValidationOptions options,
+                                              final ValidationListener listener)
+        throws IOException {
         log.info("Validating workspace {}", workspace.getUri());
-        final Set<URL> rules = new HashSet<>();
-        final Validator validator = new Validator();
+        final CompiledShapes shapes = shapesRegistry.getShapes(options.getRuleGroups());
         boolean conforms = true;
-        rules.addAll(validator.getGlossaryRules());
-        rules.addAll(validator.getModelRules());
-        rules.addAll(validator.getVocabularyRules());
         OntDocumentManager.getInstance().setProcessImports(false);
 
         final String endpointUlozistePracovnichProstoru = properties.getUrl();
 
+        final List<VocabularyContext> contexts = workspace.getVocabularyContexts().stream()
+            .filter(c -> options.getContexts().isEmpty()
+                || options.getContexts().contains(c.getUri()))
+            .collect(Collectors.toList());
+        listener.validationStarted(contexts.stream()
+            .map(VocabularyContext::getUri).collect(Collectors.toList()));
+        final ExecutorService executor =
+            options.isBackground() ? backgroundExecutor : validationExecutor;
+        final List<Future<ValidationReport>> reports;
+        if (options.isIncremental()) {
+            reports = new ArrayList<>();
+            for (VocabularyContext c : contexts) {
+                reports.add(executor.submit(() -> {
+                    final ValidationReport report = validateVocabularyIncrementally(c,
+                        endpointUlozistePracovnichProstoru, shapes, listener);
+                    listener.contextValidated(c.getUri(), report);
+                    return report;
+                }));
+            }
+        } else {
+            reports = submitCached(contexts.stream()
+                    .map(c -> c.getUri().toString()).collect(Collectors.toList()),
+                endpointUlozistePracovnichProstoru, shapes, executor, listener);
+        }
+
         final List<ValidationResult> validationResults = new ArrayList<>();
-        for (VocabularyContext c : workspace
-            .getVocabularyContexts()) {
-            final ValidationReport report = validateVocabulary(c.getUri().toString(),
-                endpointUlozistePracovnichProstoru, validator, rules);
-            conforms = conforms && report.conforms();
-            validationResults.addAll(report.results());
+        try {
+            for (Future<ValidationReport> f : reports) {
+                final ValidationReport report = getReport(f);
+                conforms = conforms && report.conforms();
+                validationResults.addAll(report.results());
+            }
+        } finally {
+            reports.forEach(f -> f.cancel(true));
         }
         validationResults.sort(new ValidationResultSeverityComparator());
-        boolean finalConforms = conforms;
         log.info("- done.");
-        return new ValidationReport() {
-            @Override
-            public boolean conforms() {
-                return finalConforms;
-            }
+        return new BasicValidationReport(conforms, validationResults);
+    }
+
+    /**
+     * Validates the given terms of the workspace alone. Only the bounded neighbourhood of the
+     * terms is fetched from the selected vocabulary contexts, in a single query, and validated
+     * with the results restricted to the terms. The contexts are validated together, so unlike
+     * the workspace validation, the links between the contexts are followed. The released
+     * vocabularies imported by the contexts are validated against as well, from the shared cache.
+     *
+     * @param workspace workspace containing the terms
+     * @param terms     IRIs of the terms to validate
+     * @param options   validation options, the incremental flag is ignored
+     * @param listener  listener of the validation phases
+     * @return ValidationReport of the terms
+     * @see TermNeighbourhood
+     */
+    public ValidationReport validateTerms(final Workspace workspace,
+                                          final Set<URI> terms,
+                                          final ValidationOptions options,
+                                          final ValidationListener listener) {
+        final long start = System.nanoTime();
+        final CompiledShapes shapes = shapesRegistry.getShapes(options.getRuleGroups());
+        final List<VocabularyContext> selected = workspace.getVocabularyContexts().stream()
+            .filter(c -> options.getContexts().isEmpty()
+                || options.getContexts().contains(c.getUri()))
+            .collect(Collectors.toList());
+        final List<String> contexts = selected.stream()
+            .map(c -> c.getUri().toString())
+            .collect(Collectors.toList());
+        final Model m = timed(ValidationPhase.FETCH, null, listener,
+            () -> TermNeighbourhood.fetch(properties.getUrl(), contexts, terms));
+        final Graph background = getReleasedImports(VocabularyImports.merge(
+            timed(ValidationPhase.FETCH, null, listener,
+                () -> getImports(contexts, properties.getUrl())).values()));
+        final Set<RDFNode> focusNodes = terms.stream()
+            .map(t -> m.createResource(t.toString())).collect(Collectors.toSet());
+        final ValidationReport report = validateModel(null, m, null, background, shapes,
+            focusNodes::contains, listener);
+        final List<ValidationResult> results = new ArrayList<>(report.results());
+        results.sort(new ValidationResultSeverityComparator());
 
-            @Override
-            public List<ValidationResult> results() {
-                return validationResults;
+        final long nanos = System.nanoTime() - start;
+        validationMetrics.recordTermValidation(nanos);
+        if (nanos > termLatencyTarget.toNanos()) {
+            log.info("Validation of {} terms of workspace {} took {} ms, over the target of {} ms",
+                terms.size(), workspace.getUri(), TimeUnit.NANOSECONDS.toMillis(nanos),
+                termLatencyTarget.toMillis());
+        }
+        return new BasicValidationReport(report.conforms(), results);
+    }
+
+    /**
+     * Validates the given content of a vocabulary context, e.g. fetched for its publication,
+     * against all the rules, on top of the released vocabularies it imports. The content is
+     * validated in the validation executor, concurrently with the caller, which must not modify
+     * it meanwhile.
+     *
+     * @param context    vocabulary context
+     * @param statements content of the vocabulary context
+     * @return validation report of the content, once validated
+     */
+    public Future<ValidationReport> submitContextValidation(
+        final VocabularyContext context,
+        final Iterable<Statement> statements) {
+        return validationExecutor.submit(() -> {
+            final Model m = ModelFactory.createDefaultModel();
+            statements.forEach(st -> m.getGraph().add(Rdf4jToJena.toTriple(st)));
+            final Graph background = getReleasedImports(VocabularyImports.of(m));
+            return validateModel(context.getUri(), m, null, background,
+                shapesRegistry.getShapes(), null, ValidationListener.NONE);
+        });
+    }
+
+    private ValidationReport getReport(final Future<ValidationReport> report)
+        throws IOException {
+        try {
+            return report.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SGoVException("Interrupted while validating workspace.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
-        };
+            throw new SGoVException(e.getCause());
+        }
     }
 
     /**
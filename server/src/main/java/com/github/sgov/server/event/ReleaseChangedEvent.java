@@ -0,0 +1,23 @@
+package com.github.sgov.server.event;
+
+/**
+ * Emitted when the content of the release SPARQL endpoint changes, e.g. when new vocabulary
+ * versions are published.
+ */
+public class ReleaseChangedEvent {
+
+    private final String fingerprint;
+
+    public ReleaseChangedEvent(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Gets the fingerprint of the new state of the release.
+     *
+     * @return Fingerprint
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+}
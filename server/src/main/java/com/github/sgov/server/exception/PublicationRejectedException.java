@@ -0,0 +1,11 @@
+package com.github.sgov.server.exception;
+
+/**
+ * Indicates that publication was rejected, as the workspace does not pass the validation.
+ */
+public class PublicationRejectedException extends PublicationException {
+
+    public PublicationRejectedException(String message) {
+        super(message);
+    }
+}
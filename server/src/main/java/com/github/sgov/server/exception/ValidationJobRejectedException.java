@@ -0,0 +1,11 @@
+package com.github.sgov.server.exception;
+
+/**
+ * Indicates that a validation job cannot be accepted, because the job queue is full.
+ */
+public class ValidationJobRejectedException extends SGoVException {
+
+    public ValidationJobRejectedException(String message) {
+        super(message);
+    }
+}
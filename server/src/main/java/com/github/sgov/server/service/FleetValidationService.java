@@ -0,0 +1,212 @@
+package com.github.sgov.server.service;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import com.github.sgov.server.exception.SGoVException;
+import com.github.sgov.server.validation.AdaptiveConcurrencyLimiter;
+import com.github.sgov.server.validation.FleetValidationSummary;
+import com.github.sgov.server.validation.StoredValidationReport;
+import com.github.sgov.server.validation.ValidationOptions;
+import com.github.sgov.server.validation.WorkspaceValidationSummary;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Periodically validates all workspaces in the background, keeping the outcome of the last
+ * validation of each of them.
+ *
+ * <p>The workspaces are validated by low priority threads, and so are their vocabulary contexts,
+ * apart from the threads validating the interactive requests. The periodic validation runs on
+ * these threads as well, so that it does not hold up the other scheduled tasks. Before each
+ * workspace is started, the latency of the workspace repository is measured and the number of
+ * workspaces validated concurrently is adapted to it, so that the background validation backs
+ * off when the repository is busy serving the interactive requests.
+ */
+@Service
+@Slf4j
+public class FleetValidationService {
+
+    private final WorkspaceService workspaceService;
+
+    private final boolean enabled;
+
+    private final ExecutorService executor;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final Map<URI, WorkspaceValidationSummary> summaries = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Date started;
+
+    private volatile Date finished;
+
+    /**
+     * Constructor.
+     */
+    @Autowired
+    public FleetValidationService(WorkspaceService workspaceService,
+                                  ValidationConf validationConf) {
+        this.workspaceService = workspaceService;
+        this.enabled = validationConf.isFleetEnabled();
+        final CustomizableThreadFactory threadFactory =
+            new CustomizableThreadFactory("fleet-validation-");
+        threadFactory.setThreadPriority(Thread.MIN_PRIORITY);
+        // one more thread for the loop submitting the workspaces
+        this.executor =
+            Executors.newFixedThreadPool(validationConf.getFleetThreads() + 1, threadFactory);
+        this.limiter = new AdaptiveConcurrencyLimiter(validationConf.getFleetThreads(),
+            validationConf.getFleetLatencyTarget());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(fixedRateString = "#{@validationConf.fleetInterval.toMillis()}",
+        initialDelayString = "#{@validationConf.fleetInitialDelay.toMillis()}")
+    void scheduledValidation() {
+        if (enabled) {
+            executor.execute(() -> {
+                try {
+                    validateAll();
+                } catch (RuntimeException e) {
+                    log.warn("Background validation of all workspaces failed.", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Validates all workspaces, unless they are already being validated. Returns once all of
+     * them are validated.
+     */
+    public void validateAll() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Background validation of all workspaces is already running.");
+            return;
+        }
+        started = new Date();
+        final List<Future<?>> validations = new ArrayList<>();
+        try {
+            final List<URI> workspaces = workspaceService.getAllWorkspaceIris();
+            summaries.keySet().retainAll(new HashSet<>(workspaces));
+            log.info("Validating {} workspaces in the background.", workspaces.size());
+            for (URI workspace : workspaces) {
+                acquire();
+                try {
+                    validations.add(executor.submit(() -> {
+                        try {
+                            validate(workspace);
+                            // observe the triple store while the other workspaces are validated
+                            limiter.onLatency(workspaceService.measureRepositoryLatency());
+                        } catch (RuntimeException e) {
+                            log.warn("Failed to measure the latency of the repository.", e);
+                        } finally {
+                            limiter.release();
+                        }
+                    }));
+                } catch (RuntimeException e) {
+                    limiter.release();
+                    throw e;
+                }
+            }
+            for (Future<?> validation : validations) {
+                validation.get();
+            }
+            log.info("Background validation of {} workspaces done.", workspaces.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            validations.forEach(v -> v.cancel(true));
+        } catch (ExecutionException e) {
+            throw new SGoVException(e.getCause());
+        } finally {
+            finished = new Date();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Waits until another workspace may be validated. The latency is measured once the limiter
+     * lets the workspace through, as the wait may take long, and the workspace waits again if
+     * the limit drops meanwhile.
+     */
+    private void acquire() throws InterruptedException {
+        while (true) {
+            limiter.acquire();
+            try {
+                limiter.onLatency(workspaceService.measureRepositoryLatency());
+            } catch (RuntimeException e) {
+                limiter.release();
+                throw e;
+            }
+            if (!limiter.isOverLimit()) {
+                return;
+            }
+            limiter.release();
+        }
+    }
+
+    private void validate(URI workspace) {
+        final long start = System.nanoTime();
+        final WorkspaceValidationSummary summary = new WorkspaceValidationSummary()
+            .setWorkspace(workspace)
+            .setValidated(new Date());
+        try {
+            workspaceService.validate(workspace, new ValidationOptions().setBackground(true));
+            final StoredValidationReport report =
+                workspaceService.getLastValidationReport(workspace);
+            summary.setConforms(report.isConforms()).setSeverities(report.getSeverityCounts());
+        } catch (RuntimeException e) {
+            log.warn("Background validation of workspace {} failed.", workspace, e);
+            summary.setError(e.getMessage());
+        }
+        summaries.put(workspace, summary.setDurationMillis(
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    /**
+     * Returns the state of the background validation, with the outcome of the last validation of
+     * each workspace, the failed and non-conforming workspaces first.
+     *
+     * @return summary of the background validation
+     */
+    public FleetValidationSummary getSummary() {
+        final List<WorkspaceValidationSummary> workspaces = summaries.values().stream()
+            .sorted(Comparator
+                .comparing((WorkspaceValidationSummary s) -> s.getConforms() != null)
+                .thenComparing(s -> Boolean.TRUE.equals(s.getConforms()))
+                .thenComparing(s -> s.getWorkspace().toString()))
+            .collect(Collectors.toList());
+        return new FleetValidationSummary()
+            .setRunning(running.get())
+            .setStarted(started)
+            .setFinished(finished)
+            .setConcurrencyLimit(limiter.getLimit())
+            .setConformingCount((int) workspaces.stream()
+                .filter(s -> Boolean.TRUE.equals(s.getConforms())).count())
+            .setFailedCount((int) workspaces.stream()
+                .filter(s -> s.getError() != null).count())
+            .setWorkspaces(workspaces);
+    }
+}
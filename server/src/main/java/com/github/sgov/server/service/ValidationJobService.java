@@ -0,0 +1,137 @@
+package com.github.sgov.server.service;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import com.github.sgov.server.exception.NotFoundException;
+import com.github.sgov.server.exception.ValidationJobRejectedException;
+import com.github.sgov.server.validation.ValidationJob;
+import com.github.sgov.server.validation.ValidationOptions;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs workspace validations in the background.
+ *
+ * <p>Jobs are executed by a bounded worker pool. A job submitted for a workspace which is already
+ * being validated with the same options joins the running job.
+ */
+@Service
+@Slf4j
+public class ValidationJobService {
+
+    private final WorkspaceService workspaceService;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, ValidationJob> jobs;
+
+    private final Map<Key, ValidationJob> activeJobs = new HashMap<>();
+
+    /**
+     * Constructor.
+     */
+    @Autowired
+    public ValidationJobService(WorkspaceService workspaceService,
+                                ValidationConf validationConf) {
+        this.workspaceService = workspaceService;
+        this.executor = new ThreadPoolExecutor(validationConf.getJobThreads(),
+            validationConf.getJobThreads(), 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(validationConf.getJobQueueSize()),
+            new CustomizableThreadFactory("validation-job-"));
+        final int history = validationConf.getJobHistory();
+        this.jobs = new LinkedHashMap<String, ValidationJob>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ValidationJob> eldest) {
+                return size() > history && eldest.getValue().isDone();
+            }
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Submits validation of the given workspace. If the workspace is already being validated with
+     * the same options, the running job is returned instead.
+     *
+     * @param workspaceUri IRI of the workspace to validate
+     * @param options      validation options
+     * @return job validating the workspace
+     */
+    public synchronized ValidationJob submit(URI workspaceUri, ValidationOptions options) {
+        final Key key = new Key(workspaceUri, options);
+        final ValidationJob active = activeJobs.get(key);
+        if (active != null) {
+            log.debug("Joining validation job {} of workspace {}", active.getId(), workspaceUri);
+            return active;
+        }
+        final ValidationJob job =
+            new ValidationJob(UUID.randomUUID().toString(), workspaceUri, options);
+        activeJobs.put(key, job);
+        try {
+            executor.execute(() -> run(job, key));
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(key);
+            throw new ValidationJobRejectedException(
+                "Too many validation jobs are queued, try again later.");
+        }
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private void run(ValidationJob job, Key key) {
+        job.start();
+        try {
+            job.finish(workspaceService.validate(job.getWorkspace(), job.getOptions(), job));
+        } catch (RuntimeException e) {
+            log.error("Validation job {} failed.", job.getId(), e);
+            job.fail(e);
+        } catch (Error e) {
+            // e.g. out of memory on a large context, the job must not be left running
+            log.error("Validation job {} failed.", job.getId(), e);
+            job.fail(e);
+            throw e;
+        } finally {
+            synchronized (this) {
+                activeJobs.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Returns the job with the given identifier.
+     *
+     * @param id job identifier
+     * @return validation job
+     * @throws NotFoundException if no such job is known
+     */
+    public synchronized ValidationJob getJob(String id) {
+        final ValidationJob job = jobs.get(id);
+        if (job == null) {
+            throw NotFoundException.create("Validation job", id);
+        }
+        return job;
+    }
+
+    @Value
+    private static class Key {
+
+        URI workspace;
+
+        ValidationOptions options;
+    }
+}
@@ -1,8 +1,11 @@
 package com.github.sgov.server.service;
 
+import com.github.sgov.server.config.conf.ValidationConf;
 import com.github.sgov.server.controller.dto.VocabularyContextDto;
 import com.github.sgov.server.exception.NotFoundException;
 import com.github.sgov.server.exception.PublicationException;
+import com.github.sgov.server.exception.PublicationRejectedException;
+import com.github.sgov.server.exception.SGoVException;
 import com.github.sgov.server.model.ChangeTrackingContext;
 import com.github.sgov.server.model.VocabularyContext;
 import com.github.sgov.server.model.Workspace;
@@ -11,20 +14,41 @@ import com.github.sgov.server.service.repository.VocabularyService;
 import com.github.sgov.server.service.repository.WorkspaceRepositoryService;
 import com.github.sgov.server.util.VocabularyFolder;
 import com.github.sgov.server.util.VocabularyInstance;
+import com.github.sgov.server.validation.IncrementalValidationCache;
+import com.github.sgov.server.validation.StoredValidationReport;
+import com.github.sgov.server.validation.StoredValidationResult;
+import com.github.sgov.server.validation.ValidationListener;
+import com.github.sgov.server.validation.ValidationOptions;
+import com.github.sgov.server.validation.ValidationReportDelta;
+import com.github.sgov.server.validation.ValidationReportRecorder;
+import com.github.sgov.server.validation.ValidationReportStore;
+import com.github.sgov.server.validation.ValidationResultFilter;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.rdf4j.model.Model;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.vocabulary.SH;
 
 /**
  * Workspace-related business logic.
@@ -33,32 +57,143 @@ import org.topbraid.shacl.validation.ValidationReport;
 @Slf4j
 public class WorkspaceService {
 
+    /**
+     * Severities of the validation results, from the lowest one.
+     */
+    private static final List<Resource> SEVERITIES =
+        Arrays.asList(SH.Info, SH.Warning, SH.Violation);
+
     private final WorkspaceRepositoryService repositoryService;
 
     private final VocabularyService vocabularyService;
 
     private final GithubRepositoryService githubService;
 
+    private final ValidationReportStore validationReportStore;
+
+    private final IncrementalValidationCache incrementalValidationCache;
+
+    private final boolean publishValidation;
+
+    private final int publishAbortSeverity;
+
     /**
      * Constructor.
      */
     @Autowired
     public WorkspaceService(WorkspaceRepositoryService repositoryService,
                             VocabularyService vocabularyService,
-                            GithubRepositoryService githubService) {
+                            GithubRepositoryService githubService,
+                            ValidationReportStore validationReportStore,
+                            IncrementalValidationCache incrementalValidationCache,
+                            ValidationConf validationConf) {
         this.repositoryService = repositoryService;
         this.vocabularyService = vocabularyService;
         this.githubService = githubService;
+        this.validationReportStore = validationReportStore;
+        this.incrementalValidationCache = incrementalValidationCache;
+        this.publishValidation = validationConf.isPublishValidation();
+        this.publishAbortSeverity = SEVERITIES.indexOf(
+            ResourceFactory.createResource(SH.NS + validationConf.getPublishAbortSeverity()));
+        if (publishAbortSeverity < 0) {
+            throw new SGoVException("Unknown publication abort severity "
+                + validationConf.getPublishAbortSeverity());
+        }
     }
 
     /**
      * Validates the workspace with the given IRI.
      *
      * @param workspaceUri Workspace that should be created.
+     * @param options      validation options
      */
-    public ValidationReport validate(URI workspaceUri) {
-        final Workspace workspace = getWorkspace(workspaceUri);
-        return repositoryService.validateWorkspace(workspace);
+    public ValidationReport validate(URI workspaceUri, ValidationOptions options) {
+        return validate(workspaceUri, options, ValidationListener.NONE);
+    }
+
+    /**
+     * Validates the workspace with the given IRI, notifying the listener about the progress. The
+     * report is stored as the next version of the last report of the workspace, unless the
+     * validation is restricted to some of the rule groups or vocabulary contexts, as it would
+     * then seem to resolve the results of the others. Nor is an incremental report stored, the
+     * versions are computed by full validations only.
+     *
+     * @param workspaceUri Workspace that should be validated.
+     * @param options      validation options
+     * @param listener     listener of the vocabulary context reports
+     */
+    public ValidationReport validate(URI workspaceUri, ValidationOptions options,
+                                     ValidationListener listener) {
+        final Workspace workspace = getWorkspace(workspaceUri, options);
+        final ValidationReportRecorder recorder = new ValidationReportRecorder();
+        final ValidationReport report =
+            repositoryService.validateWorkspace(workspace, options, listener.andThen(recorder));
+        if (!options.isPartial() && !options.isIncremental()) {
+            validationReportStore.save(recorder.toStoredReport(workspaceUri, options, report));
+        }
+        return report;
+    }
+
+    /**
+     * Validates the given terms of the workspace with the given IRI, for instant feedback while
+     * the terms are edited. The report is not stored, as only a part of the workspace is
+     * validated.
+     *
+     * @param workspaceUri Workspace containing the terms.
+     * @param terms        IRIs of the terms to validate.
+     * @param options      validation options
+     * @param listener     listener of the validation phases
+     */
+    public ValidationReport validateTerms(URI workspaceUri, Set<URI> terms,
+                                          ValidationOptions options,
+                                          ValidationListener listener) {
+        final Workspace workspace = getWorkspace(workspaceUri, options);
+        return repositoryService.validateTerms(workspace, terms, options, listener);
+    }
+
+    /**
+     * Returns the last validation report of the workspace with the given IRI.
+     *
+     * @param workspaceUri IRI of the workspace
+     * @return last validation report
+     * @throws NotFoundException if the workspace was not validated yet
+     */
+    public StoredValidationReport getLastValidationReport(URI workspaceUri) {
+        return validationReportStore.find(workspaceUri).orElseThrow(() -> new NotFoundException(
+            "Workspace " + workspaceUri + " has not been validated yet."));
+    }
+
+    /**
+     * Returns the results of the last validation report of the workspace with the given IRI added
+     * and removed since the given version of the report.
+     *
+     * @param workspaceUri IRI of the workspace
+     * @param since        version of the report the client has
+     * @return delta of the last validation report
+     * @throws NotFoundException if the workspace was not validated yet
+     */
+    public ValidationReportDelta getValidationReportDelta(URI workspaceUri, long since) {
+        return getLastValidationReport(workspaceUri).getDelta(since);
+    }
+
+    /**
+     * Returns a page of the results of the last validation report of the workspace with the given
+     * IRI, matching the given filter.
+     *
+     * @param workspaceUri IRI of the workspace
+     * @param filter       result filter
+     * @param pageable     page to return
+     * @return page of the matching results
+     * @throws NotFoundException if the workspace was not validated yet
+     */
+    public Page<StoredValidationResult> findValidationResults(URI workspaceUri,
+                                                              ValidationResultFilter filter,
+                                                              Pageable pageable) {
+        final List<StoredValidationResult> results =
+            getLastValidationReport(workspaceUri).find(filter);
+        final int from = (int) Math.min(pageable.getOffset(), results.size());
+        final int to = Math.min(from + pageable.getPageSize(), results.size());
+        return new PageImpl<>(results.subList(from, to), pageable, results.size());
     }
 
     private Workspace getWorkspace(URI workspaceUri) {
@@ -69,6 +204,23 @@ public class WorkspaceService {
         return workspace;
     }
 
+    /**
+     * Returns the workspace to be validated with the given options.
+     *
+     * @throws NotFoundException if a vocabulary context of the options is not in the workspace
+     */
+    private Workspace getWorkspace(URI workspaceUri, ValidationOptions options) {
+        final Workspace workspace = getWorkspace(workspaceUri);
+        final Set<URI> contexts = workspace.getVocabularyContexts().stream()
+            .map(VocabularyContext::getUri).collect(Collectors.toSet());
+        options.getContexts().stream().filter(c -> !contexts.contains(c)).findAny()
+            .ifPresent(c -> {
+                throw new NotFoundException(
+                    "Vocabulary context " + c + " is not in workspace " + workspaceUri + ".");
+            });
+        return workspace;
+    }
+
     private String createPullRequestBody(final Workspace workspace) {
         return MessageFormat.format("Changed vocabularies: \n - {0}", workspace
             .getVocabularyContexts()
@@ -84,38 +236,90 @@ public class WorkspaceService {
                 .substring(workspaceUriString.lastIndexOf("/") + 1);
     }
 
-    private void publishContexts(Git git, File dir, Workspace workspace) {
+    /**
+     * Stores the vocabulary contexts of the workspace into the repository. Each context is
+     * fetched once; if validated, the validation runs concurrently with the serialization and
+     * the results of the abort severity or higher abort the publication.
+     */
+    private void publishContexts(Git git, File dir, Workspace workspace, boolean validate) {
         for (final VocabularyContext c : workspace.getVocabularyContexts()) {
             final URI iri = c.getBasedOnVocabularyVersion();
             try {
                 final VocabularyInstance instance = new VocabularyInstance(iri.toString());
                 final VocabularyFolder f = VocabularyFolder.ofVocabularyIri(dir, instance);
-
-                // emptying the vocabulary
-                final File[] files = f.toPruneAllExceptCompact();
-                if (files != null) {
-                    Arrays.stream(files).forEach(
-                        ff -> githubService.delete(git, ff)
-                    );
+                final Model data = vocabularyService.fetchContext(c);
+                final Future<ValidationReport> validation =
+                    validate ? repositoryService.submitContextValidation(c, data) : null;
+                try {
+                    // emptying the vocabulary
+                    final File[] files = f.toPruneAllExceptCompact();
+                    if (files != null) {
+                        Arrays.stream(files).forEach(
+                            ff -> githubService.delete(git, ff)
+                        );
+                    }
+
+                    vocabularyService.storeContext(c, f, data);
+                    if (validation != null) {
+                        checkPublicationValidation(c, validation);
+                    }
+                    githubService.commit(git, MessageFormat.format(
+                        "Publishing vocabulary {0} in workspace {1} ({2})", iri,
+                        workspace.getLabel(), workspace.getUri().toString()));
+                } finally {
+                    // the publication failed before the validation was waited for
+                    if (validation != null && !validation.isDone()) {
+                        validation.cancel(true);
+                    }
                 }
-
-                vocabularyService.storeContext(c, f);
-                githubService.commit(git, MessageFormat.format(
-                    "Publishing vocabulary {0} in workspace {1} ({2})", iri,
-                    workspace.getLabel(), workspace.getUri().toString()));
             } catch (IllegalArgumentException e) {
                 throw new PublicationException("Invalid vocabulary IRI " + iri);
             }
         }
     }
 
+    private void checkPublicationValidation(VocabularyContext c,
+                                            Future<ValidationReport> validation) {
+        final ValidationReport report;
+        try {
+            report = validation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PublicationException("Publication interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new PublicationException(
+                "Validation of vocabulary context " + c.getUri() + " failed.", e.getCause());
+        }
+        final long count = report.results().stream()
+            .filter(r -> SEVERITIES.indexOf(r.getSeverity()) >= publishAbortSeverity)
+            .count();
+        if (count > 0) {
+            throw new PublicationRejectedException(MessageFormat.format(
+                "Vocabulary context {0} has {1} validation results of severity {2} or higher, "
+                    + "the workspace is not published.", c.getUri(), count,
+                SEVERITIES.get(publishAbortSeverity).getLocalName()));
+        }
+    }
+
     /**
-     * Publishes the workspace with the given IRI.
+     * Publishes the workspace with the given IRI, validating it before if configured so.
      *
      * @param workspaceUri Workspace that should be published.
      * @return GitHub PR URL
      */
     public URI publish(URI workspaceUri) {
+        return publish(workspaceUri, publishValidation);
+    }
+
+    /**
+     * Publishes the workspace with the given IRI.
+     *
+     * @param workspaceUri Workspace that should be published.
+     * @param validate     whether to validate the workspace before, aborting the publication if
+     *                     there are validation results of the configured severity or higher
+     * @return GitHub PR URL
+     */
+    public URI publish(URI workspaceUri, boolean validate) {
         final Workspace workspace = getWorkspace(workspaceUri);
 
         final String workspaceUriString = workspace.getUri().toString();
@@ -124,7 +328,12 @@ public class WorkspaceService {
         try {
             final File dir = java.nio.file.Files.createTempDirectory("sgov").toFile();
             try (final Git git = githubService.checkout(branchName, dir)) {
-                publishContexts(git, dir, workspace);
+                try {
+                    publishContexts(git, dir, workspace, validate);
+                } catch (PublicationException e) {
+                    FileUtils.deleteQuietly(dir);
+                    throw e;
+                }
                 githubService.push(git);
                 FileUtils.deleteDirectory(dir);
                 String prUrl = githubService.createOrUpdatePullRequestToMaster(branchName,
@@ -160,8 +369,19 @@ public class WorkspaceService {
         repositoryService.update(update);
     }
 
+    /**
+     * Removes the workspace with the given IRI, together with its validation reports.
+     *
+     * @param id IRI of the workspace
+     */
     public void remove(URI id) {
+        final List<URI> contexts = repositoryService.find(id)
+            .map(w -> w.getVocabularyContexts().stream().map(VocabularyContext::getUri)
+                .collect(Collectors.toList()))
+            .orElse(Collections.emptyList());
         repositoryService.remove(id);
+        validationReportStore.remove(id);
+        contexts.forEach(incrementalValidationCache::evict);
     }
 
     public Workspace getRequiredReference(URI id) {
@@ -199,11 +419,7 @@ public class WorkspaceService {
             return vocabularyContextUri;
         }
 
-        if (!vocabularyService.getVocabulariesAsContextDtos().stream()
-            .anyMatch(vc ->
-                vc.getBasedOnVocabularyVersion().equals(vocabularyUri)
-            )
-        ) {
+        if (!vocabularyService.isReleased(vocabularyUri)) {
             if (vocabularyContextDto.getLabel() == null) {
                 throw NotFoundException.create("Vocabulary", vocabularyUri);
             }
@@ -244,16 +460,35 @@ public class WorkspaceService {
      * @return list of workspaces
      */
     public Collection<Workspace> getWorkspacesWithReadWriteVocabulary(final URI vocabularyIri) {
-        return repositoryService.findAll().stream()
-            .filter(ws -> ws.getVocabularyContexts().stream()
-                .anyMatch(vc -> vc.getBasedOnVocabularyVersion().equals(vocabularyIri))
-            ).collect(Collectors.toList());
+        return repositoryService.getWorkspacesWithVocabulary(vocabularyIri).stream()
+            .map(repositoryService::find)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toList());
     }
 
     public List<Workspace> findAllInferred() {
         return repositoryService.findAllInferred();
     }
 
+    /**
+     * Returns the IRIs of all workspaces, without loading the workspaces.
+     *
+     * @return list of workspace IRIs
+     */
+    public List<URI> getAllWorkspaceIris() {
+        return repositoryService.getAllWorkspaceIris();
+    }
+
+    /**
+     * Measures the latency of a trivial query to the workspace repository.
+     *
+     * @return latency in nanoseconds
+     */
+    public long measureRepositoryLatency() {
+        return repositoryService.measureRepositoryLatency();
+    }
+
     /**
      * Removes vocabulary context from given workspace.
      *
@@ -277,6 +512,7 @@ public class WorkspaceService {
 
         workspace.getVocabularyContexts().remove(vocabularyContext);
         repositoryService.update(workspace);
+        incrementalValidationCache.evict(vocabularyContextId);
 
         return vocabularyContext;
     }
@@ -156,6 +156,7 @@ public abstract class BaseRepositoryService<T extends HasIdentifier> {
         Objects.requireNonNull(instance);
         prePersist(instance);
         getPrimaryDao().persist(instance);
+        postPersist(instance);
     }
 
     /**
@@ -170,6 +171,18 @@ public abstract class BaseRepositoryService<T extends HasIdentifier> {
         validate(instance);
     }
 
+    /**
+     * Override this method to plug custom behavior into the transactional cycle of {@link
+     * #persist(HasIdentifier)}.
+     *
+     * <p>The default behavior is a no-op.
+     *
+     * @param instance The persisted instance, not {@code null}
+     */
+    protected void postPersist(@NonNull T instance) {
+        // Do nothing
+    }
+
     /**
      * Merges the specified updated instance into the repository.
      *
@@ -234,6 +247,7 @@ public abstract class BaseRepositoryService<T extends HasIdentifier> {
     @Transactional
     public void remove(URI id) {
         getPrimaryDao().remove(id);
+        postRemove(id);
     }
 
     /**
@@ -260,6 +274,18 @@ public abstract class BaseRepositoryService<T extends HasIdentifier> {
         // Do nothing
     }
 
+    /**
+     * Override this method to plug custom behavior into the transactional cycle of {@link
+     * #remove(URI)}.
+     *
+     * <p>The default behavior is a no-op.
+     *
+     * @param id ID of the removed instance, not {@code null}
+     */
+    protected void postRemove(@NonNull URI id) {
+        // Do nothing
+    }
+
     /**
      * Checks whether an instance with the specified identifier exists in the repository.
      *
@@ -0,0 +1,246 @@
+package com.github.sgov.server.service.repository;
+
+import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.event.ReleaseChangedEvent;
+import com.github.sgov.server.util.Vocabulary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.query.BooleanQuery;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of the catalog of the released vocabularies, i.e. of their IRIs and titles, per
+ * language of the titles.
+ *
+ * <p>The catalog of a language is fetched from the release SPARQL endpoint on first request. Once
+ * older than its time to live, the cached catalog is still returned, while a fresh one is fetched
+ * in the background. If the background fetch fails, the stale catalog is kept and fetched again
+ * by the next request. When the release changes, all the cached catalogs are fetched again in
+ * the background as well.
+ */
+@Component
+@Slf4j
+public class ReleaseCatalogCache {
+
+    /**
+     * Maximum number of cached languages, the catalogs of any other are fetched on each request.
+     */
+    private static final int MAX_LANGUAGES = 32;
+
+    private static final String REQUESTS = "sgov.release.catalog.requests";
+
+    private final RepositoryClients repositoryClients;
+
+    private final long ttlNanos;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final ExecutorService refresher;
+
+    private final Counter hits;
+
+    private final Counter staleHits;
+
+    private final Counter misses;
+
+    private final Timer fetchTimer;
+
+    private final Counter indexLookups;
+
+    private final Counter askLookups;
+
+    /**
+     * Creates the cache.
+     */
+    public ReleaseCatalogCache(final RepositoryClients repositoryClients,
+                               final RepositoryConf repositoryConf,
+                               final MeterRegistry meterRegistry) {
+        this.repositoryClients = repositoryClients;
+        this.ttlNanos = repositoryConf.getReleaseCatalogTtl().toNanos();
+        this.refresher = Executors.newSingleThreadExecutor(
+            new CustomizableThreadFactory("release-catalog-"));
+        this.hits = meterRegistry.counter(REQUESTS, "result", "hit");
+        this.staleHits = meterRegistry.counter(REQUESTS, "result", "stale");
+        this.misses = meterRegistry.counter(REQUESTS, "result", "miss");
+        this.fetchTimer = meterRegistry.timer("sgov.release.catalog.fetch");
+        this.indexLookups =
+            meterRegistry.counter("sgov.release.catalog.lookups", "source", "index");
+        this.askLookups = meterRegistry.counter("sgov.release.catalog.lookups", "source", "ask");
+        meterRegistry.gaugeMapSize("sgov.release.catalog.size", Collections.emptyList(),
+            entries);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Returns the catalog of the released vocabularies, ordered by their titles.
+     *
+     * @param lang language of the titles, all the titles of each vocabulary if null
+     * @return released vocabularies, a vocabulary with titles in several languages is listed once
+     *     per title if no language is given
+     */
+    public List<ReleasedVocabulary> get(final String lang) {
+        final String key = lang != null ? lang : "";
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            final Entry fetched = new Entry(fetch(lang));
+            if (entries.size() < MAX_LANGUAGES) {
+                entries.put(key, fetched);
+            }
+            return fetched.getVocabularies();
+        }
+        if (System.nanoTime() - entry.getFetched() > ttlNanos) {
+            staleHits.increment();
+            if (entry.getRefreshing().compareAndSet(false, true)) {
+                refresher.execute(() -> refresh(key, lang, entry));
+            }
+        } else {
+            hits.increment();
+        }
+        return entry.getVocabularies();
+    }
+
+    /**
+     * Tells whether the given vocabulary is released. The vocabulary is looked up in the index of
+     * the cached catalog of all the languages. If the catalog is not cached, or the vocabulary is
+     * not in it, e.g. as it has been released since the catalog was fetched, the release endpoint
+     * is asked.
+     *
+     * @param vocabulary IRI of the vocabulary
+     * @return true if the vocabulary is in the release catalog
+     */
+    public boolean isReleased(final URI vocabulary) {
+        final Entry entry = entries.get("");
+        if (entry != null && entry.getIris().contains(vocabulary)) {
+            indexLookups.increment();
+            return true;
+        }
+        askLookups.increment();
+        try (RepositoryConnection connection =
+                 repositoryClients.getReleaseRepository().getConnection()) {
+            final BooleanQuery query = connection
+                .prepareBooleanQuery("ASK { GRAPH ?g {?g a <" + Vocabulary.s_c_slovnik + "> . "
+                    + " ?g <" + DCTERMS.TITLE + "> ?label . }}");
+            query.setBinding("g", connection.getValueFactory().createIRI(vocabulary.toString()));
+            return query.evaluate();
+        }
+    }
+
+    @EventListener
+    void onReleaseChanged(final ReleaseChangedEvent event) {
+        refresher.execute(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh release catalog, dropping it.", e);
+                entries.clear();
+            }
+        });
+    }
+
+    /**
+     * Fetches all the cached catalogs again, e.g. when a new release is published.
+     */
+    public void refresh() {
+        log.info("Refreshing release catalog of {} languages.", entries.size());
+        entries.keySet().forEach(key -> entries.put(key, new Entry(fetch(toLang(key)))));
+    }
+
+    private void refresh(final String key, final String lang, final Entry stale) {
+        try {
+            entries.put(key, new Entry(fetch(lang)));
+            log.debug("Refreshed release catalog of language '{}'.", key);
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh release catalog of language '{}'.", key, e);
+            stale.getRefreshing().set(false);
+        }
+    }
+
+    private static String toLang(final String key) {
+        return key.isEmpty() ? null : key;
+    }
+
+    private List<ReleasedVocabulary> fetch(final String lang) {
+        final Timer.Sample sample = Timer.start();
+        final List<ReleasedVocabulary> vocabularies = new ArrayList<>();
+        try (RepositoryConnection connection =
+                 repositoryClients.getReleaseRepository().getConnection()) {
+            final String filter = (lang != null) ? "FILTER (lang(?label)=?lang)" : "";
+            final TupleQuery query = connection
+                .prepareTupleQuery("SELECT DISTINCT ?g ?label WHERE "
+                    + "{ GRAPH ?g {?g a <" + Vocabulary.s_c_slovnik + "> . "
+                    + " ?g <" + DCTERMS.TITLE + "> ?label . "
+                    + filter
+                    + " }} ORDER BY ?label");
+            if (lang != null) {
+                query.setBinding("lang", connection.getValueFactory().createLiteral(lang));
+            }
+            try (TupleQueryResult result = query.evaluate()) {
+                result.forEach(b -> vocabularies.add(new ReleasedVocabulary(
+                    URI.create(b.getValue("g").stringValue()),
+                    b.hasBinding("label") ? b.getValue("label").stringValue() : null)));
+            }
+        } finally {
+            sample.stop(fetchTimer);
+        }
+        return Collections.unmodifiableList(vocabularies);
+    }
+
+    /**
+     * Released vocabulary in the catalog.
+     */
+    @Value
+    public static class ReleasedVocabulary {
+
+        URI iri;
+
+        String label;
+    }
+
+    @Getter
+    private static class Entry {
+
+        private final List<ReleasedVocabulary> vocabularies;
+
+        /**
+         * Index of the IRIs of the vocabularies.
+         */
+        private final Set<URI> iris;
+
+        private final long fetched = System.nanoTime();
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(final List<ReleasedVocabulary> vocabularies) {
+            this.vocabularies = vocabularies;
+            this.iris = vocabularies.stream().map(ReleasedVocabulary::getIri)
+                .collect(Collectors.toSet());
+        }
+    }
+}
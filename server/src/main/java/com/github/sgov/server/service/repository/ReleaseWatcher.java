@@ -0,0 +1,133 @@
+package com.github.sgov.server.service.repository;
+
+import com.github.sgov.server.event.ReleaseChangedEvent;
+import com.github.sgov.server.util.Vocabulary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.rdf4j.RDF4JException;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.model.vocabulary.OWL;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Periodically checks the release SPARQL endpoint for changes and publishes a
+ * {@link ReleaseChangedEvent} when it changes, so that the caches of the released data are
+ * invalidated.
+ *
+ * <p>The release is identified by a fingerprint of its vocabularies, i.e. of their IRIs, version
+ * IRIs and modification dates, which is computed by a single small query instead of fetching the
+ * released data. The fingerprint computed at startup, before the caches are used, is taken as
+ * the initial state of the release. If the release cannot be checked at startup, its first
+ * successful check is announced as a change, as the caches may have been filled meanwhile.
+ */
+@Service
+@Slf4j
+public class ReleaseWatcher {
+
+    /**
+     * Fingerprint of a release which could not be checked.
+     */
+    private static final String UNKNOWN = "";
+
+    private final RepositoryClients repositoryClients;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Counter changes;
+
+    private volatile String fingerprint;
+
+    /**
+     * Constructor.
+     */
+    public ReleaseWatcher(final RepositoryClients repositoryClients,
+                          final ApplicationEventPublisher eventPublisher,
+                          final MeterRegistry meterRegistry) {
+        this.repositoryClients = repositoryClients;
+        this.eventPublisher = eventPublisher;
+        this.changes = meterRegistry.counter("sgov.release.changes");
+    }
+
+    @PostConstruct
+    void checkOnStartup() {
+        try {
+            check();
+        } catch (RDF4JException e) {
+            log.warn("Failed to check the release at startup.", e);
+            fingerprint = UNKNOWN;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{@repositoryConf.releaseWatchInterval.toMillis()}",
+        initialDelayString = "#{@repositoryConf.releaseWatchInterval.toMillis()}")
+    void scheduledCheck() {
+        try {
+            check();
+        } catch (RDF4JException e) {
+            log.warn("Failed to check the release for changes.", e);
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the release and publishes a {@link ReleaseChangedEvent} if it
+     * differs from the previous one.
+     *
+     * @return true if the release has changed since the previous check
+     */
+    public synchronized boolean check() {
+        final String current = computeFingerprint();
+        final String previous = fingerprint;
+        fingerprint = current;
+        if (previous == null || previous.equals(current)) {
+            return false;
+        }
+        log.info("Release changed, fingerprint {}.", current);
+        changes.increment();
+        eventPublisher.publishEvent(new ReleaseChangedEvent(current));
+        return true;
+    }
+
+    /**
+     * Returns the fingerprint of the release computed by the last check.
+     *
+     * @return fingerprint, null if the release has not been checked yet, empty if it could not
+     *     be checked at startup
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    private String computeFingerprint() {
+        final List<String> rows = new ArrayList<>();
+        try (RepositoryConnection connection =
+                 repositoryClients.getReleaseRepository().getConnection()) {
+            try (TupleQueryResult result = connection.prepareTupleQuery(
+                "SELECT ?g ?version ?modified WHERE { GRAPH ?g {?g a <" + Vocabulary.s_c_slovnik
+                    + "> . OPTIONAL {?g <" + OWL.VERSIONIRI + "> ?version} "
+                    + "OPTIONAL {?g <" + DCTERMS.MODIFIED + "> ?modified} }}").evaluate()) {
+                result.forEach(b -> rows.add(value(b, "g") + " " + value(b, "version") + " "
+                    + value(b, "modified")));
+            }
+        }
+        // the order of the results is not guaranteed without a costly ORDER BY
+        Collections.sort(rows);
+        return rows.size() + "-" + DigestUtils.md5DigestAsHex(
+            String.join("\n", rows).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String value(final BindingSet bindings, final String name) {
+        return bindings.hasBinding(name) ? bindings.getValue(name).stringValue() : "";
+    }
+}
@@ -0,0 +1,166 @@
+package com.github.sgov.server.service.repository;
+
+import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.exception.SGoVException;
+import com.github.sgov.server.util.IdnUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.http.HTTPRepository;
+import org.eclipse.rdf4j.repository.sparql.SPARQLRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared clients of the RDF4J repositories, i.e. of the release SPARQL endpoint and of the
+ * workspace repository.
+ *
+ * <p>A repository client is created once per endpoint and shut down together with the
+ * application. All of them use a single pool of HTTP connections, which are kept alive between
+ * the requests. The repository connections are to be closed right after use, e.g. by
+ * try-with-resources, which returns the HTTP connection to the pool.
+ */
+@Component
+@Slf4j
+public class RepositoryClients {
+
+    private static final String CONNECTIONS = "sgov.repository.client.connections";
+
+    private final RepositoryConf repositoryConf;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final CloseableHttpClient httpClient;
+
+    private final Map<String, SPARQLRepository> sparqlRepositories = new ConcurrentHashMap<>();
+
+    private final Map<String, HTTPRepository> httpRepositories = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the pool of HTTP connections.
+     */
+    public RepositoryClients(final RepositoryConf repositoryConf,
+                             final MeterRegistry meterRegistry) {
+        this.repositoryConf = repositoryConf;
+        final long keepAlive = repositoryConf.getClientKeepAlive().toMillis();
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(repositoryConf.getClientPoolSize());
+        connectionManager.setDefaultMaxPerRoute(repositoryConf.getClientPoolSize());
+        this.httpClient = HttpClients.custom()
+            .useSystemProperties()
+            .setConnectionManager(connectionManager)
+            .setKeepAliveStrategy((response, context) -> {
+                final long duration = DefaultConnectionKeepAliveStrategy.INSTANCE
+                    .getKeepAliveDuration(response, context);
+                return duration > 0 ? Math.min(duration, keepAlive) : keepAlive;
+            })
+            .evictExpiredConnections()
+            .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setCookieSpec(CookieSpecs.STANDARD)
+                .setConnectTimeout(toMillis(repositoryConf.getClientConnectTimeout()))
+                .setSocketTimeout(toMillis(repositoryConf.getClientSocketTimeout()))
+                .setConnectionRequestTimeout(toMillis(repositoryConf.getClientPoolTimeout()))
+                .build())
+            .build();
+        gauge(meterRegistry, "leased", PoolStats::getLeased);
+        gauge(meterRegistry, "available", PoolStats::getAvailable);
+        gauge(meterRegistry, "pending", PoolStats::getPending);
+        meterRegistry.gauge(CONNECTIONS + ".max", connectionManager,
+            PoolingHttpClientConnectionManager::getMaxTotal);
+        meterRegistry.gauge("sgov.repository.client.repositories", this,
+            c -> c.sparqlRepositories.size() + c.httpRepositories.size());
+    }
+
+    private static int toMillis(final Duration duration) {
+        return (int) Math.min(duration.toMillis(), Integer.MAX_VALUE);
+    }
+
+    private void gauge(final MeterRegistry meterRegistry, final String state,
+                       final ToIntFunction<PoolStats> stat) {
+        meterRegistry.gauge(CONNECTIONS, Tags.of("state", state), connectionManager,
+            m -> stat.applyAsInt(m.getTotalStats()));
+    }
+
+    /**
+     * Returns the client of the release SPARQL endpoint.
+     *
+     * @return shared SPARQL repository
+     */
+    public SPARQLRepository getReleaseRepository() {
+        try {
+            return getSparqlRepository(
+                IdnUtils.convertUnicodeUrlToAscii(repositoryConf.getReleaseSparqlEndpointUrl()));
+        } catch (URISyntaxException e) {
+            throw new SGoVException(e);
+        }
+    }
+
+    /**
+     * Returns the client of the workspace repository.
+     *
+     * @return shared HTTP repository
+     */
+    public HTTPRepository getWorkspaceRepository() {
+        return getHttpRepository(repositoryConf.getUrl());
+    }
+
+    /**
+     * Returns the client of the given SPARQL endpoint, creating it on first use.
+     *
+     * @param endpoint URL of the SPARQL endpoint
+     * @return shared SPARQL repository
+     */
+    public SPARQLRepository getSparqlRepository(final String endpoint) {
+        return sparqlRepositories.computeIfAbsent(endpoint, e -> {
+            final SPARQLRepository repository = new SPARQLRepository(e);
+            repository.setHttpClient(httpClient);
+            log.info("Created client of SPARQL endpoint {}", e);
+            return repository;
+        });
+    }
+
+    /**
+     * Returns the client of the given RDF4J repository, creating it on first use. The statements
+     * are fetched in the binary RDF format, if the repository supports it.
+     *
+     * @param url URL of the repository
+     * @return shared HTTP repository
+     */
+    public HTTPRepository getHttpRepository(final String url) {
+        return httpRepositories.computeIfAbsent(url, u -> {
+            final HTTPRepository repository = new HTTPRepository(u);
+            repository.setHttpClient(httpClient);
+            repository.setPreferredRDFFormat(RDFFormat.BINARY);
+            log.info("Created client of repository {}", u);
+            return repository;
+        });
+    }
+
+    @PreDestroy
+    void shutDown() {
+        sparqlRepositories.values().forEach(Repository::shutDown);
+        httpRepositories.values().forEach(Repository::shutDown);
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the repository HTTP client.", e);
+        }
+    }
+}
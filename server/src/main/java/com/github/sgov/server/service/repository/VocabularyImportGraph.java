@@ -0,0 +1,254 @@
+package com.github.sgov.server.service.repository;
+
+import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.event.ReleaseChangedEvent;
+import com.github.sgov.server.util.Vocabulary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory graph of the imports among the released vocabularies.
+ *
+ * <p>All the import edges are fetched from the release SPARQL endpoint in a single query. The
+ * vocabularies are numbered and the edges are kept as adjacency arrays in both directions, so
+ * that both the vocabularies imported by a vocabulary and the vocabularies importing it are
+ * found without querying the endpoint. The transitive closure of a vocabulary is computed on the
+ * first request and kept until the graph is rebuilt. Like the release catalog, the graph is
+ * rebuilt in the background once older than its time to live, or when the release changes.
+ */
+@Component
+@Slf4j
+public class VocabularyImportGraph {
+
+    private static final String IMPORTS = Vocabulary.DATA_DESCRIPTION_NAMESPACE
+        + "importuje-slovník";
+
+    private final RepositoryClients repositoryClients;
+
+    private final long ttlNanos;
+
+    private final ExecutorService rebuilder;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final Timer buildTimer;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Creates the graph, which is built on first use.
+     */
+    public VocabularyImportGraph(final RepositoryClients repositoryClients,
+                                 final RepositoryConf repositoryConf,
+                                 final MeterRegistry meterRegistry) {
+        this.repositoryClients = repositoryClients;
+        this.ttlNanos = repositoryConf.getReleaseCatalogTtl().toNanos();
+        this.rebuilder = Executors.newSingleThreadExecutor(
+            new CustomizableThreadFactory("import-graph-"));
+        this.buildTimer = meterRegistry.timer("sgov.release.imports.build");
+        meterRegistry.gauge("sgov.release.imports.vocabularies", this,
+            g -> g.snapshot != null ? g.snapshot.iris.length : 0);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Returns the vocabularies transitively imported by the given one. The vocabulary itself is a
+     * part of the result only if it is in an import cycle.
+     *
+     * @param vocabulary IRI of the released vocabulary
+     * @return unmodifiable set of the imported vocabularies, empty for an unknown vocabulary
+     */
+    public Set<URI> getTransitiveImports(final URI vocabulary) {
+        final Snapshot s = getSnapshot();
+        return s.closure(vocabulary, s.imports, s.importClosures);
+    }
+
+    /**
+     * Returns the vocabularies which transitively import the given one. The vocabulary itself is
+     * a part of the result only if it is in an import cycle.
+     *
+     * @param vocabulary IRI of the released vocabulary
+     * @return unmodifiable set of the importing vocabularies, empty for an unknown vocabulary
+     */
+    public Set<URI> getTransitiveDependents(final URI vocabulary) {
+        final Snapshot s = getSnapshot();
+        return s.closure(vocabulary, s.importedBy, s.dependentClosures);
+    }
+
+    /**
+     * Rebuilds the graph, e.g. when a new release is published.
+     */
+    public synchronized void invalidate() {
+        snapshot = build();
+    }
+
+    @EventListener
+    void onReleaseChanged(final ReleaseChangedEvent event) {
+        rebuilder.execute(() -> {
+            try {
+                invalidate();
+            } catch (RuntimeException e) {
+                log.warn("Failed to rebuild the vocabulary import graph, dropping it.", e);
+                snapshot = null;
+            }
+        });
+    }
+
+    private Snapshot getSnapshot() {
+        final Snapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = build();
+                }
+                return snapshot;
+            }
+        }
+        if (System.nanoTime() - s.built > ttlNanos && rebuilding.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+        return s;
+    }
+
+    private void rebuild() {
+        try {
+            invalidate();
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild the vocabulary import graph.", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private Snapshot build() {
+        final Timer.Sample sample = Timer.start();
+        final Map<URI, Integer> index = new HashMap<>();
+        final List<URI> iris = new ArrayList<>();
+        final List<int[]> edges = new ArrayList<>();
+        try (RepositoryConnection connection =
+                 repositoryClients.getReleaseRepository().getConnection()) {
+            final TupleQuery query = connection
+                .prepareTupleQuery("SELECT DISTINCT ?v ?i WHERE { GRAPH ?g {?v <" + IMPORTS
+                    + "> ?i}}");
+            try (TupleQueryResult result = query.evaluate()) {
+                result.forEach(b -> {
+                    if (b.getValue("v").isIRI() && b.getValue("i").isIRI()) {
+                        edges.add(new int[] {
+                            index(index, iris, URI.create(b.getValue("v").stringValue())),
+                            index(index, iris, URI.create(b.getValue("i").stringValue()))});
+                    }
+                });
+            }
+        } finally {
+            sample.stop(buildTimer);
+        }
+        final Snapshot s = new Snapshot(index, iris.toArray(new URI[0]), edges);
+        log.info("Built vocabulary import graph of {} vocabularies and {} imports.",
+            s.iris.length, edges.size());
+        return s;
+    }
+
+    private static int index(final Map<URI, Integer> index, final List<URI> iris,
+                             final URI iri) {
+        return index.computeIfAbsent(iri, i -> {
+            iris.add(i);
+            return iris.size() - 1;
+        });
+    }
+
+    /**
+     * Immutable graph of the imports, with the closures computed so far.
+     */
+    private static class Snapshot {
+
+        private final long built = System.nanoTime();
+
+        private final Map<URI, Integer> index;
+
+        private final URI[] iris;
+
+        private final int[][] imports;
+
+        private final int[][] importedBy;
+
+        private final AtomicReferenceArray<Set<URI>> importClosures;
+
+        private final AtomicReferenceArray<Set<URI>> dependentClosures;
+
+        Snapshot(final Map<URI, Integer> index, final URI[] iris, final List<int[]> edges) {
+            this.index = index;
+            this.iris = iris;
+            this.imports = adjacency(iris.length, edges, 0);
+            this.importedBy = adjacency(iris.length, edges, 1);
+            this.importClosures = new AtomicReferenceArray<>(iris.length);
+            this.dependentClosures = new AtomicReferenceArray<>(iris.length);
+        }
+
+        private static int[][] adjacency(final int size, final List<int[]> edges,
+                                         final int from) {
+            final int[] degrees = new int[size];
+            edges.forEach(e -> degrees[e[from]]++);
+            final int[][] adjacency = new int[size][];
+            for (int i = 0; i < size; i++) {
+                adjacency[i] = new int[degrees[i]];
+            }
+            edges.forEach(e -> adjacency[e[from]][--degrees[e[from]]] = e[1 - from]);
+            return adjacency;
+        }
+
+        private Set<URI> closure(final URI vocabulary, final int[][] adjacency,
+                                 final AtomicReferenceArray<Set<URI>> closures) {
+            final Integer start = index.get(vocabulary);
+            if (start == null) {
+                return Collections.emptySet();
+            }
+            final Set<URI> cached = closures.get(start);
+            if (cached != null) {
+                return cached;
+            }
+            final BitSet visited = new BitSet(iris.length);
+            final int[] queue = new int[iris.length + 1];
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            final Set<URI> closure = new LinkedHashSet<>();
+            while (head < tail) {
+                for (int next : adjacency[queue[head++]]) {
+                    if (!visited.get(next)) {
+                        visited.set(next);
+                        queue[tail++] = next;
+                        closure.add(iris[next]);
+                    }
+                }
+            }
+            final Set<URI> result = Collections.unmodifiableSet(closure);
+            closures.compareAndSet(start, null, result);
+            return closures.get(start);
+        }
+    }
+}
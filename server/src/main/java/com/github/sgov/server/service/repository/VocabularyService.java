@@ -1,13 +1,10 @@
 package com.github.sgov.server.service.repository;
 
-import com.github.sgov.server.config.conf.RepositoryConf;
 import com.github.sgov.server.controller.dto.VocabularyContextDto;
 import com.github.sgov.server.controller.dto.VocabularyDto;
 import com.github.sgov.server.dao.VocabularyDao;
-import com.github.sgov.server.dao.WorkspaceDao;
 import com.github.sgov.server.exception.SGoVException;
 import com.github.sgov.server.model.VocabularyContext;
-import com.github.sgov.server.util.IdnUtils;
 import com.github.sgov.server.util.Vocabulary;
 import com.github.sgov.server.util.VocabularyCreationHelper;
 import com.github.sgov.server.util.VocabularyFolder;
@@ -18,13 +15,13 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
 import java.net.URI;
-import java.net.URISyntaxException;
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.validation.Validator;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
@@ -35,12 +32,10 @@ import org.eclipse.rdf4j.model.vocabulary.SKOS;
 import org.eclipse.rdf4j.model.vocabulary.XSD;
 import org.eclipse.rdf4j.query.GraphQuery;
 import org.eclipse.rdf4j.query.GraphQueryResult;
-import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.QueryResults;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
-import org.eclipse.rdf4j.repository.http.HTTPRepository;
 import org.eclipse.rdf4j.repository.sail.SailRepository;
-import org.eclipse.rdf4j.repository.sparql.SPARQLRepository;
 import org.eclipse.rdf4j.rio.ParserConfig;
 import org.eclipse.rdf4j.rio.RDFWriter;
 import org.eclipse.rdf4j.rio.WriterConfig;
@@ -60,24 +55,32 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class VocabularyService extends BaseRepositoryService<VocabularyContext> {
 
-    private final RepositoryConf repositoryConf;
-
     private final VocabularyDao vocabularyDao;
 
-    private final WorkspaceDao workspaceDao;
+    private final RepositoryClients repositoryClients;
+
+    private final ReleaseCatalogCache releaseCatalogCache;
+
+    private final VocabularyImportGraph vocabularyImportGraph;
+
+    private final VocabularyWriteLockIndex writeLockIndex;
 
     /**
      * Creates a new repository service.
      */
     @Autowired
     public VocabularyService(@Qualifier("validatorFactoryBean") Validator validator,
-                             RepositoryConf repositoryConf,
                              VocabularyDao vocabularyDao,
-                             WorkspaceDao workspaceDao) {
+                             RepositoryClients repositoryClients,
+                             ReleaseCatalogCache releaseCatalogCache,
+                             VocabularyImportGraph vocabularyImportGraph,
+                             VocabularyWriteLockIndex writeLockIndex) {
         super(validator);
-        this.repositoryConf = repositoryConf;
         this.vocabularyDao = vocabularyDao;
-        this.workspaceDao = workspaceDao;
+        this.repositoryClients = repositoryClients;
+        this.releaseCatalogCache = releaseCatalogCache;
+        this.vocabularyImportGraph = vocabularyImportGraph;
+        this.writeLockIndex = writeLockIndex;
     }
 
     /**
@@ -87,27 +90,19 @@ public class VocabularyService extends BaseRepositoryService<VocabularyContext>
      * @return a set of transitive imports.
      */
     public Set<URI> getTransitiveImports(final URI uri) {
-        try {
-            Set<URI> contexts = new HashSet<>();
-            final SPARQLRepository repo =
-                new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                    repositoryConf.getReleaseSparqlEndpointUrl()));
-            final RepositoryConnection connection = repo.getConnection();
-            final TupleQuery query = connection
-                .prepareTupleQuery("SELECT DISTINCT ?v WHERE {?uri ?imports+ ?v}");
-            query.setBinding("uri", connection.getValueFactory().createIRI(uri.toString()));
-            query.setBinding("imports", connection.getValueFactory()
-                .createIRI(Vocabulary.DATA_DESCRIPTION_NAMESPACE + "importuje-slovník"));
-
-            query.evaluate().forEach(b ->
-                contexts.add(URI.create(b.getValue("v").stringValue())));
-            connection.close();
-            return contexts;
-        } catch (URISyntaxException e) {
-            throw new SGoVException(e);
-        }
+        return vocabularyImportGraph.getTransitiveImports(uri);
     }
 
+    /**
+     * Returns a set of URIs of vocabularies which import the vocabulary URI of which is provided,
+     * directly or transitively.
+     *
+     * @param uri URI of the vocabulary to get the dependents for.
+     * @return a set of transitive dependents.
+     */
+    public Set<URI> getTransitiveDependents(final URI uri) {
+        return vocabularyImportGraph.getTransitiveDependents(uri);
+    }
 
     public List<VocabularyDto> getVocabulariesAsContextDtos() {
         return getVocabulariesAsContextDtos(null);
@@ -120,34 +115,31 @@ public class VocabularyService extends BaseRepositoryService<VocabularyContext>
      * @return vocabularies in the form of vocabulary context
      */
     public List<VocabularyDto> getVocabulariesAsContextDtos(String lang) {
-        try {
-            List<VocabularyDto> contexts = new ArrayList<>();
-            final SPARQLRepository repo =
-                new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                    repositoryConf.getReleaseSparqlEndpointUrl()));
-            final RepositoryConnection connection = repo.getConnection();
-            TupleQuery query = connection
-                .prepareTupleQuery("SELECT DISTINCT ?g ?label WHERE "
-                    + "{ GRAPH ?g {?g a <" + Vocabulary.s_c_slovnik + "> . "
-                    + " ?g <" + DCTERMS.TITLE + "> ?label . "
-                    + ((lang != null) ? "FILTER (lang(?label)='" + lang + "')" : "")
-                    + " }} ORDER BY ?label");
-            final Set<URI> uris = getWriteLockedVocabularies();
-            query.evaluate().forEach(b -> {
-                final VocabularyDto c = new VocabularyDto();
-                final URI uri = URI.create(b.getValue("g").stringValue());
-                c.setBasedOnVocabularyVersion(uri);
-                c.setReadonly(uris.contains(uri));
-                if (b.hasBinding("label")) {
-                    c.setLabel(b.getValue("label").stringValue());
-                }
-                contexts.add(c);
-            });
-            connection.close();
-            return contexts;
-        } catch (URISyntaxException e) {
-            throw new SGoVException(e);
-        }
+        final Set<URI> uris = getWriteLockedVocabularies();
+        return releaseCatalogCache.get(lang).stream().map(v -> {
+            final VocabularyDto c = new VocabularyDto();
+            c.setBasedOnVocabularyVersion(v.getIri());
+            c.setReadonly(uris.contains(v.getIri()));
+            c.setLabel(v.getLabel());
+            return c;
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * Tells whether the given vocabulary is published.
+     *
+     * @param vocabulary IRI of the vocabulary
+     * @return true if the vocabulary is in the release catalog
+     */
+    public boolean isReleased(final URI vocabulary) {
+        return releaseCatalogCache.isReleased(vocabulary);
+    }
+
+    /**
+     * Fetches the catalog of the released vocabularies again, in all the cached languages.
+     */
+    public void refreshReleaseCatalog() {
+        releaseCatalogCache.refresh();
     }
 
     /**
@@ -155,10 +147,7 @@ public class VocabularyService extends BaseRepositoryService<VocabularyContext>
      * workspace).
      */
     private Set<URI> getWriteLockedVocabularies() {
-        final Set<URI> result = new HashSet<>();
-        workspaceDao.findAll().forEach(w -> w.getVocabularyContexts().stream()
-            .forEach(vc -> result.add(vc.getBasedOnVocabularyVersion())));
-        return result;
+        return writeLockIndex.getWriteLockedVocabularies();
     }
 
     /**
@@ -168,18 +157,17 @@ public class VocabularyService extends BaseRepositoryService<VocabularyContext>
      */
     private void populateContext(final VocabularyContext vocabularyContext,
                                  final Iterable<? extends Statement> statements) {
-        final HTTPRepository workspaceRepository = new HTTPRepository(
-            repositoryConf.getUrl());
-        final RepositoryConnection connection2 = workspaceRepository.getConnection();
-        connection2.setParserConfig(
-            new ParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true));
-
-        connection2.begin();
-        final ValueFactory f = connection2.getValueFactory();
-        connection2.add(statements,
-            f.createIRI(vocabularyContext.getUri().toString()));
-        connection2.commit();
-        connection2.close();
+        try (RepositoryConnection connection2 =
+                 repositoryClients.getWorkspaceRepository().getConnection()) {
+            connection2.setParserConfig(
+                new ParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true));
+
+            connection2.begin();
+            final ValueFactory f = connection2.getValueFactory();
+            connection2.add(statements,
+                f.createIRI(vocabularyContext.getUri().toString()));
+            connection2.commit();
+        }
     }
 
     /**
@@ -191,11 +179,7 @@ public class VocabularyService extends BaseRepositoryService<VocabularyContext>
     public void createContext(final VocabularyContext vocabularyContext,
                               final VocabularyContextDto vocabularyContextDto) {
         final Set<Statement> statements = new HashSet<>();
-        final HTTPRepository workspaceRepository = new HTTPRepository(
-            repositoryConf.getUrl());
-        final RepositoryConnection connection2 = workspaceRepository.getConnection();
-
-        final ValueFactory f = connection2.getValueFactory();
+        final ValueFactory f = repositoryClients.getWorkspaceRepository().getValueFactory();
         final IRI vocabulary = f.createIRI(vocabularyContext
             .getBasedOnVocabularyVersion().toString());
 
@@ -209,7 +193,6 @@ public class VocabularyService extends BaseRepositoryService<VocabularyContext>
         );
 
         populateContext(vocabularyContext, statements);
-        connection2.close();
     }
 
     /**
@@ -219,16 +202,10 @@ public class VocabularyService extends BaseRepositoryService<VocabularyContext>
      */
     @Transactional
     public void loadContext(final VocabularyContext vocabularyContext) {
-        try {
-            final SPARQLRepository repo =
-                new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                    repositoryConf.getReleaseSparqlEndpointUrl()));
-            final RepositoryConnection connection = repo.getConnection();
-            final GraphQueryResult result = loadContext(vocabularyContext, connection);
+        try (RepositoryConnection connection =
+                 repositoryClients.getReleaseRepository().getConnection();
+             GraphQueryResult result = loadContext(vocabularyContext, connection)) {
             populateContext(vocabularyContext, result);
-            connection.close();
-        } catch (URISyntaxException e) {
-            throw new SGoVException(e);
         }
     }
 
@@ -294,16 +271,14 @@ public class VocabularyService extends BaseRepositoryService<VocabularyContext>
     /**
      * Stores a vocabulary into the given vocabulary folder.
      *
-     * @param conWorkspace           given workspace repository
-     * @param vocabularyVersionUrl   required vocabulary version
-     * @param ctxWorkspaceVocabulary context to export
-     * @param folder                 vocabulary folder
+     * @param data                 content of the vocabulary context to export
+     * @param vocabularyVersionUrl required vocabulary version
+     * @param folder               vocabulary folder
      * @throws FileNotFoundException whenever the respective files cannot be found in the vocabulary
      *                               folder
      */
-    private void storeRepo(RepositoryConnection conWorkspace,
+    private void storeRepo(Model data,
                            String vocabularyVersionUrl,
-                           IRI ctxWorkspaceVocabulary,
                            VocabularyFolder folder
     ) throws IOException {
 
@@ -320,19 +295,18 @@ public class VocabularyService extends BaseRepositoryService<VocabularyContext>
             ctxVocabulary.toString() + "/pojem/");
         conGitSsp.setNamespace(folder.getVocabularyId(), ctxVocabulary + "/");
 
-        conWorkspace.getStatements(ctxVocabulary, null, null, ctxWorkspaceVocabulary)
+        data.filter(ctxVocabulary, null, null)
             .forEach(s -> conGitSsp.add(s, ctxVocabulary));
 
         final IRI ctxGlossary = fsspRepo.createIRI(vocabularyVersionUrl + "/glosář");
-        conWorkspace.getStatements(ctxGlossary, null, null, ctxWorkspaceVocabulary)
+        data.filter(ctxGlossary, null, null)
             .forEach(s -> conGitSsp.add(s, ctxGlossary));
 
         final IRI ctxModel = fsspRepo.createIRI(vocabularyVersionUrl + "/model");
-        conWorkspace.getStatements(ctxModel, null, null, ctxWorkspaceVocabulary)
+        data.filter(ctxModel, null, null)
             .forEach(s -> conGitSsp.add(s, ctxModel));
 
-        conWorkspace.getStatements(null, null, null, ctxWorkspaceVocabulary)
-            .stream()
+        data.stream()
             // triples already processed
             .filter(s -> !s.getSubject().equals(ctxVocabulary))
             .filter(s -> !s.getSubject().equals(ctxGlossary))
@@ -365,7 +339,24 @@ public class VocabularyService extends BaseRepositoryService<VocabularyContext>
         conGitSsp.export(getDeterministicWriter(new FileWriter(modFile)), ctxModel);
 
         conGitSsp.close();
-        conWorkspace.close();
+    }
+
+    /**
+     * Fetches the content of the given vocabulary context from the workspace repository, in a
+     * single request.
+     *
+     * @param vocabularyContext the vocabulary context to be fetched.
+     * @return content of the vocabulary context
+     */
+    public Model fetchContext(final VocabularyContext vocabularyContext) {
+        try (RepositoryConnection cWorkspaceRepo =
+                 repositoryClients.getWorkspaceRepository().getConnection()) {
+            final IRI ctxWorkspaceVocabulary =
+                cWorkspaceRepo.getValueFactory().createIRI(vocabularyContext.getUri().toString());
+
+            return QueryResults.asModel(
+                cWorkspaceRepo.getStatements(null, null, null, ctxWorkspaceVocabulary));
+        }
     }
 
     /**
@@ -377,23 +368,25 @@ public class VocabularyService extends BaseRepositoryService<VocabularyContext>
     @Transactional
     public void storeContext(final VocabularyContext vocabularyContext,
                              final VocabularyFolder vocabularyFolder) {
-        try {
-            final SPARQLRepository workspaceRepo =
-                new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                    repositoryConf.getUrl()));
-            final RepositoryConnection cWorkspaceRepo = workspaceRepo.getConnection();
-
-            final String vocabularyVersionUrl =
-                vocabularyContext.getBasedOnVocabularyVersion().toString();
-
-            final IRI ctxWorkspaceVocabulary =
-                cWorkspaceRepo.getValueFactory().createIRI(vocabularyContext.getUri().toString());
+        storeContext(vocabularyContext, vocabularyFolder, fetchContext(vocabularyContext));
+    }
 
-            storeRepo(cWorkspaceRepo,
-                vocabularyVersionUrl,
-                ctxWorkspaceVocabulary,
+    /**
+     * Stores the given content of the vocabulary context into the given vocabulary folder.
+     *
+     * @param vocabularyContext the vocabulary context to be stored.
+     * @param vocabularyFolder  folder to store the context into.
+     * @param data              content of the vocabulary context, see
+     *                          {@link #fetchContext(VocabularyContext)}
+     */
+    public void storeContext(final VocabularyContext vocabularyContext,
+                             final VocabularyFolder vocabularyFolder,
+                             final Model data) {
+        try {
+            storeRepo(data,
+                vocabularyContext.getBasedOnVocabularyVersion().toString(),
                 vocabularyFolder);
-        } catch (URISyntaxException | IOException e) {
+        } catch (IOException e) {
             throw new SGoVException(e);
         }
     }
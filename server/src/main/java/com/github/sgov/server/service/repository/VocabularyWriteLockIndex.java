@@ -0,0 +1,156 @@
+package com.github.sgov.server.service.repository;
+
+import com.github.sgov.server.dao.WorkspaceDao;
+import com.github.sgov.server.model.VocabularyContext;
+import com.github.sgov.server.model.Workspace;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Index of the vocabularies attached to the workspaces, i.e. write-locked by them.
+ *
+ * <p>The index is built from all the workspaces once, at startup or on first use, and then kept
+ * up to date by the workspace repository service, which passes each created, updated or removed
+ * workspace to the index. The changes are applied once their transaction commits.
+ */
+@Component
+@Slf4j
+public class VocabularyWriteLockIndex {
+
+    private final WorkspaceDao workspaceDao;
+
+    /**
+     * Vocabulary contexts of each vocabulary, keyed by the workspace they are attached to.
+     */
+    private final Map<URI, Map<URI, URI>> byVocabulary = new ConcurrentHashMap<>();
+
+    /**
+     * Vocabulary contexts of each workspace, keyed by the vocabulary they are based on.
+     */
+    private final Map<URI, Map<URI, URI>> byWorkspace = new HashMap<>();
+
+    private volatile boolean built;
+
+    public VocabularyWriteLockIndex(final WorkspaceDao workspaceDao) {
+        this.workspaceDao = workspaceDao;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void onApplicationReady() {
+        ensureBuilt();
+    }
+
+    /**
+     * Returns the IRIs of the vocabularies attached to any workspace.
+     *
+     * @return unmodifiable view of the write-locked vocabularies
+     */
+    public Set<URI> getWriteLockedVocabularies() {
+        ensureBuilt();
+        return Collections.unmodifiableSet(byVocabulary.keySet());
+    }
+
+    /**
+     * Returns the workspaces the given vocabulary is attached to, with the vocabulary contexts
+     * attaching it.
+     *
+     * @param vocabulary IRI of the vocabulary
+     * @return vocabulary context IRIs keyed by the workspace IRIs, empty if the vocabulary is not
+     *     attached to any workspace
+     */
+    public Map<URI, URI> getWorkspaces(final URI vocabulary) {
+        ensureBuilt();
+        return byVocabulary.getOrDefault(vocabulary, Collections.emptyMap());
+    }
+
+    /**
+     * Indexes the vocabulary contexts of the given workspace once the current transaction
+     * commits, replacing the ones indexed before. The contexts are read right away, while the
+     * persistence context of the workspace is still open.
+     *
+     * @param workspace created or updated workspace
+     */
+    public void updateAfterCommit(final Workspace workspace) {
+        final Map<URI, URI> contexts = getContexts(workspace);
+        afterCommit(() -> update(workspace.getUri(), contexts));
+    }
+
+    /**
+     * Drops the vocabulary contexts of the given workspace once the current transaction commits.
+     *
+     * @param workspace IRI of the removed workspace
+     */
+    public void removeAfterCommit(final URI workspace) {
+        afterCommit(() -> update(workspace, Collections.emptyMap()));
+    }
+
+    private static void afterCommit(final Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Map<URI, URI> getContexts(final Workspace workspace) {
+        final Map<URI, URI> contexts = new HashMap<>();
+        for (VocabularyContext vc : workspace.getVocabularyContexts()) {
+            contexts.put(vc.getBasedOnVocabularyVersion(), vc.getUri());
+        }
+        return contexts;
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            build();
+        }
+    }
+
+    private synchronized void build() {
+        if (built) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final List<Workspace> workspaces = workspaceDao.findAll();
+        workspaces.forEach(w -> update(w.getUri(), getContexts(w)));
+        built = true;
+        log.info("Built vocabulary write-lock index of {} workspaces in {} ms.",
+            workspaces.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private synchronized void update(final URI workspace, final Map<URI, URI> contexts) {
+        final Map<URI, URI> previous = contexts.isEmpty()
+            ? byWorkspace.remove(workspace) : byWorkspace.put(workspace, contexts);
+        if (previous != null) {
+            previous.keySet().forEach(v -> byVocabulary.computeIfPresent(v, (k, workspaces) -> {
+                final Map<URI, URI> rest = new HashMap<>(workspaces);
+                rest.remove(workspace);
+                return rest.isEmpty() ? null : Collections.unmodifiableMap(rest);
+            }));
+        }
+        contexts.forEach((v, c) -> byVocabulary.compute(v, (k, workspaces) -> {
+            final Map<URI, URI> all =
+                workspaces != null ? new HashMap<>(workspaces) : new HashMap<>();
+            all.put(workspace, c);
+            return Collections.unmodifiableMap(all);
+        }));
+    }
+}
@@ -6,14 +6,18 @@ import com.github.sgov.server.exception.SGoVException;
 import com.github.sgov.server.model.AbstractEntity;
 import com.github.sgov.server.model.VocabularyContext;
 import com.github.sgov.server.model.Workspace;
+import com.github.sgov.server.validation.ValidationListener;
+import com.github.sgov.server.validation.ValidationOptions;
 import java.io.IOException;
 import java.net.URI;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import javax.validation.Validator;
+import org.eclipse.rdf4j.model.Statement;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -28,15 +32,19 @@ public class WorkspaceRepositoryService extends BaseRepositoryService<Workspace>
 
     WorkspaceDao workspaceDao;
 
+    VocabularyWriteLockIndex writeLockIndex;
+
     /**
      * Creates a new repository service.
      */
     @Autowired
     public WorkspaceRepositoryService(
         @Qualifier("validatorFactoryBean") Validator validator,
-        WorkspaceDao workspaceDao) {
+        WorkspaceDao workspaceDao,
+        VocabularyWriteLockIndex writeLockIndex) {
         super(validator);
         this.workspaceDao = workspaceDao;
+        this.writeLockIndex = writeLockIndex;
     }
 
     @Override
@@ -44,20 +52,79 @@ public class WorkspaceRepositoryService extends BaseRepositoryService<Workspace>
         return workspaceDao;
     }
 
+    @Override
+    protected void postPersist(Workspace instance) {
+        writeLockIndex.updateAfterCommit(instance);
+    }
+
+    @Override
+    protected void postUpdate(Workspace instance) {
+        writeLockIndex.updateAfterCommit(instance);
+    }
+
+    @Override
+    protected void postRemove(Workspace instance) {
+        writeLockIndex.removeAfterCommit(instance.getUri());
+    }
+
+    @Override
+    protected void postRemove(URI id) {
+        writeLockIndex.removeAfterCommit(id);
+    }
+
+    /**
+     * Returns the IRIs of the workspaces the given vocabulary is attached to.
+     *
+     * @param vocabularyUri IRI of the vocabulary
+     * @return IRIs of the workspaces
+     */
+    public Set<URI> getWorkspacesWithVocabulary(final URI vocabularyUri) {
+        return writeLockIndex.getWorkspaces(vocabularyUri).keySet();
+    }
+
     /**
      * Validates workspace.
      *
      * @param workspace workspace to validate
+     * @param options   validation options
+     * @param listener  listener of the vocabulary context reports
      * @return report of validation
      */
-    public ValidationReport validateWorkspace(Workspace workspace) {
+    public ValidationReport validateWorkspace(Workspace workspace, ValidationOptions options,
+                                              ValidationListener listener) {
         try {
-            return workspaceDao.validateWorkspace(workspace);
+            return workspaceDao.validateWorkspace(workspace, options, listener);
         } catch (IOException e) {
             throw new SGoVException(e);
         }
     }
 
+    /**
+     * Validates the given terms of the workspace.
+     *
+     * @param workspace workspace containing the terms
+     * @param terms     IRIs of the terms to validate
+     * @param options   validation options
+     * @param listener  listener of the validation phases
+     * @return report of validation of the terms
+     */
+    public ValidationReport validateTerms(Workspace workspace, Set<URI> terms,
+                                          ValidationOptions options,
+                                          ValidationListener listener) {
+        return workspaceDao.validateTerms(workspace, terms, options, listener);
+    }
+
+    /**
+     * Validates the given content of a vocabulary context concurrently with the caller.
+     *
+     * @param context    vocabulary context
+     * @param statements content of the vocabulary context
+     * @return validation report of the content, once validated
+     */
+    public Future<ValidationReport> submitContextValidation(VocabularyContext context,
+                                                            Iterable<Statement> statements) {
+        return workspaceDao.submitContextValidation(context, statements);
+    }
 
     /**
      * Finds workspace with the specified id and returns it with all its inferred properties.
@@ -116,6 +183,20 @@ public class WorkspaceRepositoryService extends BaseRepositoryService<Workspace>
         return workspaces;
     }
 
+    /**
+     * Returns the IRIs of all workspaces.
+     *
+     * @return list of workspace IRIs
+     */
+    public List<URI> getAllWorkspaceIris() {
+        return workspaceDao.getAllWorkspaceIris().stream().map(URI::create)
+            .collect(Collectors.toList());
+    }
+
+    public long measureRepositoryLatency() {
+        return workspaceDao.measureRepositoryLatency();
+    }
+
     /**
      * Clears the given vocabulary context.
      *
@@ -64,4 +64,19 @@ public class Constants {
             throw new AssertionError();
         }
     }
+
+    /**
+     * HTTP headers used by the application REST API.
+     */
+    public static final class Headers {
+
+        /**
+         * HTTP response header with the durations of the phases of the request processing.
+         */
+        public static final String SERVER_TIMING = "Server-Timing";
+
+        private Headers() {
+            throw new AssertionError();
+        }
+    }
 }
@@ -0,0 +1,51 @@
+package com.github.sgov.server.util;
+
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+
+/**
+ * Converts RDF4J values and statements to Jena nodes and triples.
+ */
+public final class Rdf4jToJena {
+
+    private Rdf4jToJena() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Converts the given RDF4J value to a Jena node.
+     *
+     * @param value RDF4J IRI, blank node or literal
+     * @return Jena node
+     */
+    public static Node toNode(final Value value) {
+        if (value instanceof BNode) {
+            return NodeFactory.createBlankNode(((BNode) value).getID());
+        } else if (value instanceof Literal) {
+            final Literal literal = (Literal) value;
+            return literal.getLanguage()
+                .map(lang -> NodeFactory.createLiteral(literal.getLabel(), lang))
+                .orElseGet(() -> NodeFactory.createLiteral(literal.getLabel(),
+                    TypeMapper.getInstance()
+                        .getSafeTypeByName(literal.getDatatype().stringValue())));
+        }
+        return NodeFactory.createURI(value.stringValue());
+    }
+
+    /**
+     * Converts the given RDF4J statement to a Jena triple, ignoring its context.
+     *
+     * @param statement RDF4J statement
+     * @return Jena triple
+     */
+    public static Triple toTriple(final Statement statement) {
+        return Triple.create(toNode(statement.getSubject()), toNode(statement.getPredicate()),
+            toNode(statement.getObject()));
+    }
+}
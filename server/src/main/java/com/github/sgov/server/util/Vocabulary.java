@@ -67,6 +67,10 @@ public final class Vocabulary {
     public static final String s_p_ma_datum_a_cas_vytvoreni = DATA_DESCRIPTION_NAMESPACE
         + "má-datum-a-čas-vytvoření";
     public static final String s_p_ma_autora = DATA_DESCRIPTION_NAMESPACE + "má-autora";
+    public static final String s_p_ma_zmenenou_entitu = DATA_DESCRIPTION_NAMESPACE
+        + "má-změněnou-entitu";
+    public static final String s_p_ma_datum_a_cas_modifikace = DATA_DESCRIPTION_NAMESPACE
+        + "má-datum-a-čas-modifikace";
 
     public static final String s_c_slovnik = DATA_DESCRIPTION_NAMESPACE + "slovník";
     public static final String s_p_ma_glosar = DATA_DESCRIPTION_NAMESPACE + "má-glosář";
@@ -0,0 +1,85 @@
+package com.github.sgov.server.validation;
+
+import java.time.Duration;
+
+/**
+ * Limits the number of concurrent tasks hitting the triple store, adapting the limit to its
+ * latency.
+ *
+ * <p>The limit starts at one and follows additive increase, multiplicative decrease: each
+ * observed latency within the target raises the limit by one, up to the maximum, each latency
+ * above the target halves it, down to one.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int maxLimit;
+
+    private final long latencyTargetNanos;
+
+    private int limit = 1;
+
+    private int inFlight;
+
+    /**
+     * Creates the limiter.
+     *
+     * @param maxLimit      maximum number of concurrent tasks
+     * @param latencyTarget latency above which the triple store is considered overloaded
+     */
+    public AdaptiveConcurrencyLimiter(final int maxLimit, final Duration latencyTarget) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.latencyTargetNanos = latencyTarget.toNanos();
+    }
+
+    /**
+     * Waits until the number of running tasks drops below the limit and starts a new one.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized void acquire() throws InterruptedException {
+        while (inFlight >= limit) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    /**
+     * Finishes a task started by {@link #acquire()}.
+     */
+    public synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /**
+     * Adapts the limit to the observed latency of the triple store.
+     *
+     * @param nanos observed latency in nanoseconds
+     */
+    public synchronized void onLatency(final long nanos) {
+        if (nanos > latencyTargetNanos) {
+            limit = Math.max(1, limit / 2);
+        } else {
+            limit = Math.min(maxLimit, limit + 1);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Whether more tasks are running than the limit allows, e.g. as it has been lowered since
+     * they were started.
+     *
+     * @return true if the number of running tasks exceeds the limit
+     */
+    public synchronized boolean isOverLimit() {
+        return inFlight > limit;
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
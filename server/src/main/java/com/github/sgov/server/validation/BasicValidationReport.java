@@ -0,0 +1,30 @@
+package com.github.sgov.server.validation;
+
+import java.util.List;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+
+/**
+ * Validation report assembled from already computed validation results.
+ */
+public class BasicValidationReport implements ValidationReport {
+
+    private final boolean conforms;
+
+    private final List<ValidationResult> results;
+
+    public BasicValidationReport(final boolean conforms, final List<ValidationResult> results) {
+        this.conforms = conforms;
+        this.results = results;
+    }
+
+    @Override
+    public boolean conforms() {
+        return conforms;
+    }
+
+    @Override
+    public List<ValidationResult> results() {
+        return results;
+    }
+}
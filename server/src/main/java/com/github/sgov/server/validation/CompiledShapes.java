@@ -0,0 +1,258 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.exception.SGoVException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFList;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.util.FmtUtils;
+import org.apache.jena.util.ResourceUtils;
+import org.springframework.util.DigestUtils;
+import org.topbraid.jenax.util.ARQFactory;
+import org.topbraid.shacl.arq.SHACLFunctions;
+import org.topbraid.shacl.arq.SHACLPaths;
+import org.topbraid.shacl.engine.ShapesGraph;
+import org.topbraid.shacl.util.SHACLUtil;
+import org.topbraid.shacl.validation.ValidationEngine;
+import org.topbraid.shacl.validation.ValidationEngineConfiguration;
+import org.topbraid.shacl.validation.ValidationEngineFactory;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationUtil;
+import org.topbraid.shacl.vocabulary.SH;
+
+/**
+ * SHACL shapes parsed and prepared for validation.
+ *
+ * <p>The shapes model and the shapes graph are read-only after construction and can be shared by
+ * concurrent validations, each of which gets its own validation engine and dataset.
+ *
+ * <p>The blank node property shapes are given IRIs derived from their parent shapes, paths and
+ * constraints, so that their results can be matched across validations, see
+ * {@link StoredValidationResult#getKey()}.
+ */
+public class CompiledShapes {
+
+    /**
+     * Namespace of the IRIs given to the blank node property shapes.
+     */
+    static final String SHAPE_NAMESPACE = "https://slovník.gov.cz/.well-known/genid/shape/";
+
+    private final Model rules;
+
+    private final Model shapesModel;
+
+    private final ShapesGraph shapesGraph;
+
+    private final URI shapesGraphUri;
+
+    private final String version;
+
+    private final int maxPathLength;
+
+    private SparqlPushdownValidator pushdownValidator;
+
+    /**
+     * Compiles the given shapes model.
+     *
+     * @param rules   model containing the SHACL rules
+     * @param version version of the rules, changes whenever the rules change
+     */
+    public CompiledShapes(final Model rules, final String version) {
+        this.version = version;
+        this.rules = skolemize(rules);
+        this.shapesModel = ValidationUtil.ensureToshTriplesExist(this.rules);
+        SHACLFunctions.registerFunctions(shapesModel);
+        this.shapesGraphUri = SHACLUtil.createRandomShapesGraphURI();
+        this.shapesGraph = new ShapesGraph(shapesModel);
+        this.maxPathLength = getMaxPathLength(this.rules);
+        // resolve the shapes eagerly, so that the first validation does not pay for it
+        shapesGraph.getRootShapes();
+    }
+
+    public Model getShapesModel() {
+        return shapesModel;
+    }
+
+    public ShapesGraph getShapesGraph() {
+        return shapesGraph;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of statements the longest property path of the shapes spans, counting
+     * the inverse steps too.
+     *
+     * @return length of the longest path, -1 if a path is unbounded, e.g. sh:zeroOrMorePath
+     */
+    public int getMaxPathLength() {
+        return maxPathLength;
+    }
+
+    private static int getMaxPathLength(final Model rules) {
+        int max = 0;
+        for (RDFNode path : rules.listObjectsOfProperty(SH.path).toList()) {
+            final int length = getPathLength(path);
+            if (length < 0) {
+                return -1;
+            }
+            max = Math.max(max, length);
+        }
+        return max;
+    }
+
+    private static int getPathLength(final RDFNode path) {
+        if (!path.isAnon()) {
+            return 1;
+        }
+        final Resource r = path.asResource();
+        if (r.hasProperty(SH.zeroOrMorePath) || r.hasProperty(SH.oneOrMorePath)) {
+            return -1;
+        } else if (r.hasProperty(SH.inversePath)) {
+            return getPathLength(r.getPropertyResourceValue(SH.inversePath));
+        } else if (r.hasProperty(SH.zeroOrOnePath)) {
+            return getPathLength(r.getPropertyResourceValue(SH.zeroOrOnePath));
+        } else if (r.hasProperty(SH.alternativePath)) {
+            int max = 0;
+            for (RDFNode step : r.getPropertyResourceValue(SH.alternativePath)
+                .as(RDFList.class).asJavaList()) {
+                final int length = getPathLength(step);
+                if (length < 0) {
+                    return -1;
+                }
+                max = Math.max(max, length);
+            }
+            return max;
+        } else if (r.canAs(RDFList.class)) {
+            int sum = 0;
+            for (RDFNode step : r.as(RDFList.class).asJavaList()) {
+                final int length = getPathLength(step);
+                if (length < 0) {
+                    return -1;
+                }
+                sum += length;
+            }
+            return sum;
+        }
+        return -1;
+    }
+
+    /**
+     * Copies the rules, with IRIs instead of the blank nodes of the property shapes.
+     */
+    private static Model skolemize(final Model rules) {
+        final Model model = ModelFactory.createDefaultModel().setNsPrefixes(rules).add(rules);
+        final Set<Resource> shapes = new HashSet<>();
+        model.listObjectsOfProperty(SH.property).filterKeep(RDFNode::isAnon)
+            .forEachRemaining(n -> shapes.add(n.asResource()));
+        model.listSubjectsWithProperty(SH.path).filterKeep(RDFNode::isAnon)
+            .forEachRemaining(shapes::add);
+        final Map<Resource, String> iris = new HashMap<>();
+        shapes.forEach(s -> getShapeIri(s, iris, new HashSet<>()));
+        iris.forEach(ResourceUtils::renameResource);
+        return model;
+    }
+
+    /**
+     * IRI of the given shape. The IRI of a blank node shape is a digest of the IRIs of its
+     * parent shapes, of its path and of its constraints with IRI or literal values.
+     */
+    private static String getShapeIri(final Resource shape, final Map<Resource, String> iris,
+                                      final Set<Resource> visited) {
+        if (shape.isURIResource()) {
+            return shape.getURI();
+        }
+        final String known = iris.get(shape);
+        if (known != null) {
+            return known;
+        }
+        visited.add(shape);
+        final List<String> parents = shape.getModel().listSubjectsWithProperty(SH.property, shape)
+            .filterDrop(visited::contains)
+            .mapWith(p -> getShapeIri(p, iris, visited))
+            .toList();
+        final List<String> constraints = shape.listProperties()
+            .filterDrop(st -> st.getObject().isAnon())
+            .mapWith(st -> FmtUtils.stringForNode(st.getPredicate().asNode()) + " "
+                + FmtUtils.stringForNode(st.getObject().asNode()))
+            .toList();
+        Collections.sort(parents);
+        Collections.sort(constraints);
+        final Resource path = shape.getPropertyResourceValue(SH.path);
+        final String description = String.join(" ", parents) + " | "
+            + (path != null ? SHACLPaths.getPathString(path) : "") + " | "
+            + String.join(" ", constraints);
+        visited.remove(shape);
+        final String iri = SHAPE_NAMESPACE
+            + DigestUtils.md5DigestAsHex(description.getBytes(StandardCharsets.UTF_8));
+        iris.put(shape, iri);
+        return iri;
+    }
+
+    /**
+     * Returns the shapes translated for validation in the triple store. The shapes are translated
+     * on the first call, without the TopBraid system shapes, which do not apply to vocabularies.
+     */
+    public synchronized SparqlPushdownValidator getPushdownValidator() {
+        if (pushdownValidator == null) {
+            pushdownValidator = new SparqlPushdownValidator(rules);
+        }
+        return pushdownValidator;
+    }
+
+    /**
+     * Validates the given data model against the shapes.
+     *
+     * @param dataModel model to validate
+     * @return validation report
+     */
+    public ValidationReport validate(final Model dataModel) {
+        return validate(dataModel, null);
+    }
+
+    /**
+     * Validates the given data model against the shapes, checking only the focus nodes accepted by
+     * the given filter.
+     *
+     * @param dataModel   model to validate
+     * @param focusFilter filter of focus nodes to validate, or null to validate all of them
+     * @return validation report
+     */
+    public ValidationReport validate(final Model dataModel,
+                                     final Predicate<RDFNode> focusFilter) {
+        final ValidationEngine engine = createEngine(dataModel);
+        if (focusFilter != null) {
+            engine.setFocusNodeFilter(focusFilter);
+        }
+        try {
+            engine.applyEntailments();
+            engine.validateAll();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SGoVException("Validation interrupted.", e);
+        }
+        return engine.getValidationReport();
+    }
+
+    private ValidationEngine createEngine(final Model dataModel) {
+        final Dataset dataset = ARQFactory.get().getDataset(dataModel);
+        dataset.addNamedModel(shapesGraphUri.toString(), shapesModel);
+        final ValidationEngine engine = ValidationEngineFactory.get()
+            .create(dataset, shapesGraphUri, shapesGraph, null);
+        engine.setConfiguration(new ValidationEngineConfiguration().setValidateShapes(true));
+        return engine;
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.sgov.server.validation;
+
+import lombok.Value;
+
+/**
+ * Digest of the content of a vocabulary context, computed by the triple store.
+ */
+@Value
+public class ContextDigest {
+
+    /**
+     * Hash of all triples of the context, independent of their order, null if the context
+     * contains blank nodes.
+     */
+    String digest;
+
+    /**
+     * Number of triples in the context.
+     */
+    long size;
+
+    /**
+     * Whether the reports of the context can be cached by its digest. The blank nodes have no
+     * stable identity, so the digest of a context with blank nodes would not tell two different
+     * blank node structures apart.
+     *
+     * @return true if the context has a digest
+     */
+    public boolean isCacheable() {
+        return digest != null;
+    }
+}
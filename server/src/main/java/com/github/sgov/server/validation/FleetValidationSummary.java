@@ -0,0 +1,32 @@
+package com.github.sgov.server.validation;
+
+import java.util.Date;
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * State of the background validation of all workspaces, with the outcome of the last validation
+ * of each of them.
+ */
+@Data
+@Accessors(chain = true)
+public class FleetValidationSummary {
+
+    private boolean running;
+
+    private Date started;
+
+    private Date finished;
+
+    /**
+     * Current number of workspaces validated concurrently.
+     */
+    private int concurrencyLimit;
+
+    private int conformingCount;
+
+    private int failedCount;
+
+    private List<WorkspaceValidationSummary> workspaces;
+}
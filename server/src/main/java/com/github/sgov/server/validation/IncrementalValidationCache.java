@@ -0,0 +1,111 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Value;
+import org.apache.jena.rdf.model.Literal;
+import org.springframework.stereotype.Component;
+import org.topbraid.shacl.validation.ValidationReport;
+
+/**
+ * Keeps the last validation report of each vocabulary context and version of the rules together
+ * with the timestamp of the newest change recorded in its change tracking context at the time of
+ * the validation.
+ *
+ * <p>The number of the reports is bounded, the least recently used ones are evicted first. The
+ * reports of a vocabulary context are evicted as well when the context is removed.
+ */
+@Component
+public class IncrementalValidationCache {
+
+    private final Map<Key, Entry> entries;
+
+    /**
+     * Creates the cache.
+     */
+    public IncrementalValidationCache(final ValidationConf validationConf) {
+        final int maxSize = validationConf.getIncrementalCacheSize();
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<Key, IncrementalValidationCache.Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the last report of the vocabulary context.
+     *
+     * @param vocabularyContext IRI of the vocabulary context
+     * @param rulesVersion      version of the rules
+     * @return last report, or null if the context was not validated with the rules yet
+     */
+    public Entry get(final URI vocabularyContext, final String rulesVersion) {
+        synchronized (entries) {
+            return entries.get(new Key(vocabularyContext, rulesVersion));
+        }
+    }
+
+    /**
+     * Stores the last report of the vocabulary context.
+     *
+     * @param vocabularyContext IRI of the vocabulary context
+     * @param rulesVersion      version of the rules
+     * @param entry             last report
+     */
+    public void put(final URI vocabularyContext, final String rulesVersion, final Entry entry) {
+        synchronized (entries) {
+            entries.put(new Key(vocabularyContext, rulesVersion), entry);
+        }
+    }
+
+    /**
+     * Evicts the reports of the vocabulary context, for all versions of the rules.
+     *
+     * @param vocabularyContext IRI of the vocabulary context
+     */
+    public void evict(final URI vocabularyContext) {
+        synchronized (entries) {
+            entries.keySet().removeIf(k -> k.getVocabularyContext().equals(vocabularyContext));
+        }
+    }
+
+    /**
+     * Returns the number of the cached reports.
+     *
+     * @return number of the reports
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Value
+    private static class Key {
+
+        URI vocabularyContext;
+
+        String rulesVersion;
+    }
+
+    /**
+     * Last report of a vocabulary context.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+
+        /**
+         * Timestamp of the newest change covered by the report, null if there was no change yet.
+         */
+        private final Literal lastChange;
+
+        private final ValidationReport report;
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.sgov.server.validation;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.compose.MultiUnion;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+
+/**
+ * Inference applied to the vocabulary data before SHACL validation.
+ */
+public enum InferenceMode {
+
+    /**
+     * Wraps the data in an ontology model with the RDFS rule reasoner.
+     */
+    REASONER {
+        @Override
+        public Model apply(final Model model) {
+            final OntModel ontModel =
+                ModelFactory.createOntologyModel(OntModelSpec.OWL_DL_MEM_RDFS_INF, model);
+            // run the reasoner now rather than lazily during SHACL validation
+            ontModel.prepare();
+            return ontModel;
+        }
+
+        @Override
+        public Model apply(final Model model, final Graph background) {
+            return apply(ModelFactory.createModelForGraph(union(model.getGraph(), background)));
+        }
+    },
+
+    /**
+     * Materializes the RDFS entailments into a plain model, see {@link RdfsMaterializer}.
+     */
+    MATERIALIZATION {
+        @Override
+        public Model apply(final Model model) {
+            return RdfsMaterializer.materialize(model);
+        }
+
+        @Override
+        public Model apply(final Model model, final Model target) {
+            return RdfsMaterializer.materialize(model, target);
+        }
+
+        @Override
+        public Model apply(final Model model, final Graph background) {
+            return apply(model, background, ModelFactory.createDefaultModel());
+        }
+
+        @Override
+        public Model apply(final Model model, final Graph background, final Model target) {
+            RdfsMaterializer.materialize(model, background, target);
+            return ModelFactory.createModelForGraph(union(target.getGraph(), background));
+        }
+    };
+
+    /**
+     * Returns the model to be validated for the given vocabulary data.
+     *
+     * @param model vocabulary data
+     * @return model with the entailments
+     */
+    public abstract Model apply(Model model);
+
+    /**
+     * Returns the model to be validated for the given vocabulary data, keeping the entailments in
+     * the given target model if the inference produces a plain model.
+     *
+     * @param model  vocabulary data
+     * @param target model to keep the entailments in, e.g. a disk-backed one
+     * @return model with the entailments
+     */
+    public Model apply(final Model model, final Model target) {
+        return apply(model);
+    }
+
+    /**
+     * Returns the model to be validated for the given vocabulary data on top of the background
+     * graph, e.g. of the released imported vocabularies. The background graph is not copied, it
+     * is a part of the returned union.
+     *
+     * @param model      vocabulary data
+     * @param background graph the vocabulary data refers to
+     * @return model with the entailments
+     */
+    public abstract Model apply(Model model, Graph background);
+
+    /**
+     * Returns the model to be validated for the given vocabulary data on top of the background
+     * graph, keeping the entailments in the given target model if the inference produces a plain
+     * model.
+     *
+     * @param model      vocabulary data
+     * @param background graph the vocabulary data refers to
+     * @param target     model to keep the entailments in, e.g. a disk-backed one
+     * @return model with the entailments
+     */
+    public Model apply(final Model model, final Graph background, final Model target) {
+        return apply(model, background);
+    }
+
+    private static Graph union(final Graph base, final Graph background) {
+        final MultiUnion union = new MultiUnion(new Graph[] {base, background});
+        union.setBaseGraph(base);
+        return union;
+    }
+}
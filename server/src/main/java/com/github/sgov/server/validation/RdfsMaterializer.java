@@ -0,0 +1,227 @@
+package com.github.sgov.server.validation;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.compose.MultiUnion;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+
+/**
+ * Materializes the RDFS entailments needed by the validation rules into a plain graph.
+ *
+ * <p>Unlike the RDFS rule reasoner, the entailments are computed once, in a single pass over the
+ * data, and the result is a plain in-memory graph, so that SHACL queries do not go through the
+ * inference engine. The following entailments are materialized:
+ * <ul>
+ *     <li>reflexive and transitive closure of {@code rdfs:subClassOf} and
+ *     {@code rdfs:subPropertyOf},</li>
+ *     <li>typing of classes as {@code rdfs:Class} and properties as {@code rdf:Property},</li>
+ *     <li>statements entailed by super-properties,</li>
+ *     <li>types entailed by super-classes, {@code rdfs:domain} and {@code rdfs:range}.</li>
+ * </ul>
+ * The RDF and RDFS axiomatic triples and the typing of every resource as {@code rdfs:Resource} are
+ * not materialized.
+ */
+public final class RdfsMaterializer {
+
+    private static final Node TYPE = RDF.type.asNode();
+
+    private static final Node SUB_CLASS_OF = RDFS.subClassOf.asNode();
+
+    private static final Node SUB_PROPERTY_OF = RDFS.subPropertyOf.asNode();
+
+    private static final Node DOMAIN = RDFS.domain.asNode();
+
+    private static final Node RANGE = RDFS.range.asNode();
+
+    private static final Node CLASS = RDFS.Class.asNode();
+
+    private static final Node PROPERTY = RDF.Property.asNode();
+
+    private final Graph source;
+
+    private final Graph schema;
+
+    private final Graph target;
+
+    private final Map<Node, Set<Node>> superClasses = new HashMap<>();
+
+    private final Map<Node, Set<Node>> superProperties = new HashMap<>();
+
+    private final Map<Node, Set<Node>> domains = new HashMap<>();
+
+    private final Map<Node, Set<Node>> ranges = new HashMap<>();
+
+    private RdfsMaterializer(final Graph source, final Graph target) {
+        this(source, source, target);
+    }
+
+    private RdfsMaterializer(final Graph source, final Graph schema, final Graph target) {
+        this.source = source;
+        this.schema = schema;
+        this.target = target;
+    }
+
+    /**
+     * Returns a new model containing the statements of the given model together with their RDFS
+     * entailments. The given model is not modified.
+     *
+     * @param model model to materialize the entailments of
+     * @return new plain model
+     */
+    public static Model materialize(final Model model) {
+        return ModelFactory.createModelForGraph(
+            new RdfsMaterializer(model.getGraph(), GraphFactory.createGraphMem()).run());
+    }
+
+    /**
+     * Adds the statements of the given model together with their RDFS entailments to the target
+     * model, e.g. a disk-backed one. The given model is not modified.
+     *
+     * @param model  model to materialize the entailments of
+     * @param target model to add the statements to
+     * @return the target model
+     */
+    public static Model materialize(final Model model, final Model target) {
+        new RdfsMaterializer(model.getGraph(), target.getGraph()).run();
+        return target;
+    }
+
+    /**
+     * Adds the statements of the given model together with their RDFS entailments to the target
+     * model, taking into account also the schema of the background graph, e.g. of the imported
+     * vocabularies. Only the statements of the given model are entailed, the statements of the
+     * background graph are neither copied nor entailed.
+     *
+     * @param model      model to materialize the entailments of
+     * @param background graph providing additional schema statements
+     * @param target     model to add the statements to
+     * @return the target model
+     */
+    public static Model materialize(final Model model, final Graph background,
+                                    final Model target) {
+        final MultiUnion schema = new MultiUnion(new Graph[] {model.getGraph(), background});
+        new RdfsMaterializer(model.getGraph(), schema, target.getGraph()).run();
+        return target;
+    }
+
+    private Graph run() {
+        readSchema();
+        close(superClasses);
+        close(superProperties);
+        superClasses.forEach((c, supers) -> {
+            if (isEntailed(c)) {
+                target.add(Triple.create(c, TYPE, CLASS));
+                supers.forEach(s -> target.add(Triple.create(c, SUB_CLASS_OF, s)));
+            }
+        });
+        superProperties.forEach((p, supers) -> {
+            if (isEntailed(p)) {
+                target.add(Triple.create(p, TYPE, PROPERTY));
+                supers.forEach(s -> target.add(Triple.create(p, SUB_PROPERTY_OF, s)));
+            }
+        });
+        source.find().forEachRemaining(this::entail);
+        return target;
+    }
+
+    /**
+     * Whether the closure of the given class or property is materialized. The closures of the
+     * schema described only in the background graph are left to the background graph.
+     */
+    private boolean isEntailed(final Node node) {
+        return schema == source || source.contains(node, Node.ANY, Node.ANY);
+    }
+
+    private void readSchema() {
+        schema.find(Node.ANY, SUB_CLASS_OF, Node.ANY).forEachRemaining(t -> {
+            addEdge(superClasses, t.getSubject(), t.getObject());
+            addEdge(superClasses, t.getObject(), t.getObject());
+        });
+        schema.find(Node.ANY, SUB_PROPERTY_OF, Node.ANY).forEachRemaining(t -> {
+            addEdge(superProperties, t.getSubject(), t.getObject());
+            addEdge(superProperties, t.getObject(), t.getObject());
+        });
+        schema.find(Node.ANY, DOMAIN, Node.ANY).forEachRemaining(t -> {
+            addEdge(domains, t.getSubject(), t.getObject());
+            addEdge(superProperties, t.getSubject(), t.getSubject());
+            addEdge(superClasses, t.getObject(), t.getObject());
+        });
+        schema.find(Node.ANY, RANGE, Node.ANY).forEachRemaining(t -> {
+            addEdge(ranges, t.getSubject(), t.getObject());
+            addEdge(superProperties, t.getSubject(), t.getSubject());
+            addEdge(superClasses, t.getObject(), t.getObject());
+        });
+        source.find(Node.ANY, TYPE, Node.ANY).forEachRemaining(t ->
+            addEdge(superClasses, t.getObject(), t.getObject()));
+        if (!superClasses.isEmpty()) {
+            addEdge(superClasses, CLASS, CLASS);
+        }
+        if (!superProperties.isEmpty()) {
+            addEdge(superClasses, PROPERTY, PROPERTY);
+        }
+    }
+
+    private static void addEdge(final Map<Node, Set<Node>> edges, final Node from,
+                                final Node to) {
+        if (from.isLiteral() || to.isLiteral()) {
+            return;
+        }
+        edges.computeIfAbsent(from, k -> new LinkedHashSet<>()).add(to);
+    }
+
+    /**
+     * Replaces the direct super-nodes of each node by all its (reflexive) transitive super-nodes.
+     */
+    private static void close(final Map<Node, Set<Node>> edges) {
+        final Map<Node, Set<Node>> closure = new HashMap<>();
+        for (Node n : edges.keySet()) {
+            final Set<Node> reachable = new LinkedHashSet<>();
+            reachable.add(n);
+            final Deque<Node> open = new ArrayDeque<>(reachable);
+            while (!open.isEmpty()) {
+                for (Node s : edges.getOrDefault(open.pop(), Collections.emptySet())) {
+                    if (reachable.add(s)) {
+                        open.push(s);
+                    }
+                }
+            }
+            closure.put(n, reachable);
+        }
+        edges.putAll(closure);
+    }
+
+    private void entail(final Triple t) {
+        final Node p = t.getPredicate();
+        for (Node q : superProperties.getOrDefault(p, Collections.singleton(p))) {
+            if (TYPE.equals(q)) {
+                addTypes(t.getSubject(), t.getObject());
+            } else {
+                target.add(Triple.create(t.getSubject(), q, t.getObject()));
+            }
+            domains.getOrDefault(q, Collections.emptySet())
+                .forEach(d -> addTypes(t.getSubject(), d));
+            if (!t.getObject().isLiteral()) {
+                ranges.getOrDefault(q, Collections.emptySet())
+                    .forEach(r -> addTypes(t.getObject(), r));
+            }
+        }
+    }
+
+    private void addTypes(final Node resource, final Node type) {
+        for (Node c : superClasses.getOrDefault(type, Collections.singleton(type))) {
+            target.add(Triple.create(resource, TYPE, c));
+        }
+    }
+}
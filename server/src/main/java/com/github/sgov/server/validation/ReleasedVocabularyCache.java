@@ -0,0 +1,254 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.config.conf.ValidationConf;
+import com.github.sgov.server.event.ReleaseChangedEvent;
+import com.github.sgov.server.service.repository.RepositoryClients;
+import com.github.sgov.server.util.Rdf4jToJena;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.compose.MultiUnion;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.sparql.graph.GraphReadOnly;
+import org.eclipse.rdf4j.query.GraphQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-only cache of the released vocabularies, shared by all validations.
+ *
+ * <p>Each released vocabulary is fetched once from the release SPARQL endpoint, with the RDFS
+ * entailments materialized over the vocabularies it imports. A workspace vocabulary is then
+ * validated against a dynamic union of the cached vocabularies it imports, which is neither
+ * copied nor modified by the validation. The whole cache expires after its time to live, or once
+ * {@link #invalidate() invalidated}; each expiry starts a new generation, so the validation
+ * reports depending on the released vocabularies can be told apart. The vocabularies are kept
+ * per generation, so a vocabulary fetched while the cache expires is not served in the new one.
+ */
+@Component
+@Slf4j
+public class ReleasedVocabularyCache {
+
+    private final boolean enabled;
+
+    private final RepositoryClients repositoryClients;
+
+    private final long ttlNanos;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private volatile Generation current = new Generation(0, System.nanoTime());
+
+    /**
+     * Creates the cache.
+     */
+    public ReleasedVocabularyCache(final RepositoryConf repositoryConf,
+                                   final ValidationConf validationConf,
+                                   final MeterRegistry meterRegistry,
+                                   final RepositoryClients repositoryClients) {
+        this.enabled = repositoryConf.getReleaseSparqlEndpointUrl() != null;
+        this.repositoryClients = repositoryClients;
+        this.ttlNanos = validationConf.getReleasedVocabularyTtl().toNanos();
+        this.hits = meterRegistry.counter("sgov.validation.released.requests", "result", "hit");
+        this.misses =
+            meterRegistry.counter("sgov.validation.released.requests", "result", "miss");
+        meterRegistry.gauge("sgov.validation.released.size", Collections.emptyList(), this,
+            c -> c.current.getEntries().size());
+    }
+
+    /**
+     * Returns the union of the released vocabularies transitively imported by the given one. The
+     * released version of the vocabulary itself is not a part of the union.
+     *
+     * @param vocabulary IRI of the released vocabulary
+     * @return read-only union of the imported vocabularies, an empty graph if there are none
+     */
+    public Graph getImports(final URI vocabulary) {
+        if (!enabled) {
+            return Graph.emptyGraph;
+        }
+        final Generation g = getCurrent();
+        return getImports(g, new VocabularyImports(Collections.singleton(vocabulary),
+            getEntry(g, vocabulary, new HashSet<>()).getImports()));
+    }
+
+    /**
+     * Returns the union of the released versions of the vocabularies imported directly by some
+     * vocabularies, e.g. of a workspace, and of the released vocabularies they transitively
+     * import. The importing vocabularies themselves are not a part of the union, neither are
+     * the imported vocabularies which are not released.
+     *
+     * @param vocabularyImports direct imports of the vocabularies
+     * @return read-only union of the imported vocabularies, an empty graph if there are none
+     */
+    public Graph getImports(final VocabularyImports vocabularyImports) {
+        if (!enabled) {
+            return Graph.emptyGraph;
+        }
+        return getImports(getCurrent(), vocabularyImports);
+    }
+
+    private Graph getImports(final Generation g, final VocabularyImports vocabularyImports) {
+        final Set<URI> imports = new LinkedHashSet<>();
+        vocabularyImports.getImports().forEach(i -> {
+            imports.add(i);
+            imports.addAll(getTransitiveImports(g, i));
+        });
+        imports.removeAll(vocabularyImports.getVocabularies());
+        if (imports.isEmpty()) {
+            return Graph.emptyGraph;
+        }
+        return new MultiUnion(imports.stream()
+            .map(i -> getEntry(g, i, new HashSet<>()).getGraph())
+            .toArray(Graph[]::new));
+    }
+
+    /**
+     * Returns the generation of the cached vocabularies, which changes whenever they are dropped.
+     *
+     * @return generation of the cache
+     */
+    public long getGeneration() {
+        return current.getNumber();
+    }
+
+    /**
+     * Drops all the cached vocabularies, e.g. when a new release is published. The following
+     * validations fetch them again.
+     */
+    public void invalidate() {
+        invalidate(current);
+    }
+
+    /**
+     * Starts a new generation, unless the given one has already been replaced.
+     */
+    private synchronized void invalidate(final Generation expired) {
+        if (current == expired) {
+            current = new Generation(expired.getNumber() + 1, System.nanoTime());
+            log.info("Released vocabulary cache invalidated, generation {}",
+                current.getNumber());
+        }
+    }
+
+    @EventListener
+    void onReleaseChanged(final ReleaseChangedEvent event) {
+        invalidate();
+    }
+
+    private Generation getCurrent() {
+        final Generation g = current;
+        if (System.nanoTime() - g.getLoaded() > ttlNanos) {
+            invalidate(g);
+            return current;
+        }
+        return g;
+    }
+
+    private Set<URI> getTransitiveImports(final Generation g, final URI vocabulary) {
+        final Set<URI> imports = new LinkedHashSet<>();
+        final Deque<URI> queue = new ArrayDeque<>();
+        queue.add(vocabulary);
+        while (!queue.isEmpty()) {
+            getEntry(g, queue.poll(), new HashSet<>()).getImports().stream()
+                .filter(imports::add)
+                .forEach(queue::add);
+        }
+        return imports;
+    }
+
+    /**
+     * Returns the cached vocabulary of the generation, fetching it and the vocabularies it
+     * imports if absent. The vocabularies being fetched are kept in the path, to cut import
+     * cycles.
+     */
+    private Entry getEntry(final Generation g, final URI vocabulary, final Set<URI> path) {
+        final Entry cached = g.getEntries().get(vocabulary);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        final Model model = fetch(vocabulary);
+        final Set<URI> imports = model
+            .listObjectsOfProperty(model.createResource(vocabulary.toString()),
+                model.createProperty(VocabularyImports.IMPORTS))
+            .filterKeep(RDFNode::isURIResource)
+            .mapWith(i -> URI.create(i.asResource().getURI()))
+            .toSet();
+        path.add(vocabulary);
+        final Set<Graph> background = new LinkedHashSet<>();
+        final Deque<URI> queue = imports.stream()
+            .filter(i -> !path.contains(i))
+            .collect(Collectors.toCollection(ArrayDeque::new));
+        final Set<URI> visited = new HashSet<>(queue);
+        while (!queue.isEmpty()) {
+            final Entry i = getEntry(g, queue.poll(), path);
+            background.add(i.getGraph());
+            i.getImports().stream()
+                .filter(j -> !path.contains(j) && visited.add(j))
+                .forEach(queue::add);
+        }
+        path.remove(vocabulary);
+        final Model target = RdfsMaterializer.materialize(model,
+            new MultiUnion(background.toArray(new Graph[0])), ModelFactory.createDefaultModel());
+        final Entry entry = new Entry(new GraphReadOnly(target.getGraph()), imports);
+        log.debug("- cached released vocabulary {} with {} triples", vocabulary, target.size());
+        final Entry previous = g.getEntries().putIfAbsent(vocabulary, entry);
+        return previous != null ? previous : entry;
+    }
+
+    private Model fetch(final URI vocabulary) {
+        final ParameterizedSparqlString query = new ParameterizedSparqlString(
+            "CONSTRUCT {?s ?p ?o} WHERE { VALUES ?g {?vocabulary ?glossary ?model} "
+                + "GRAPH ?g {?s ?p ?o} }");
+        query.setIri("vocabulary", vocabulary.toString());
+        query.setIri("glossary", vocabulary + "/glosář");
+        query.setIri("model", vocabulary + "/model");
+        final Model model = ModelFactory.createDefaultModel();
+        try (RepositoryConnection connection =
+                 repositoryClients.getReleaseRepository().getConnection();
+             GraphQueryResult result =
+                 connection.prepareGraphQuery(query.toString()).evaluate()) {
+            result.forEach(st -> model.getGraph().add(Rdf4jToJena.toTriple(st)));
+        }
+        return model;
+    }
+
+    @Value
+    private static class Generation {
+
+        long number;
+
+        long loaded;
+
+        Map<URI, Entry> entries = new ConcurrentHashMap<>();
+    }
+
+    @Value
+    private static class Entry {
+
+        Graph graph;
+
+        Set<URI> imports;
+    }
+}
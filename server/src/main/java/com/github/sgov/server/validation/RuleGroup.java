@@ -0,0 +1,49 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.Validator;
+import java.net.URL;
+import java.util.Set;
+
+/**
+ * Group of the SGoV validation rules.
+ */
+public enum RuleGroup {
+
+    /**
+     * Rules of the glossary, e.g. that each term has a label.
+     */
+    GLOSSARY {
+        @Override
+        public Set<URL> getRules(final Validator validator) {
+            return validator.getGlossaryRules();
+        }
+    },
+
+    /**
+     * Rules of the conceptual model, e.g. that each role has a super kind.
+     */
+    MODEL {
+        @Override
+        public Set<URL> getRules(final Validator validator) {
+            return validator.getModelRules();
+        }
+    },
+
+    /**
+     * Rules of the vocabulary as a whole.
+     */
+    VOCABULARY {
+        @Override
+        public Set<URL> getRules(final Validator validator) {
+            return validator.getVocabularyRules();
+        }
+    };
+
+    /**
+     * Returns the rule files of the group.
+     *
+     * @param validator validator providing the rules
+     * @return rule files
+     */
+    public abstract Set<URL> getRules(Validator validator);
+}
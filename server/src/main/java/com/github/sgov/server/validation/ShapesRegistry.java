@@ -0,0 +1,119 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.Validator;
+import com.github.sgov.server.exception.SGoVException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.util.FileUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.topbraid.jenax.util.JenaUtil;
+
+/**
+ * Holds the SGoV validation rules, loaded from the classpath and compiled only once.
+ *
+ * <p>Each selection of rule groups is compiled separately, lazily on first use. Its version is
+ * derived from the content of the selected rules, so the reports of different selections never
+ * share a cache entry. To keep the first validation fast, the selection of all the rules and
+ * the selections of the individual groups are also compiled once the application is started.
+ */
+@Slf4j
+@Component
+public class ShapesRegistry {
+
+    private final Map<Set<RuleGroup>, CompiledShapes> shapes = new ConcurrentHashMap<>();
+
+    private final Function<RuleGroup, Set<URL>> rules;
+
+    /**
+     * Creates the registry of the rules provided by the SGoV validator.
+     */
+    public ShapesRegistry() {
+        this(group -> group.getRules(new Validator()));
+    }
+
+    /**
+     * Creates the registry of the given rules.
+     *
+     * @param rules rule files of each group
+     */
+    ShapesRegistry(final Function<RuleGroup, Set<URL>> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Compiles the rules once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        getShapes();
+        for (RuleGroup group : RuleGroup.values()) {
+            getShapes(EnumSet.of(group));
+        }
+    }
+
+    /**
+     * Returns the compiled glossary, model and vocabulary rules.
+     *
+     * @return compiled shapes, shared by all validations
+     */
+    public CompiledShapes getShapes() {
+        return getShapes(EnumSet.allOf(RuleGroup.class));
+    }
+
+    /**
+     * Returns the compiled rules of the given groups.
+     *
+     * @param groups rule groups, all of them if empty
+     * @return compiled shapes, shared by all validations with the same groups
+     */
+    public CompiledShapes getShapes(final Set<RuleGroup> groups) {
+        final Set<RuleGroup> key = groups.isEmpty()
+            ? EnumSet.allOf(RuleGroup.class) : EnumSet.copyOf(groups);
+        return shapes.computeIfAbsent(Collections.unmodifiableSet(key), this::compile);
+    }
+
+    private CompiledShapes compile(final Set<RuleGroup> groups) {
+        try {
+            final long start = System.currentTimeMillis();
+            final Set<URL> files = new HashSet<>();
+            groups.forEach(g -> files.addAll(rules.apply(g)));
+
+            final Model model = JenaUtil.createMemoryModel();
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            for (final URL rule : files.stream()
+                .sorted(Comparator.comparing(URL::toString))
+                .collect(Collectors.toList())) {
+                try (InputStream is = rule.openStream()) {
+                    final byte[] bytes = StreamUtils.copyToByteArray(is);
+                    content.write(bytes);
+                    model.read(new ByteArrayInputStream(bytes), null, FileUtils.langTurtle);
+                }
+            }
+            final CompiledShapes result =
+                new CompiledShapes(model, DigestUtils.md5DigestAsHex(content.toByteArray()));
+            log.info("Compiled {} validation rules of {} ({} triples) in {} ms", files.size(),
+                groups, model.size(), System.currentTimeMillis() - start);
+            return result;
+        } catch (IOException e) {
+            throw new SGoVException("Unable to load validation rules.", e);
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.sparql.core.TriplePath;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementNamedGraph;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
+import org.apache.jena.sparql.syntax.syntaxtransform.ElementTransformCopyBase;
+import org.apache.jena.sparql.syntax.syntaxtransform.ElementTransformer;
+import org.apache.jena.sparql.syntax.syntaxtransform.ExprTransformApplyElementTransform;
+import org.apache.jena.sparql.util.FmtUtils;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.topbraid.shacl.validation.ResourceValidationReport;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+import org.topbraid.shacl.validation.sparql.SPARQLSubstitutions;
+import org.topbraid.shacl.vocabulary.SH;
+
+/**
+ * Validates vocabulary contexts directly in the triple store, so that only the violations cross
+ * the wire instead of the whole context.
+ *
+ * <p>The shapes are translated into SPARQL queries once. The queries emulate the RDFS entailment
+ * applied before in-memory validation, using the schema triples of the validated context: class
+ * membership follows rdf:type, rdfs:subClassOf, rdfs:domain and rdfs:range, property values
+ * follow rdfs:subPropertyOf.
+ *
+ * <p>Supported are the SHACL-SPARQL constraints and the sh:minCount and sh:maxCount constraints
+ * with a predicate path, of shapes with class, node, subjects-of and objects-of targets. The
+ * other constraints are not checked in the triple store, they are logged when the shapes are
+ * translated. A report of shapes with such constraints is partial, it never claims conformance,
+ * see {@link #isComplete()}.
+ */
+@Slf4j
+public class SparqlPushdownValidator {
+
+    private static final String GRAPH_VARIABLE = "pushdownGraph";
+
+    private static final String THIS = "this";
+
+    private static final PrefixMapping NO_PREFIXES = PrefixMapping.Factory.create();
+
+    private static final Pattern MESSAGE_VARIABLE = Pattern.compile("\\{[?$]([\\w]+)}");
+
+    private static final Set<Property> SUPPORTED_PARAMETERS = new HashSet<>(Arrays.asList(
+        SH.path, SH.targetClass, SH.targetNode, SH.targetSubjectsOf, SH.targetObjectsOf,
+        SH.property, SH.sparql, SH.minCount, SH.maxCount, SH.severity, SH.message,
+        SH.deactivated, SH.name, SH.description, SH.order, SH.group, SH.defaultValue,
+        SH.prefixes));
+
+    private final List<PushdownQuery> queries = new ArrayList<>();
+
+    private final Set<String> unsupported = new HashSet<>();
+
+    /**
+     * Translates the given shapes into SPARQL queries.
+     *
+     * @param shapesModel model containing the SHACL shapes
+     */
+    public SparqlPushdownValidator(final Model shapesModel) {
+        final Set<Resource> shapes = new HashSet<>();
+        Arrays.asList(SH.targetClass, SH.targetNode, SH.targetSubjectsOf, SH.targetObjectsOf)
+            .forEach(p -> shapes.addAll(shapesModel.listSubjectsWithProperty(p).toList()));
+        shapes.addAll(shapesModel.listSubjectsWithProperty(RDF.type, SH.NodeShape)
+            .filterKeep(s -> s.hasProperty(RDF.type, RDFS.Class)).toList());
+        shapes.stream().filter(s -> !isDeactivated(s)).forEach(s -> {
+            final String targets = getTargetPattern(s);
+            translateShape(s, targets);
+            s.listProperties(SH.property).mapWith(Statement::getResource)
+                .filterDrop(SparqlPushdownValidator::isDeactivated)
+                .forEachRemaining(p -> translateShape(p, targets));
+        });
+        if (!unsupported.isEmpty()) {
+            log.warn("Constraints not validated in the triple store: {}",
+                unsupported.stream().sorted().collect(Collectors.joining(", ")));
+        }
+    }
+
+    /**
+     * Returns the number of SPARQL queries the shapes were translated into.
+     */
+    public int getQueryCount() {
+        return queries.size();
+    }
+
+    /**
+     * Returns the constraints which are not validated in the triple store, as shape and constraint
+     * parameter pairs.
+     */
+    public Set<String> getUnsupportedConstraints() {
+        return Collections.unmodifiableSet(unsupported);
+    }
+
+    /**
+     * Whether all the constraints of the shapes are validated in the triple store.
+     */
+    public boolean isComplete() {
+        return unsupported.isEmpty();
+    }
+
+    /**
+     * Validates the given context in the triple store. Unless all the constraints are validated
+     * there, the report does not conform even if there are no results.
+     *
+     * @param endpoint SPARQL endpoint of the triple store
+     * @param context  vocabulary context to validate
+     * @return validation report
+     */
+    public ValidationReport validate(final String endpoint, final URI context) {
+        final Model reportModel = ModelFactory.createDefaultModel();
+        final Resource report = reportModel.createResource(SH.ValidationReport);
+        for (PushdownQuery q : queries) {
+            final ParameterizedSparqlString query = new ParameterizedSparqlString(q.query);
+            query.setIri(GRAPH_VARIABLE, context.toString());
+            try (QueryExecution e = QueryExecutionFactory.sparqlService(endpoint,
+                query.asQuery())) {
+                e.execSelect().forEachRemaining(s -> {
+                    if (s.contains(THIS)) {
+                        report.addProperty(SH.result, q.createResult(reportModel, s));
+                    }
+                });
+            }
+        }
+        report.addLiteral(SH.conforms, isComplete() && !report.hasProperty(SH.result));
+        final List<ValidationResult> results = new ResourceValidationReport(report).results();
+        return new BasicValidationReport(isComplete() && results.isEmpty(), results);
+    }
+
+    private static boolean isDeactivated(final Resource shape) {
+        return shape.hasLiteral(SH.deactivated, true);
+    }
+
+    private static String iri(final Node node) {
+        return FmtUtils.stringForNode(node, NO_PREFIXES);
+    }
+
+    private static String iri(final Resource r) {
+        return iri(r.asNode());
+    }
+
+    /**
+     * SPARQL pattern binding ?this to the focus nodes of the given shape, or null if the shape
+     * has no supported targets.
+     */
+    private String getTargetPattern(final Resource shape) {
+        final List<String> targets = new ArrayList<>();
+        shape.listProperties(SH.targetClass).forEachRemaining(
+            st -> targets.add(getTypePattern("?" + THIS, st.getObject().asNode(), "")));
+        if (shape.hasProperty(RDF.type, RDFS.Class)) {
+            targets.add(getTypePattern("?" + THIS, shape.asNode(), ""));
+        }
+        shape.listProperties(SH.targetNode).forEachRemaining(
+            st -> targets.add("VALUES ?" + THIS + " { "
+                + iri(st.getObject().asNode()) + " }"));
+        shape.listProperties(SH.targetSubjectsOf).forEachRemaining(
+            st -> targets.add(getPropertyPattern("?" + THIS, st.getObject().asNode(),
+                "?pushdownO", "")));
+        shape.listProperties(SH.targetObjectsOf).forEachRemaining(
+            st -> targets.add(getPropertyPattern("?pushdownS", st.getObject().asNode(),
+                "?" + THIS, "")));
+        if (targets.isEmpty()) {
+            return null;
+        }
+        return "{ SELECT DISTINCT ?" + THIS + " WHERE { "
+            + targets.stream().map(t -> "{ " + t + " }").collect(Collectors.joining(" UNION "))
+            + " } }";
+    }
+
+    /**
+     * SPARQL pattern matching the entailed class membership of the given node.
+     */
+    private static String getTypePattern(final String node, final Node type,
+                                         final String suffix) {
+        final String subClassOf = iri(RDFS.subClassOf);
+        final String subPropertyOf = iri(RDFS.subPropertyOf);
+        final String c = "?pushdownC" + suffix;
+        final String p = "?pushdownP" + suffix;
+        final String o = "?pushdownO" + suffix;
+        return "{ " + c + " " + subClassOf + "* " + iri(type) + " . "
+            + node + " " + iri(RDF.type) + " " + c + " } UNION { "
+            + p + " " + subPropertyOf + "*/" + iri(RDFS.domain) + "/" + subClassOf + "* "
+            + iri(type) + " . " + node + " " + p + " " + o + " } UNION { "
+            + p + " " + subPropertyOf + "*/" + iri(RDFS.range) + "/" + subClassOf + "* "
+            + iri(type) + " . " + o + " " + p + " " + node + " FILTER (!isLiteral(" + node
+            + ")) }";
+    }
+
+    /**
+     * SPARQL pattern matching the entailed values of the given property.
+     */
+    private static String getPropertyPattern(final String subject, final Node property,
+                                             final String object, final String suffix) {
+        final String p = "?pushdownP" + suffix;
+        return p + " " + iri(RDFS.subPropertyOf) + "* " + iri(property) + " . "
+            + subject + " " + p + " " + object;
+    }
+
+    private void translateShape(final Resource shape, final String targets) {
+        if (targets == null) {
+            return;
+        }
+        final Resource path = shape.getPropertyResourceValue(SH.path);
+        shape.listProperties(SH.sparql).mapWith(Statement::getResource)
+            .filterDrop(SparqlPushdownValidator::isDeactivated)
+            .forEachRemaining(c -> translateSparqlConstraint(shape, c, path, targets));
+        shape.listProperties(SH.minCount).forEachRemaining(st ->
+            translateCount(shape, path, targets, SH.MinCountConstraintComponent,
+                "< " + st.getInt(), "Less than " + st.getInt() + " values"));
+        shape.listProperties(SH.maxCount).forEachRemaining(st ->
+            translateCount(shape, path, targets, SH.MaxCountConstraintComponent,
+                "> " + st.getInt(), "More than " + st.getInt() + " values"));
+        shape.listProperties()
+            .filterKeep(st -> SH.NS.equals(st.getPredicate().getNameSpace()))
+            .filterDrop(st -> SUPPORTED_PARAMETERS.contains(st.getPredicate()))
+            .forEachRemaining(st -> unsupported.add(shape + " " + st.getPredicate()));
+    }
+
+    private void translateSparqlConstraint(final Resource shape, final Resource constraint,
+                                           final Resource path, final String targets) {
+        final Literal select = constraint.hasProperty(SH.select)
+            ? constraint.getProperty(SH.select).getLiteral() : null;
+        if (select == null || select.getLexicalForm().contains("$shapesGraph")
+            || (select.getLexicalForm().contains("$currentShape") && !shape.isURIResource())
+            || (select.getLexicalForm().contains("$PATH")
+            && (path == null || !path.isURIResource()))) {
+            unsupported.add(shape + " " + SH.sparql);
+            return;
+        }
+        String text = select.getLexicalForm().replace("$currentShape", iri(shape));
+        if (path != null && path.isURIResource()) {
+            text = text.replace("$PATH", iri(path));
+        }
+        final Query query = QueryFactory.create(
+            SPARQLSubstitutions.withPrefixes(text, constraint));
+
+        final EntailmentTransform entailment = new EntailmentTransform();
+        final Element body = ElementTransformer.transform(query.getQueryPattern(), entailment,
+            new ExprTransformApplyElementTransform(entailment));
+        final ElementGroup group = new ElementGroup();
+        group.addElement(QueryFactory.create("SELECT * WHERE { " + targets + " }")
+            .getQueryPattern());
+        if (body instanceof ElementGroup) {
+            ((ElementGroup) body).getElements().forEach(group::addElement);
+        } else {
+            group.addElement(body);
+        }
+        query.setQueryPattern(new ElementNamedGraph(Var.alloc(GRAPH_VARIABLE), group));
+
+        final List<RDFNode> messages = constraint.hasProperty(SH.message)
+            ? constraint.listProperties(SH.message).mapWith(Statement::getObject).toList()
+            : shape.listProperties(SH.message).mapWith(Statement::getObject).toList();
+        queries.add(new PushdownQuery(query.serialize(), shape, constraint,
+            SH.SPARQLConstraintComponent, path, messages));
+    }
+
+    private void translateCount(final Resource shape, final Resource path, final String targets,
+                                final Resource component, final String condition,
+                                final String defaultMessage) {
+        if (path == null || !path.isURIResource()) {
+            unsupported.add(shape + " " + component);
+            return;
+        }
+        final String values = getPropertyPattern("?" + THIS, path.asNode(), "?pushdownValue", "");
+        final boolean min = SH.MinCountConstraintComponent.equals(component);
+        final String query = "SELECT ?" + THIS + " WHERE { GRAPH ?" + GRAPH_VARIABLE + " { "
+            + targets + (min ? " OPTIONAL { " + values + " }" : " " + values) + " } } "
+            + "GROUP BY ?" + THIS + " HAVING (COUNT(DISTINCT ?pushdownValue) " + condition + ")";
+        final List<RDFNode> messages = shape.hasProperty(SH.message)
+            ? shape.listProperties(SH.message).mapWith(Statement::getObject).toList()
+            : Collections.singletonList(shape.getModel().createLiteral(defaultMessage));
+        queries.add(new PushdownQuery(query, shape, null, component, path, messages));
+    }
+
+    /**
+     * Rewrites the triple patterns of a constraint so that they match the RDFS entailments of the
+     * data. Class membership tests follow the class and property hierarchies, domains and
+     * ranges, property values follow the property hierarchy.
+     */
+    private static class EntailmentTransform extends ElementTransformCopyBase {
+
+        private static final Set<Node> SCHEMA_PROPERTIES = new HashSet<>(Arrays.asList(
+            RDF.type.asNode(), RDFS.subClassOf.asNode(), RDFS.subPropertyOf.asNode(),
+            RDFS.domain.asNode(), RDFS.range.asNode()));
+
+        private int counter;
+
+        @Override
+        public Element transform(final ElementPathBlock el) {
+            final ElementPathBlock kept = new ElementPathBlock();
+            final StringBuilder rewritten = new StringBuilder();
+            for (TriplePath tp : el.getPattern()) {
+                final Triple t = tp.asTriple();
+                final String suffix = String.valueOf(++counter);
+                if (t != null && t.getPredicate().equals(RDF.type.asNode())
+                    && t.getObject().isURI()) {
+                    rewritten.append("{ ").append(getTypePattern(
+                        iri(t.getSubject()), t.getObject(), suffix))
+                        .append(" } ");
+                } else if (t != null && t.getPredicate().isURI()
+                    && !SCHEMA_PROPERTIES.contains(t.getPredicate())) {
+                    rewritten.append(getPropertyPattern(iri(t.getSubject()),
+                        t.getPredicate(), iri(t.getObject()), suffix))
+                        .append(" . ");
+                } else {
+                    kept.addTriplePath(tp);
+                }
+            }
+            final ElementGroup group = (ElementGroup) QueryFactory
+                .create("SELECT * WHERE { " + rewritten + " }").getQueryPattern();
+            if (!kept.isEmpty()) {
+                group.addElement(kept);
+            }
+            return group;
+        }
+    }
+
+    /**
+     * Translated constraint, together with the data needed to build its validation results.
+     */
+    private static class PushdownQuery {
+
+        private final String query;
+
+        private final Resource shape;
+
+        private final Resource constraint;
+
+        private final Resource component;
+
+        private final Resource path;
+
+        private final List<RDFNode> messages;
+
+        PushdownQuery(final String query, final Resource shape, final Resource constraint,
+                      final Resource component, final Resource path,
+                      final List<RDFNode> messages) {
+            this.query = query;
+            this.shape = shape;
+            this.constraint = constraint;
+            this.component = component;
+            this.path = path;
+            this.messages = messages;
+        }
+
+        Resource createResult(final Model model, final QuerySolution s) {
+            final Resource result = model.createResource(SH.ValidationResult);
+            result.addProperty(SH.focusNode, s.get(THIS));
+            result.addProperty(SH.resultSeverity,
+                shape.hasProperty(SH.severity) ? shape.getPropertyResourceValue(SH.severity)
+                    : SH.Violation);
+            result.addProperty(SH.sourceShape, shape);
+            result.addProperty(SH.sourceConstraintComponent, component);
+            if (constraint != null) {
+                result.addProperty(SH.sourceConstraint, constraint);
+            }
+            if (s.contains("path")) {
+                result.addProperty(SH.resultPath, s.get("path"));
+            } else if (path != null) {
+                result.addProperty(SH.resultPath, path);
+            }
+            if (s.contains("value")) {
+                result.addProperty(SH.value, s.get("value"));
+            }
+            if (s.contains("message")) {
+                result.addProperty(SH.resultMessage, s.get("message"));
+            } else {
+                messages.forEach(m -> result.addProperty(SH.resultMessage,
+                    m.isLiteral() ? substitute(model, m.asLiteral(), s) : m));
+            }
+            return result;
+        }
+
+        private static Literal substitute(final Model model, final Literal message,
+                                          final QuerySolution s) {
+            final Matcher m = MESSAGE_VARIABLE.matcher(message.getLexicalForm());
+            final StringBuffer sb = new StringBuffer();
+            while (m.find()) {
+                final RDFNode value = s.get(m.group(1));
+                final String replacement = value == null ? m.group()
+                    : value.isLiteral() ? value.asLiteral().getLexicalForm() : value.toString();
+                m.appendReplacement(sb, Matcher.quoteReplacement(replacement));
+            }
+            m.appendTail(sb);
+            return message.getLanguage().isEmpty()
+                ? model.createTypedLiteral(sb.toString(), message.getDatatype())
+                : model.createLiteral(sb.toString(), message.getLanguage());
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.github.sgov.server.validation;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Last validation report of a workspace, kept by the {@link ValidationReportStore}.
+ *
+ * <p>The results are indexed by severity, shape, focus node and vocabulary context, so that
+ * filtering does not go through all of them. The indexes are built on the first search.
+ *
+ * <p>Each report of a workspace is a new version of the previous one. The results keep the
+ * version they were added in, and the results removed in the recent versions are kept as well,
+ * so that the clients can fetch only the {@link #getDelta(long) delta} since the version they
+ * have.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class StoredValidationReport {
+
+    private URI workspace;
+
+    private Date created;
+
+    /**
+     * Version of the report, increasing with each validation of the workspace.
+     */
+    private long version;
+
+    /**
+     * Oldest version the delta of the report can be computed since.
+     */
+    private long oldestVersion;
+
+    private boolean conforms;
+
+    /**
+     * Rule groups the workspace was validated with.
+     */
+    private Set<RuleGroup> ruleGroups;
+
+    /**
+     * IRIs of the validated vocabulary contexts.
+     */
+    private Set<URI> contexts;
+
+    /**
+     * Results sorted by severity.
+     */
+    private List<StoredValidationResult> results;
+
+    /**
+     * Results removed in the recent versions, each with the version it was removed in.
+     */
+    private List<StoredValidationResult> removed = new ArrayList<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Index index;
+
+    /**
+     * Creates the report.
+     *
+     * @param workspace IRI of the validated workspace
+     * @param options   options the workspace was validated with
+     * @param contexts  IRIs of the validated vocabulary contexts
+     * @param conforms  whether the workspace conforms to the rules
+     * @param results   results sorted by severity
+     */
+    public StoredValidationReport(final URI workspace, final ValidationOptions options,
+                                  final Set<URI> contexts, final boolean conforms,
+                                  final List<StoredValidationResult> results) {
+        this.workspace = workspace;
+        this.created = new Date();
+        this.ruleGroups = options.getRuleGroups();
+        this.contexts = contexts;
+        this.conforms = conforms;
+        this.results = results;
+    }
+
+    /**
+     * Returns the number of results of each severity.
+     */
+    @JsonIgnore
+    public Map<String, Integer> getSeverityCounts() {
+        final Map<String, Integer> counts = new TreeMap<>();
+        getIndex().severities.forEach((s, bits) -> counts.put(s, bits.cardinality()));
+        return counts;
+    }
+
+    /**
+     * Returns the results matching the given filter, in the order of the report.
+     *
+     * @param filter result filter
+     * @return matching results
+     */
+    public List<StoredValidationResult> find(final ValidationResultFilter filter) {
+        final Index i = getIndex();
+        final BitSet matches = new BitSet();
+        matches.set(0, results.size());
+        retain(matches, i.severities, filter.getSeverities());
+        retain(matches, i.shapes, filter.getShapes());
+        retain(matches, i.focusNodes, filter.getFocusNodes());
+        retain(matches, i.contexts, filter.getContexts());
+        return matches.stream().mapToObj(results::get).collect(Collectors.toList());
+    }
+
+    /**
+     * Makes the report the version following the given previous report of the workspace. The
+     * results are matched with the previous results by their {@link StoredValidationResult#getKey()
+     * key}: the matching results keep their version, the other ones get the new version. The
+     * previous results without a match are kept as removed in the new version, together with the
+     * results removed in the given number of the previous versions.
+     *
+     * @param previous previous report of the workspace, or null if there is none
+     * @param history  number of versions the removed results are kept for
+     */
+    void succeed(final StoredValidationReport previous, final int history) {
+        if (previous == null || previous.version == 0) {
+            version = 1;
+            oldestVersion = version;
+            results.forEach(r -> r.setVersion(version));
+            removed = new ArrayList<>();
+            return;
+        }
+        version = previous.version + 1;
+        oldestVersion = Math.max(previous.oldestVersion, version - history);
+        final Map<List<String>, Deque<StoredValidationResult>> unmatched = new HashMap<>();
+        previous.results.forEach(r ->
+            unmatched.computeIfAbsent(r.getKey(), k -> new ArrayDeque<>()).add(r));
+        results.forEach(r -> {
+            final Deque<StoredValidationResult> matches = unmatched.get(r.getKey());
+            final StoredValidationResult match = matches != null ? matches.poll() : null;
+            r.setVersion(match != null ? match.getVersion() : version);
+        });
+        removed = previous.removed.stream()
+            .filter(r -> r.getVersion() > oldestVersion)
+            .collect(Collectors.toCollection(ArrayList::new));
+        unmatched.values().forEach(rs -> rs.forEach(r -> removed.add(r.withVersion(version))));
+    }
+
+    /**
+     * Returns the results added and removed since the given version of the report. If the delta
+     * cannot be computed since the version, as it is too old or unknown, the delta is complete,
+     * all the results are added.
+     *
+     * @param since version of the report the client has
+     * @return delta of the report
+     */
+    public ValidationReportDelta getDelta(final long since) {
+        final ValidationReportDelta delta = new ValidationReportDelta()
+            .setWorkspace(workspace)
+            .setSince(since)
+            .setVersion(version)
+            .setConforms(conforms);
+        if (since < oldestVersion || since > version) {
+            return delta.setComplete(true)
+                .setAdded(results)
+                .setRemoved(Collections.emptyList());
+        }
+        return delta
+            .setAdded(results.stream().filter(r -> r.getVersion() > since)
+                .collect(Collectors.toList()))
+            .setRemoved(removed.stream().filter(r -> r.getVersion() > since)
+                .collect(Collectors.toList()));
+    }
+
+    private static <K> void retain(final BitSet matches, final Map<K, BitSet> index,
+                                   final Set<K> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        final BitSet any = new BitSet();
+        values.forEach(v -> {
+            final BitSet bits = index.get(v);
+            if (bits != null) {
+                any.or(bits);
+            }
+        });
+        matches.and(any);
+    }
+
+    private synchronized Index getIndex() {
+        if (index == null) {
+            index = new Index(results);
+        }
+        return index;
+    }
+
+    /**
+     * Positions of the results, for each value of the indexed result properties.
+     */
+    private static class Index {
+
+        private final Map<String, BitSet> severities;
+
+        private final Map<String, BitSet> shapes;
+
+        private final Map<String, BitSet> focusNodes;
+
+        private final Map<URI, BitSet> contexts;
+
+        Index(final List<StoredValidationResult> results) {
+            this.severities = index(results, StoredValidationResult::getSeverity);
+            this.shapes = index(results, StoredValidationResult::getShape);
+            this.focusNodes = index(results, StoredValidationResult::getFocusNode);
+            this.contexts = index(results, StoredValidationResult::getContext);
+        }
+
+        private static <K> Map<K, BitSet> index(final List<StoredValidationResult> results,
+                                                final Function<StoredValidationResult, K> key) {
+            final Map<K, BitSet> index = new HashMap<>();
+            for (int i = 0; i < results.size(); i++) {
+                final K k = key.apply(results.get(i));
+                if (k != null) {
+                    index.computeIfAbsent(k, x -> new BitSet()).set(i);
+                }
+            }
+            return index;
+        }
+    }
+}
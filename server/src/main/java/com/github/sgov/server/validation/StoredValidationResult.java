@@ -0,0 +1,137 @@
+package com.github.sgov.server.validation;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.apache.jena.rdf.model.Resource;
+import org.topbraid.shacl.arq.SHACLPaths;
+import org.topbraid.shacl.validation.ValidationResult;
+
+/**
+ * Validation result in the compact form kept by the {@link ValidationReportStore}.
+ */
+@Data
+@NoArgsConstructor
+public class StoredValidationResult {
+
+    /**
+     * IRI of the vocabulary context the result comes from.
+     */
+    private URI context;
+
+    /**
+     * IRI of the severity of the result.
+     */
+    private String severity;
+
+    /**
+     * IRI of the shape the result comes from, or null if the shape is a blank node. The compiled
+     * shapes give IRIs to the blank node property shapes.
+     */
+    private String shape;
+
+    private String focusNode;
+
+    /**
+     * Path of the result, in the SPARQL property path syntax if it is not a single property.
+     */
+    private String path;
+
+    private String value;
+
+    /**
+     * Messages of the result, keyed by language tag.
+     */
+    private Map<String, String> messages;
+
+    /**
+     * Version of the report the result was added in, or for a removed result, removed in.
+     */
+    @EqualsAndHashCode.Exclude
+    private long version;
+
+    /**
+     * Creates the result.
+     */
+    public StoredValidationResult(final URI context, final String severity, final String shape,
+                                  final String focusNode, final String path, final String value,
+                                  final Map<String, String> messages) {
+        this.context = context;
+        this.severity = severity;
+        this.shape = shape;
+        this.focusNode = focusNode;
+        this.path = path;
+        this.value = value;
+        this.messages = messages;
+    }
+
+    /**
+     * Converts the given validation result.
+     *
+     * @param context vocabulary context the result comes from
+     * @param r       validation result
+     * @return result in the compact form
+     */
+    public static StoredValidationResult of(final URI context, final ValidationResult r) {
+        final Map<String, String> messages = new LinkedHashMap<>();
+        r.getMessages().forEach(n -> messages.merge(n.asLiteral().getLanguage(),
+            n.asLiteral().getLexicalForm(), String::concat));
+        final Resource shape = r.getSourceShape();
+        return new StoredValidationResult(context, r.getSeverity().getURI(),
+            shape != null && shape.isURIResource() ? shape.getURI() : null,
+            r.getFocusNode().toString(),
+            r.getPath() == null ? null
+                : r.getPath().isAnon() ? SHACLPaths.getPathString(r.getPath())
+                : r.getPath().toString(),
+            r.getValue() != null ? r.getValue().toString() : null,
+            messages);
+    }
+
+    /**
+     * Returns the messages matching the given language, as the validation report serializer
+     * does.
+     *
+     * @param lang language tag
+     * @return concatenated messages
+     */
+    public String getMessage(final String lang) {
+        final StringBuilder sb = new StringBuilder();
+        messages.forEach((l, m) -> {
+            if (lang.startsWith(l)) {
+                sb.append(m);
+            }
+        });
+        return sb.toString();
+    }
+
+    /**
+     * Returns the key the results of the subsequent reports are matched by, consisting of the
+     * shape, focus node, path and severity. None of them depends on blank node labels, which
+     * change from a validation to another.
+     *
+     * @return key of the result
+     */
+    @JsonIgnore
+    public List<String> getKey() {
+        return Arrays.asList(shape, focusNode, path, severity);
+    }
+
+    /**
+     * Returns a copy of the result with the given version.
+     *
+     * @param version version of the copy
+     * @return copy of the result
+     */
+    public StoredValidationResult withVersion(final long version) {
+        final StoredValidationResult copy =
+            new StoredValidationResult(context, severity, shape, focusNode, path, value, messages);
+        copy.setVersion(version);
+        return copy;
+    }
+}
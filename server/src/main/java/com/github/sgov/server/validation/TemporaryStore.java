@@ -0,0 +1,107 @@
+package com.github.sgov.server.validation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.tdb.TDBFactory;
+
+/**
+ * Disk-backed store for the vocabulary contexts too big to be validated in memory.
+ *
+ * <p>The store lives in its own temporary directory, which is deleted when the store is closed.
+ * Each model of the store is kept in its own TDB dataset, so that one model can be read while
+ * another one is written. Each store is used by a single validation, so the datasets are used
+ * without transactions.
+ */
+@Slf4j
+public final class TemporaryStore implements AutoCloseable {
+
+    private static final String OWNER_PREFIX = "stores-";
+
+    private static final String DIRECTORY_PREFIX = "validation-";
+
+    private final Path directory;
+
+    private final List<Dataset> datasets = new ArrayList<>();
+
+    private TemporaryStore(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a store in a new temporary directory under the given directory.
+     *
+     * @param parent directory to create the store in
+     * @return new empty store
+     * @throws IOException if the directory cannot be created
+     */
+    public static TemporaryStore create(final Path parent) throws IOException {
+        Files.createDirectories(parent);
+        return new TemporaryStore(Files.createTempDirectory(parent, DIRECTORY_PREFIX));
+    }
+
+    /**
+     * Creates a new temporary directory under the given directory, for the stores of a single
+     * owner. Unlike the given directory, which may be shared, it can be deleted as a whole by
+     * its owner, see {@link #deleteDirectory(Path)}.
+     *
+     * @param parent directory to create the directory in
+     * @return new empty directory
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path createDirectory(final Path parent) throws IOException {
+        Files.createDirectories(parent);
+        return Files.createTempDirectory(parent, OWNER_PREFIX);
+    }
+
+    /**
+     * Deletes the given directory created by {@link #createDirectory(Path)}, together with the
+     * stores it contains. Must not be called while any store of the directory is in use.
+     *
+     * @param directory directory containing the stores
+     */
+    public static void deleteDirectory(final Path directory) {
+        if (Files.isDirectory(directory)) {
+            delete(directory);
+        }
+    }
+
+    private static void delete(final Path directory) {
+        try {
+            FileUtils.deleteDirectory(directory.toFile());
+        } catch (IOException e) {
+            log.warn("Unable to delete temporary validation store {}", directory, e);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Creates a new empty model in the store.
+     *
+     * @return disk-backed model
+     */
+    public synchronized Model createModel() {
+        final Dataset dataset = TDBFactory.createDataset(
+            directory.resolve(String.valueOf(datasets.size())).toString());
+        datasets.add(dataset);
+        return dataset.getDefaultModel();
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            datasets.forEach(TDBFactory::release);
+        } finally {
+            delete(directory);
+        }
+    }
+}
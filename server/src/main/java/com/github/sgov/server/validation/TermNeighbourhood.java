@@ -0,0 +1,141 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+
+/**
+ * Bounded neighbourhood of terms, i.e. the part of the vocabulary contexts needed to validate the
+ * terms alone, fetched in a single query.
+ *
+ * <p>The neighbourhood consists of
+ * <ul>
+ *     <li>the statements about the terms and the statements pointing to them,</li>
+ *     <li>the statements about the resources the terms point to,</li>
+ *     <li>the statements about the super classes of the terms,</li>
+ *     <li>the rdfs:subClassOf chains of the classes of the terms and of the resources they point
+ *     to, and of the domains and ranges of the properties,</li>
+ *     <li>the rdfs:subPropertyOf, rdfs:domain and rdfs:range statements.</li>
+ * </ul>
+ *
+ * <p>This is enough for the RDFS entailment and for the shapes constraining the terms and the
+ * resources they point to. The contexts are queried as a single graph, so the links between the
+ * contexts are followed as well.
+ */
+@Slf4j
+public final class TermNeighbourhood {
+
+    private TermNeighbourhood() {
+    }
+
+    private static String iris(final Collection<?> iris) {
+        return iris.stream().map(i -> "<" + i + ">").collect(Collectors.joining(" "));
+    }
+
+    /**
+     * Creates the query fetching the neighbourhood of the terms from the given contexts.
+     *
+     * @param contexts IRIs of the vocabulary contexts, must not be empty
+     * @param terms    IRIs of the terms, must not be empty
+     * @return CONSTRUCT query
+     */
+    public static Query createQuery(final Collection<String> contexts,
+                                    final Collection<URI> terms) {
+        final String focus = "VALUES ?focus {" + iris(terms) + "} ";
+        final String from = contexts.stream().map(c -> "FROM <" + c + "> ")
+            .collect(Collectors.joining());
+        return QueryFactory.create(
+            "PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> "
+                + "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#> "
+                + "CONSTRUCT { ?s ?p ?o } " + from + "WHERE { "
+                + "{ " + focus + "?focus ?p ?o . BIND(?focus AS ?s) } "
+                + "UNION { " + focus + "?s ?p ?focus . BIND(?focus AS ?o) } "
+                + "UNION { " + focus + "?focus ?q ?s . FILTER(!isLiteral(?s)) ?s ?p ?o } "
+                + "UNION { " + focus + "?focus rdfs:subClassOf+ ?s . ?s ?p ?o } "
+                + "UNION { "
+                + "{ { " + focus + "?focus rdf:type ?t } "
+                + "UNION { " + focus + "?focus ?q ?n . ?n rdf:type ?t } "
+                + "UNION { ?x rdfs:domain|rdfs:range ?t } } "
+                + "?t rdfs:subClassOf* ?s . ?s rdfs:subClassOf ?o . "
+                + "BIND(rdfs:subClassOf AS ?p) } "
+                + "UNION { VALUES ?p { rdfs:subPropertyOf rdfs:domain rdfs:range } ?s ?p ?o } "
+                + "}");
+    }
+
+    /**
+     * Finds the resources within the given number of statements from the given ones, following
+     * the statements in both directions, except for the rdf:type statements, which would lead
+     * through the classes to all their instances. Each step is a single query. The search stops
+     * once more than the given number of resources is found.
+     *
+     * @param endpoint SPARQL endpoint of the repository
+     * @param contexts IRIs of the vocabulary contexts, must not be empty
+     * @param start    IRIs of the resources to start from
+     * @param depth    maximum number of statements from the start resources
+     * @param limit    number of resources after which the search stops
+     * @return rings of the resources at each distance, starting with the start resources
+     */
+    public static List<Set<URI>> findRings(final String endpoint,
+                                           final Collection<String> contexts,
+                                           final Collection<URI> start,
+                                           final int depth,
+                                           final int limit) {
+        final List<Set<URI>> rings = new ArrayList<>();
+        final Set<URI> visited = new HashSet<>(start);
+        rings.add(new HashSet<>(start));
+        final String from = contexts.stream().map(c -> "FROM <" + c + "> ")
+            .collect(Collectors.joining());
+        while (rings.size() <= depth && visited.size() <= limit
+            && !rings.get(rings.size() - 1).isEmpty()) {
+            final String frontier = "VALUES ?f {" + iris(rings.get(rings.size() - 1)) + "} ";
+            final Query query = QueryFactory.create(
+                "PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> "
+                    + "SELECT DISTINCT ?n " + from + "WHERE { "
+                    + "{ " + frontier + "?f ?p ?n } UNION { " + frontier + "?n ?p ?f } "
+                    + "FILTER(?p != rdf:type && isIRI(?n)) }");
+            final Set<URI> ring = new HashSet<>();
+            try (QueryExecution e = QueryExecutionFactory.sparqlService(endpoint, query)) {
+                e.execSelect().forEachRemaining(b -> {
+                    final URI n = URI.create(b.getResource("n").getURI());
+                    if (visited.add(n)) {
+                        ring.add(n);
+                    }
+                });
+            }
+            rings.add(ring);
+        }
+        return rings;
+    }
+
+    /**
+     * Fetches the neighbourhood of the terms from the given contexts of the repository.
+     *
+     * @param endpoint SPARQL endpoint of the repository
+     * @param contexts IRIs of the vocabulary contexts
+     * @param terms    IRIs of the terms
+     * @return neighbourhood of the terms, empty if there are no contexts or terms
+     */
+    public static Model fetch(final String endpoint,
+                              final Collection<String> contexts,
+                              final Collection<URI> terms) {
+        if (contexts.isEmpty() || terms.isEmpty()) {
+            return ModelFactory.createDefaultModel();
+        }
+        final Query query = createQuery(contexts, terms);
+        log.debug("- getting the neighbourhood of {} terms using query {}", terms.size(), query);
+        try (QueryExecution e = QueryExecutionFactory.sparqlService(endpoint, query)) {
+            return e.execConstruct();
+        }
+    }
+}
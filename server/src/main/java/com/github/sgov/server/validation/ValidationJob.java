@@ -0,0 +1,104 @@
+package com.github.sgov.server.validation;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import lombok.Getter;
+import org.topbraid.shacl.validation.ValidationReport;
+
+/**
+ * Validation of a workspace running in the background.
+ *
+ * <p>The job tracks the progress of the individual vocabulary contexts and keeps the final report
+ * once the validation is finished.
+ */
+@Getter
+public class ValidationJob implements ValidationListener {
+
+    /**
+     * State of the job.
+     */
+    public enum Status {
+        QUEUED, RUNNING, FINISHED, FAILED
+    }
+
+    /**
+     * State of a vocabulary context within the job.
+     */
+    public enum ContextStatus {
+        PENDING, VALIDATED
+    }
+
+    private final String id;
+
+    private final URI workspace;
+
+    private final ValidationOptions options;
+
+    private final Map<URI, ContextStatus> contexts = new ConcurrentSkipListMap<>();
+
+    private volatile Status status = Status.QUEUED;
+
+    private volatile String error;
+
+    @JsonIgnore
+    private volatile ValidationReport report;
+
+    /**
+     * Creates a queued job.
+     *
+     * @param id        job identifier
+     * @param workspace IRI of the workspace to validate
+     * @param options   validation options
+     */
+    public ValidationJob(String id, URI workspace, ValidationOptions options) {
+        this.id = id;
+        this.workspace = workspace;
+        this.options = options;
+    }
+
+    /**
+     * Returns whether the workspace conforms, or {@code null} if the job is not finished.
+     */
+    public Boolean getConforms() {
+        final ValidationReport r = report;
+        return r == null ? null : r.conforms();
+    }
+
+    @JsonIgnore
+    public boolean isDone() {
+        return status == Status.FINISHED || status == Status.FAILED;
+    }
+
+    public void start() {
+        status = Status.RUNNING;
+    }
+
+    /**
+     * Marks the job as finished with the given report.
+     */
+    public void finish(ValidationReport report) {
+        this.report = report;
+        status = Status.FINISHED;
+    }
+
+    /**
+     * Marks the job as failed with the given error.
+     */
+    public void fail(Throwable e) {
+        this.error = e.getMessage();
+        status = Status.FAILED;
+    }
+
+    @Override
+    public void validationStarted(List<URI> contexts) {
+        contexts.forEach(c -> this.contexts.put(c, ContextStatus.PENDING));
+    }
+
+    @Override
+    public void contextValidated(URI context, ValidationReport report) {
+        contexts.put(context, ContextStatus.VALIDATED);
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.List;
+import org.topbraid.shacl.validation.ValidationReport;
+
+/**
+ * Receives the reports of the individual vocabulary contexts while a workspace is validated.
+ *
+ * <p>Contexts are validated concurrently, so the listener may be called from several threads.
+ */
+@FunctionalInterface
+public interface ValidationListener {
+
+    /**
+     * Listener which ignores all reports.
+     */
+    ValidationListener NONE = (context, report) -> {
+    };
+
+    /**
+     * Called before the validation of the vocabulary contexts starts.
+     *
+     * @param contexts IRIs of all vocabulary contexts to be validated
+     */
+    default void validationStarted(List<URI> contexts) {
+    }
+
+    /**
+     * Called once a phase of the validation is completed.
+     *
+     * @param phase   validation phase
+     * @param context vocabulary context IRI, or null if the phase covers several contexts
+     * @param nanos   duration of the phase in nanoseconds
+     */
+    default void phaseCompleted(ValidationPhase phase, URI context, long nanos) {
+    }
+
+    /**
+     * Called once the given vocabulary context is validated.
+     *
+     * @param context vocabulary context IRI
+     * @param report  report of the vocabulary context
+     */
+    void contextValidated(URI context, ValidationReport report);
+
+    /**
+     * Returns a listener which notifies this listener and then the given one.
+     *
+     * @param next listener to notify after this one
+     * @return composed listener
+     */
+    default ValidationListener andThen(ValidationListener next) {
+        final ValidationListener first = this;
+        return new ValidationListener() {
+            @Override
+            public void validationStarted(List<URI> contexts) {
+                first.validationStarted(contexts);
+                next.validationStarted(contexts);
+            }
+
+            @Override
+            public void phaseCompleted(ValidationPhase phase, URI context, long nanos) {
+                first.phaseCompleted(phase, context, nanos);
+                next.phaseCompleted(phase, context, nanos);
+            }
+
+            @Override
+            public void contextValidated(URI context, ValidationReport report) {
+                first.contextValidated(context, report);
+                next.contextValidated(context, report);
+            }
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Validation metrics published through the actuator metrics endpoint.
+ *
+ * <p>The duration of each {@link ValidationPhase} is recorded in the
+ * {@value #PHASE_TIMER} timer, tagged by the phase. The sizes of the validated vocabulary contexts
+ * are recorded in the {@value #TRIPLES_SUMMARY} summary, tagged by the stage ({@code fetched} or
+ * {@code inferred}). The duration of each term validation is recorded in the {@value #TERM_TIMER}
+ * timer, with its percentiles and the count of the validations within the latency target.
+ */
+@Component
+public class ValidationMetrics {
+
+    public static final String PHASE_TIMER = "sgov.validation.phase";
+
+    public static final String TRIPLES_SUMMARY = "sgov.validation.triples";
+
+    public static final String TERM_TIMER = "sgov.validation.terms";
+
+    private final Map<ValidationPhase, Timer> timers = new EnumMap<>(ValidationPhase.class);
+
+    private final DistributionSummary fetchedTriples;
+
+    private final DistributionSummary inferredTriples;
+
+    private final Timer termTimer;
+
+    /**
+     * Registers the validation metrics.
+     */
+    public ValidationMetrics(final MeterRegistry meterRegistry,
+                             final ValidationConf validationConf) {
+        for (ValidationPhase phase : ValidationPhase.values()) {
+            timers.put(phase, phaseTimer(meterRegistry, phase));
+        }
+        this.fetchedTriples = triplesSummary(meterRegistry, "fetched");
+        this.inferredTriples = triplesSummary(meterRegistry, "inferred");
+        this.termTimer = Timer.builder(TERM_TIMER)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .serviceLevelObjectives(validationConf.getTermLatencyTarget())
+            .register(meterRegistry);
+    }
+
+    private static DistributionSummary triplesSummary(final MeterRegistry meterRegistry,
+                                                      final String stage) {
+        return DistributionSummary.builder(TRIPLES_SUMMARY)
+            .baseUnit("triples")
+            .tag("stage", stage)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the timer of the given phase in the given registry.
+     *
+     * @param meterRegistry registry of the timer
+     * @param phase         validation phase
+     * @return timer of the phase
+     */
+    public static Timer phaseTimer(final MeterRegistry meterRegistry,
+                                   final ValidationPhase phase) {
+        return Timer.builder(PHASE_TIMER)
+            .tag("phase", phase.getName())
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the timer of the given phase in the global registry, for the components which are
+     * not managed by Spring.
+     *
+     * @param phase validation phase
+     * @return timer of the phase
+     */
+    public static Timer phaseTimer(final ValidationPhase phase) {
+        return phaseTimer(Metrics.globalRegistry, phase);
+    }
+
+    public void recordPhase(final ValidationPhase phase, final long nanos) {
+        timers.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFetchedTriples(final long triples) {
+        fetchedTriples.record(triples);
+    }
+
+    public void recordInferredTriples(final long triples) {
+        inferredTriples.record(triples);
+    }
+
+    public void recordTermValidation(final long nanos) {
+        termTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * Options of a single workspace validation.
+ */
+@Data
+@Accessors(chain = true)
+public class ValidationOptions {
+
+    /**
+     * Whether only the nodes changed since the last validation of each vocabulary context should
+     * be validated again, reusing the rest of the last report.
+     */
+    private boolean incremental;
+
+    /**
+     * Rule groups to validate, all of them if empty.
+     */
+    private Set<RuleGroup> ruleGroups = EnumSet.allOf(RuleGroup.class);
+
+    /**
+     * IRIs of the vocabulary contexts to validate, all contexts of the workspace if empty.
+     */
+    private Set<URI> contexts = Collections.emptySet();
+
+    /**
+     * Whether the validation runs in the background, by the low priority threads reserved for
+     * it, so that it does not hold up the interactive validations.
+     */
+    private boolean background;
+
+    /**
+     * Returns whether only some of the rule groups or some of the vocabulary contexts are
+     * validated.
+     *
+     * @return whether the validation is restricted
+     */
+    public boolean isPartial() {
+        return !contexts.isEmpty()
+            || !(ruleGroups.isEmpty() || ruleGroups.containsAll(EnumSet.allOf(RuleGroup.class)));
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.sgov.server.validation;
+
+import java.util.Locale;
+
+/**
+ * Phases of the validation of a workspace.
+ */
+public enum ValidationPhase {
+
+    /**
+     * Computing the digests of the vocabulary contexts in the triple store.
+     */
+    DIGEST,
+
+    /**
+     * Fetching the vocabulary data from the triple store.
+     */
+    FETCH,
+
+    /**
+     * Applying the inference to the vocabulary data.
+     */
+    INFERENCE,
+
+    /**
+     * Running the SHACL rules.
+     */
+    SHACL,
+
+    /**
+     * Writing the validation report.
+     */
+    SERIALIZE;
+
+    /**
+     * Returns the name of the phase used in metrics and headers.
+     */
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+import org.topbraid.shacl.validation.ValidationReport;
+
+/**
+ * Size-bounded cache of vocabulary context validation reports.
+ *
+ * <p>Validation is deterministic for the given data and rules, so the reports are keyed by the
+ * digest of the vocabulary context content and by the version of the rules. The least recently
+ * used reports are evicted first.
+ */
+@Component
+public class ValidationReportCache {
+
+    private final Map<Key, ValidationReport> reports;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    /**
+     * Creates the cache.
+     */
+    public ValidationReportCache(final ValidationConf validationConf,
+                                 final MeterRegistry meterRegistry) {
+        final int maxSize = validationConf.getCacheSize();
+        this.reports = new LinkedHashMap<Key, ValidationReport>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, ValidationReport> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hits = meterRegistry.counter("sgov.validation.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("sgov.validation.cache.requests", "result", "miss");
+        meterRegistry.gaugeMapSize("sgov.validation.cache.size", Collections.emptyList(),
+            reports);
+    }
+
+    /**
+     * Returns whether a report for the given content and rules is cached.
+     *
+     * @param digest       digest of the validated content
+     * @param rulesVersion version of the rules
+     * @return true if the report is cached
+     */
+    public boolean contains(final String digest, final String rulesVersion) {
+        synchronized (reports) {
+            return reports.containsKey(new Key(digest, rulesVersion));
+        }
+    }
+
+    /**
+     * Returns the cached report for the given content and rules, computing and caching it if
+     * absent.
+     *
+     * @param digest       digest of the validated content
+     * @param rulesVersion version of the rules
+     * @param validation   computes the report if it is not cached
+     * @return validation report
+     */
+    public ValidationReport get(final String digest,
+                                final String rulesVersion,
+                                final Supplier<ValidationReport> validation) {
+        final Key key = new Key(digest, rulesVersion);
+        ValidationReport report;
+        synchronized (reports) {
+            report = reports.get(key);
+        }
+        if (report != null) {
+            hits.increment();
+            return report;
+        }
+        misses.increment();
+        report = validation.get();
+        synchronized (reports) {
+            reports.put(key, report);
+        }
+        return report;
+    }
+
+    @Value
+    private static class Key {
+
+        String digest;
+
+        String rulesVersion;
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * Results of the last validation report of a workspace added and removed since a previous
+ * version of the report. The removed results are to be applied before the added ones, as a
+ * result may be removed and added again.
+ */
+@Data
+@Accessors(chain = true)
+public class ValidationReportDelta {
+
+    private URI workspace;
+
+    /**
+     * Version the delta is computed since.
+     */
+    private long since;
+
+    /**
+     * Version of the last report.
+     */
+    private long version;
+
+    /**
+     * Whether the delta could not be computed since the version, all the results of the report
+     * are then added.
+     */
+    private boolean complete;
+
+    private boolean conforms;
+
+    private List<StoredValidationResult> added;
+
+    private List<StoredValidationResult> removed;
+}
@@ -0,0 +1,59 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.ValidationResultSeverityComparator;
+import java.net.URI;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+
+/**
+ * Records the reports of the individual vocabulary contexts, so that the results of the workspace
+ * report can be stored together with the contexts they come from.
+ */
+public class ValidationReportRecorder implements ValidationListener {
+
+    private final Map<URI, ValidationReport> reports = new ConcurrentHashMap<>();
+
+    private volatile List<URI> contexts = Collections.emptyList();
+
+    @Override
+    public void validationStarted(final List<URI> contexts) {
+        this.contexts = new ArrayList<>(contexts);
+    }
+
+    @Override
+    public void contextValidated(final URI context, final ValidationReport report) {
+        reports.put(context, report);
+    }
+
+    /**
+     * Creates the stored form of the workspace report. The results are ordered as in the
+     * workspace report, by vocabulary context and then by severity.
+     *
+     * @param workspace IRI of the validated workspace
+     * @param options   options the workspace was validated with
+     * @param report    report of the workspace
+     * @return report to store
+     */
+    public StoredValidationReport toStoredReport(final URI workspace,
+                                                 final ValidationOptions options,
+                                                 final ValidationReport report) {
+        final List<Map.Entry<URI, ValidationResult>> results = new ArrayList<>();
+        contexts.stream().filter(reports::containsKey).forEach(c -> reports.get(c).results()
+            .forEach(r -> results.add(new AbstractMap.SimpleEntry<>(c, r))));
+        results.sort(Comparator.comparing(Map.Entry::getValue,
+            new ValidationResultSeverityComparator()));
+        return new StoredValidationReport(workspace, options, new LinkedHashSet<>(contexts),
+            report.conforms(), results.stream()
+            .map(e -> StoredValidationResult.of(e.getKey(), e.getValue()))
+            .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.sgov.server.validation;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sgov.server.config.conf.ValidationConf;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Keeps the last validation report of each workspace.
+ *
+ * <p>The reports are written as gzipped JSON files, one per workspace, so that they survive a
+ * restart. The most recently used reports are also kept in memory. Each saved report becomes
+ * the next version of the last report of its workspace.
+ */
+@Slf4j
+@Component
+public class ValidationReportStore {
+
+    private static final String FILE_EXTENSION = ".json.gz";
+
+    private final Path directory;
+
+    private final ObjectMapper mapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Map<URI, StoredValidationReport> reports;
+
+    private final int history;
+
+    /**
+     * Creates the store.
+     */
+    public ValidationReportStore(final ValidationConf validationConf) {
+        this.directory = Paths.get(validationConf.getReportDirectory());
+        this.history = validationConf.getReportHistory();
+        final int maxSize = validationConf.getStoredReports();
+        this.reports = Collections.synchronizedMap(
+            new LinkedHashMap<URI, StoredValidationReport>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                    Map.Entry<URI, StoredValidationReport> eldest) {
+                    return size() > maxSize;
+                }
+            });
+    }
+
+    private Path getFile(final URI workspace) {
+        return directory.resolve(DigestUtils.md5DigestAsHex(
+            workspace.toString().getBytes(StandardCharsets.UTF_8)) + FILE_EXTENSION);
+    }
+
+    /**
+     * Stores the report as the last report of its workspace, following the previous one. A report
+     * which cannot be written to disk is kept in memory only.
+     *
+     * @param report report to store
+     */
+    public synchronized void save(final StoredValidationReport report) {
+        report.succeed(find(report.getWorkspace()).orElse(null), history);
+        reports.put(report.getWorkspace(), report);
+        final Path file = getFile(report.getWorkspace());
+        try {
+            Files.createDirectories(directory);
+            final Path tmp = Files.createTempFile(directory, "report-", FILE_EXTENSION);
+            try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                mapper.writeValue(os, report);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Unable to write the validation report of {} to {}",
+                report.getWorkspace(), file, e);
+        }
+    }
+
+    /**
+     * Returns the last report of the given workspace.
+     *
+     * @param workspace IRI of the workspace
+     * @return last report, or empty if the workspace was not validated yet
+     */
+    public Optional<StoredValidationReport> find(final URI workspace) {
+        final StoredValidationReport report = reports.get(workspace);
+        if (report != null) {
+            return Optional.of(report);
+        }
+        final Path file = getFile(workspace);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try (InputStream is = new GZIPInputStream(Files.newInputStream(file))) {
+            final StoredValidationReport read =
+                mapper.readValue(is, StoredValidationReport.class);
+            reports.putIfAbsent(workspace, read);
+            return Optional.of(read);
+        } catch (IOException e) {
+            log.warn("Unable to read the validation report of {} from {}", workspace, file, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Removes the last report of the given workspace.
+     *
+     * @param workspace IRI of the workspace
+     */
+    public void remove(final URI workspace) {
+        reports.remove(workspace);
+        try {
+            Files.deleteIfExists(getFile(workspace));
+        } catch (IOException e) {
+            log.warn("Unable to delete the validation report of {}", workspace, e);
+        }
+    }
+}
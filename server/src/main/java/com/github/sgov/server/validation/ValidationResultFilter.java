@@ -0,0 +1,33 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Set;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * Filter of the results of a stored validation report. Empty sets match all results, values
+ * within a set are alternatives.
+ */
+@Data
+@Accessors(chain = true)
+public class ValidationResultFilter {
+
+    /**
+     * IRIs of the severities.
+     */
+    private Set<String> severities = Collections.emptySet();
+
+    /**
+     * IRIs of the shapes.
+     */
+    private Set<String> shapes = Collections.emptySet();
+
+    private Set<String> focusNodes = Collections.emptySet();
+
+    /**
+     * IRIs of the vocabulary contexts.
+     */
+    private Set<URI> contexts = Collections.emptySet();
+}
@@ -0,0 +1,64 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import org.topbraid.shacl.validation.ValidationReport;
+
+/**
+ * Collects the durations of the validation phases of a single workspace validation.
+ *
+ * <p>Vocabulary contexts are validated concurrently, so the duration of a phase is the sum over
+ * all the contexts and can exceed the wall-clock time of the validation.
+ */
+public class ValidationTimings implements ValidationListener {
+
+    private final Map<ValidationPhase, LongAdder> durations =
+        new EnumMap<>(ValidationPhase.class);
+
+    private final long start = System.nanoTime();
+
+    /**
+     * Creates empty timings, starting the wall-clock time.
+     */
+    public ValidationTimings() {
+        Arrays.stream(ValidationPhase.values()).forEach(p -> durations.put(p, new LongAdder()));
+    }
+
+    @Override
+    public void phaseCompleted(ValidationPhase phase, URI context, long nanos) {
+        durations.get(phase).add(nanos);
+    }
+
+    @Override
+    public void contextValidated(URI context, ValidationReport report) {
+    }
+
+    /**
+     * Returns the total duration of the given phase in nanoseconds.
+     */
+    public long getDuration(ValidationPhase phase) {
+        return durations.get(phase).sum();
+    }
+
+    /**
+     * Returns the timings formatted as the value of the {@code Server-Timing} HTTP header. The
+     * {@code total} metric holds the wall-clock time since the timings were created.
+     */
+    public String toServerTiming() {
+        final String phases = durations.entrySet().stream()
+            .filter(e -> e.getValue().sum() > 0)
+            .map(e -> metric(e.getKey().getName(), e.getValue().sum()))
+            .collect(Collectors.joining(", "));
+        final String total = metric("total", System.nanoTime() - start);
+        return phases.isEmpty() ? total : phases + ", " + total;
+    }
+
+    private static String metric(final String name, final long nanos) {
+        return String.format(Locale.ROOT, "%s;dur=%.1f", name, nanos / 1e6);
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.util.Vocabulary;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.Value;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Vocabularies imported by the vocabularies of a vocabulary context, as stated in the context
+ * itself, e.g. in a workspace.
+ */
+@Value
+public class VocabularyImports {
+
+    /**
+     * IRI of the property linking a vocabulary to the vocabulary it imports.
+     */
+    public static final String IMPORTS = Vocabulary.DATA_DESCRIPTION_NAMESPACE
+        + "importuje-slovník";
+
+    public static final VocabularyImports NONE =
+        new VocabularyImports(Collections.emptySet(), Collections.emptySet());
+
+    /**
+     * IRIs of the importing vocabularies.
+     */
+    Set<URI> vocabularies;
+
+    /**
+     * IRIs of the vocabularies they import directly.
+     */
+    Set<URI> imports;
+
+    /**
+     * Returns the imports stated in the given model, e.g. of a vocabulary context.
+     *
+     * @param model model stating the imports
+     * @return imports of the vocabularies of the model
+     */
+    public static VocabularyImports of(final Model model) {
+        final Set<URI> vocabularies = new HashSet<>();
+        final Set<URI> imports = new HashSet<>();
+        model.listStatements(null, model.createProperty(IMPORTS), (RDFNode) null)
+            .filterKeep(st -> st.getSubject().isURIResource()
+                && st.getObject().isURIResource())
+            .forEachRemaining(st -> {
+                vocabularies.add(URI.create(st.getSubject().getURI()));
+                imports.add(URI.create(st.getResource().getURI()));
+            });
+        return new VocabularyImports(vocabularies, imports);
+    }
+
+    /**
+     * Merges the given imports, e.g. of several vocabulary contexts.
+     *
+     * @param imports imports to merge
+     * @return imports of all the vocabularies
+     */
+    public static VocabularyImports merge(final Collection<VocabularyImports> imports) {
+        final Set<URI> vocabularies = new HashSet<>();
+        final Set<URI> imported = new HashSet<>();
+        imports.forEach(i -> {
+            vocabularies.addAll(i.getVocabularies());
+            imported.addAll(i.getImports());
+        });
+        return new VocabularyImports(vocabularies, imported);
+    }
+
+    /**
+     * Whether no vocabulary is imported.
+     *
+     * @return true if there are no imports
+     */
+    public boolean isEmpty() {
+        return imports.isEmpty();
+    }
+
+    /**
+     * Returns a digest of the imports, independent of their order.
+     *
+     * @return hexadecimal digest
+     */
+    public String getDigest() {
+        return DigestUtils.md5DigestAsHex(imports.stream().map(URI::toString).sorted()
+            .collect(Collectors.joining(" ")).getBytes(StandardCharsets.UTF_8));
+    }
+}
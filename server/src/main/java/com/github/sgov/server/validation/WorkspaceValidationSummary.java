@@ -0,0 +1,36 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.Map;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * Outcome of the last background validation of a workspace.
+ */
+@Data
+@Accessors(chain = true)
+public class WorkspaceValidationSummary {
+
+    private URI workspace;
+
+    private Date validated;
+
+    private long durationMillis;
+
+    /**
+     * Whether the workspace conforms, null if the validation failed.
+     */
+    private Boolean conforms;
+
+    /**
+     * Number of results of each severity, keyed by severity IRI.
+     */
+    private Map<String, Integer> severities;
+
+    /**
+     * Error message of the failed validation.
+     */
+    private String error;
+}
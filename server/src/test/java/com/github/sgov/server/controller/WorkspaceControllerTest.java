@@ -1,31 +1,62 @@
 package com.github.sgov.server.controller;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.sgov.server.exception.NotFoundException;
+import com.github.sgov.server.exception.PublicationRejectedException;
 import com.github.sgov.server.model.Workspace;
+import com.github.sgov.server.service.FleetValidationService;
+import com.github.sgov.server.service.ValidationJobService;
 import com.github.sgov.server.service.WorkspaceService;
+import com.github.sgov.server.validation.BasicValidationReport;
+import com.github.sgov.server.validation.FleetValidationSummary;
+import com.github.sgov.server.validation.RuleGroup;
+import com.github.sgov.server.validation.StoredValidationResult;
+import com.github.sgov.server.validation.ValidationJob;
+import com.github.sgov.server.validation.ValidationListener;
+import com.github.sgov.server.validation.ValidationOptions;
+import com.github.sgov.server.validation.ValidationReportDelta;
+import com.github.sgov.server.validation.ValidationResultFilter;
+import com.github.sgov.server.validation.WorkspaceValidationSummary;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 import org.topbraid.shacl.validation.ValidationReport;
 import org.topbraid.shacl.validation.ValidationResult;
+import org.topbraid.shacl.vocabulary.SH;
 
 class WorkspaceControllerTest extends BaseControllerTestRunner {
 
@@ -34,6 +65,10 @@ class WorkspaceControllerTest extends BaseControllerTestRunner {
     private WorkspaceController sut;
     @Mock
     private WorkspaceService workspaceService;
+    @Mock
+    private ValidationJobService validationJobService;
+    @Mock
+    private FleetValidationService fleetValidationService;
 
     private ValidationReport report;
 
@@ -80,20 +115,55 @@ class WorkspaceControllerTest extends BaseControllerTestRunner {
             .andExpect(jsonPath("$[1].uri", is("http://example.org/test2")));
     }
 
+    @Test
+    void getValidationSummaryReturnsWorkspaceSummaries() throws Exception {
+        BDDMockito.given(fleetValidationService.getSummary()).willReturn(
+            new FleetValidationSummary().setConcurrencyLimit(2).setWorkspaces(
+                Collections.singletonList(new WorkspaceValidationSummary()
+                    .setWorkspace(workspaceUri).setConforms(false))));
+
+        mockMvc.perform(get("/workspaces/validation-summary"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.concurrencyLimit", is(2)))
+            .andExpect(jsonPath("$.workspaces[0].workspace", is(workspaceUri.toString())))
+            .andExpect(jsonPath("$.workspaces[0].conforms", is(false)));
+    }
+
     @Test
     void validateWithIriSucceeds() throws Exception {
-        BDDMockito.given(workspaceService.validate(any()))
+        BDDMockito.given(workspaceService.validate(any(), any(), any()))
             .willReturn(report);
 
         mockMvc.perform(get("/workspaces/test/validate")
             .param("namespace", "http://example.org/")
             .header("Accept-language", "cs"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Server-Timing", containsString("total;dur=")));
+    }
+
+    @Test
+    void validatePassesSelectedRuleGroupsAndContexts() throws Exception {
+        BDDMockito.given(workspaceService.validate(any(), any(), any()))
+            .willReturn(report);
+
+        mockMvc.perform(get("/workspaces/test/validate")
+            .param("namespace", "https://example.org/")
+            .param("rules", "GLOSSARY")
+            .param("contexts", "https://example.org/context")
+            .header("Accept-language", "cs"))
             .andExpect(status().isOk());
+
+        final ArgumentCaptor<ValidationOptions> options =
+            ArgumentCaptor.forClass(ValidationOptions.class);
+        Mockito.verify(workspaceService).validate(eq(workspaceUri), options.capture(), any());
+        Assertions.assertEquals(EnumSet.of(RuleGroup.GLOSSARY), options.getValue().getRuleGroups());
+        Assertions.assertEquals(Collections.singleton(URI.create("https://example.org/context")),
+            options.getValue().getContexts());
     }
 
     @Test
     void validateWithNonExistingIriReturns404() throws Exception {
-        BDDMockito.given(workspaceService.validate(workspaceUri))
+        BDDMockito.given(workspaceService.validate(eq(workspaceUri), any(), any()))
             .willThrow(new NotFoundException(""));
 
         mockMvc.perform(get("/workspaces/test/validate")
@@ -102,6 +172,181 @@ class WorkspaceControllerTest extends BaseControllerTestRunner {
             .andExpect(status().is4xxClientError());
     }
 
+    @Test
+    void validateTermsPassesTermsAndReturnsServerTiming() throws Exception {
+        BDDMockito.given(workspaceService.validateTerms(any(), any(), any(), any()))
+            .willReturn(report);
+
+        mockMvc.perform(get("/workspaces/test/validate/terms")
+            .param("namespace", "https://example.org/")
+            .param("terms", "https://example.org/term-1", "https://example.org/term-2")
+            .header("Accept-language", "cs"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Server-Timing", containsString("total;dur=")));
+
+        Mockito.verify(workspaceService).validateTerms(eq(workspaceUri),
+            eq(new HashSet<>(Arrays.asList(URI.create("https://example.org/term-1"),
+                URI.create("https://example.org/term-2")))), any(), any());
+    }
+
+    @Test
+    void validateTermsWithoutTermsReturns400() throws Exception {
+        mockMvc.perform(get("/workspaces/test/validate/terms")
+            .param("namespace", "https://example.org/")
+            .header("Accept-language", "cs"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void validateStreamingWritesResultsPerContextAndSummary() throws Exception {
+        final ValidationResult result = Mockito.mock(ValidationResult.class);
+        final Model model = ModelFactory.createDefaultModel();
+        Mockito.when(result.getSeverity()).thenReturn(SH.Violation);
+        Mockito.when(result.getFocusNode())
+            .thenReturn(model.createResource("https://example.org/term"));
+        Mockito.when(result.getMessages()).thenReturn(Arrays.asList(
+            model.createLiteral("Chyba", "cs"), model.createLiteral("Error", "en")));
+        final ValidationReport contextReport =
+            new BasicValidationReport(false, Collections.singletonList(result));
+        final URI context = URI.create("https://example.org/context");
+        BDDMockito.given(workspaceService.validate(eq(workspaceUri), any(), any()))
+            .willAnswer(invocation -> {
+                invocation.<ValidationListener>getArgument(2)
+                    .contextValidated(context, contextReport);
+                return contextReport;
+            });
+
+        final MvcResult mvcResult = mockMvc.perform(get("/workspaces/test/validate/stream")
+            .param("namespace", "https://example.org/")
+            .header("Accept-language", "cs"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        final String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString().split("\n");
+
+        Assertions.assertEquals(2, lines.length);
+        final JsonNode line = objectMapper.readTree(lines[0]);
+        Assertions.assertEquals(context.toString(), line.get("context").asText());
+        Assertions.assertEquals("Chyba@cs", line.get("message").asText());
+        Assertions.assertEquals("https://example.org/term", line.get("focusNode").asText());
+        Assertions.assertFalse(objectMapper.readTree(lines[1]).get("conforms").asBoolean());
+    }
+
+    @Test
+    void submitValidationJobReturnsAcceptedJob() throws Exception {
+        final ValidationJob job = new ValidationJob("1", workspaceUri, new ValidationOptions());
+        BDDMockito.given(validationJobService.submit(eq(workspaceUri), any()))
+            .willReturn(job);
+
+        mockMvc.perform(post("/workspaces/test/validation-jobs")
+            .param("namespace", "https://example.org/"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.id", is("1")))
+            .andExpect(jsonPath("$.status", is("QUEUED")));
+    }
+
+    @Test
+    void getValidationJobReportOfRunningJobReturns404() throws Exception {
+        final ValidationJob job = new ValidationJob("1", workspaceUri, new ValidationOptions());
+        job.start();
+        BDDMockito.given(validationJobService.getJob("1")).willReturn(job);
+
+        mockMvc.perform(get("/workspaces/test/validation-jobs/1/report")
+            .param("namespace", "https://example.org/")
+            .header("Accept-language", "cs"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getValidationJobReportOfFinishedJobSucceeds() throws Exception {
+        final ValidationJob job = new ValidationJob("1", workspaceUri, new ValidationOptions());
+        job.finish(report);
+        BDDMockito.given(validationJobService.getJob("1")).willReturn(job);
+
+        mockMvc.perform(get("/workspaces/test/validation-jobs/1/report")
+            .param("namespace", "https://example.org/")
+            .header("Accept-language", "cs"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.conforms", is(true)));
+    }
+
+    @Test
+    void getValidationJobOfOtherWorkspaceReturns404() throws Exception {
+        final ValidationJob job = new ValidationJob("1", URI.create("https://example.org/other"),
+            new ValidationOptions());
+        BDDMockito.given(validationJobService.getJob("1")).willReturn(job);
+
+        mockMvc.perform(get("/workspaces/test/validation-jobs/1")
+            .param("namespace", "https://example.org/"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getLastValidationResultsPassesFilterAndPage() throws Exception {
+        final StoredValidationResult result = new StoredValidationResult(
+            URI.create("https://example.org/context"), SH.Violation.getURI(), null,
+            "https://example.org/term", null, null, Collections.singletonMap("cs", "Chyba"));
+        BDDMockito.given(workspaceService.findValidationResults(eq(workspaceUri), any(), any()))
+            .willReturn(new PageImpl<>(Collections.singletonList(result), PageRequest.of(2, 10),
+                21));
+
+        mockMvc.perform(get("/workspaces/test/validation-report/results")
+            .param("namespace", "https://example.org/")
+            .param("severity", "Violation")
+            .param("context", "https://example.org/context")
+            .param("page", "2")
+            .param("size", "10")
+            .header("Accept-language", "cs"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements", is(21)))
+            .andExpect(jsonPath("$.content[0].message", is("Chyba")))
+            .andExpect(jsonPath("$.content[0].focusNode", is("https://example.org/term")));
+
+        final ArgumentCaptor<ValidationResultFilter> filter =
+            ArgumentCaptor.forClass(ValidationResultFilter.class);
+        final ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        Mockito.verify(workspaceService).findValidationResults(eq(workspaceUri),
+            filter.capture(), pageable.capture());
+        Assertions.assertEquals(Collections.singleton(SH.Violation.getURI()),
+            filter.getValue().getSeverities());
+        Assertions.assertEquals(Collections.singleton(URI.create("https://example.org/context")),
+            filter.getValue().getContexts());
+        Assertions.assertTrue(filter.getValue().getShapes().isEmpty());
+        Assertions.assertEquals(PageRequest.of(2, 10), pageable.getValue());
+    }
+
+    @Test
+    void getLastValidationReportDeltaReturnsAddedAndRemovedResults() throws Exception {
+        final StoredValidationResult result = new StoredValidationResult(
+            URI.create("https://example.org/context"), SH.Violation.getURI(), null,
+            "https://example.org/term", null, null, Collections.singletonMap("cs", "Chyba"));
+        BDDMockito.given(workspaceService.getValidationReportDelta(workspaceUri, 3))
+            .willReturn(new ValidationReportDelta().setWorkspace(workspaceUri).setSince(3)
+                .setVersion(4).setAdded(Collections.singletonList(result))
+                .setRemoved(Collections.emptyList()));
+
+        mockMvc.perform(get("/workspaces/test/validation-report/delta")
+            .param("namespace", "https://example.org/")
+            .param("since", "3")
+            .header("Accept-language", "cs"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version", is(4)))
+            .andExpect(jsonPath("$.complete", is(false)))
+            .andExpect(jsonPath("$.added[0].message", is("Chyba")))
+            .andExpect(jsonPath("$.removed", hasSize(0)));
+    }
+
+    @Test
+    void getLastValidationReportOfNotValidatedWorkspaceReturns404() throws Exception {
+        BDDMockito.given(workspaceService.getLastValidationReport(workspaceUri))
+            .willThrow(new NotFoundException(""));
+
+        mockMvc.perform(get("/workspaces/test/validation-report")
+            .param("namespace", "https://example.org/"))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     void publishWithNonExistingIriReturns404() throws Exception {
         BDDMockito.given(workspaceService.publish(workspaceUri))
@@ -122,6 +367,29 @@ class WorkspaceControllerTest extends BaseControllerTestRunner {
             .andExpect(status().isCreated());
     }
 
+    @Test
+    void publishWithValidationPassesValidateFlag() throws Exception {
+        BDDMockito.given(workspaceService.publish(workspaceUri, true))
+            .willReturn(workspaceUri);
+
+        mockMvc.perform(post("/workspaces/test/publish")
+            .param("namespace", "https://example.org/")
+            .param("validate", "true"))
+            .andExpect(status().isCreated());
+        Mockito.verify(workspaceService).publish(workspaceUri, true);
+    }
+
+    @Test
+    void publishRejectedByValidationReturns409() throws Exception {
+        BDDMockito.given(workspaceService.publish(workspaceUri, true))
+            .willThrow(new PublicationRejectedException(""));
+
+        mockMvc.perform(post("/workspaces/test/publish")
+            .param("namespace", "https://example.org/")
+            .param("validate", "true"))
+            .andExpect(status().isConflict());
+    }
+
     @Test
     void getDependenciesRetrievesAllDependencies() throws Exception {
         final URI v1 = URI.create("https://example.org/1");
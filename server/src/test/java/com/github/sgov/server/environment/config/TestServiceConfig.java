@@ -2,6 +2,8 @@ package com.github.sgov.server.environment.config;
 
 import com.github.sgov.server.environment.Environment;
 import com.github.sgov.server.service.Services;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import org.springframework.boot.test.context.TestConfiguration;
@@ -49,6 +51,11 @@ public class TestServiceConfig {
         return new LocalValidatorFactoryBean();
     }
 
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
     @Bean
     public ClassPathResource languageSpecification() {
         return new ClassPathResource("languages/language.ttl");
@@ -0,0 +1,356 @@
+package com.github.sgov.server.persistence.dao;
+
+import com.github.sgov.server.ValidationResultSeverityComparator;
+import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.config.conf.ValidationConf;
+import com.github.sgov.server.dao.WorkspaceDao;
+import com.github.sgov.server.environment.Generator;
+import com.github.sgov.server.model.ChangeTrackingContext;
+import com.github.sgov.server.model.VocabularyContext;
+import com.github.sgov.server.model.Workspace;
+import com.github.sgov.server.model.util.DescriptorFactory;
+import com.github.sgov.server.persistence.PersistenceUtils;
+import com.github.sgov.server.service.repository.RepositoryClients;
+import com.github.sgov.server.util.Vocabulary;
+import com.github.sgov.server.validation.CompiledShapes;
+import com.github.sgov.server.validation.IncrementalValidationCache;
+import com.github.sgov.server.validation.InferenceMode;
+import com.github.sgov.server.validation.ReleasedVocabularyCache;
+import com.github.sgov.server.validation.ShapesRegistry;
+import com.github.sgov.server.validation.ValidationMetrics;
+import com.github.sgov.server.validation.ValidationOptions;
+import com.github.sgov.server.validation.ValidationReportCache;
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.EntityManagerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.apache.jena.fuseki.main.FusekiServer;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.system.Txn;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.jena.vocabulary.SKOS;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+
+class WorkspaceDaoTest {
+
+    private static final String ENDPOINT = "http://localhost:1243/ds";
+
+    private static final String VOCABULARY_1 = "https://example.org/slovník/test-1/pojem/";
+
+    private static final String VOCABULARY_2 = "https://example.org/slovník/test-2/pojem/";
+
+    private static final String Z_SGOV = "https://slovník.gov.cz/základní/pojem/";
+
+    private static final String[] VOCABULARIES = {
+        "vocabulary-1.ttl", "vocabulary-2.ttl", "vocabulary-1.ttl", "vocabulary-2.ttl"};
+
+    @TempDir
+    Path temporaryDirectory;
+
+    private static FusekiServer server;
+
+    private static Dataset dataset;
+
+    private CompiledShapes shapes;
+
+    private ValidationConf validationConf;
+
+    private MeterRegistry meterRegistry;
+
+    private final List<WorkspaceDao> daos = new ArrayList<>();
+
+    private WorkspaceDao sut;
+
+    private Workspace workspace;
+
+    @BeforeAll
+    static void startServer() {
+        dataset = DatasetFactory.createTxnMem();
+        server = FusekiServer.create().port(1243).add("/ds", dataset).build();
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        shapes = new CompiledShapes(read("shapes.ttl"), "test");
+        workspace = Generator.generateWorkspace();
+        for (String vocabulary : VOCABULARIES) {
+            final VocabularyContext context = new VocabularyContext();
+            context.setUri(Generator.generateUri());
+            context.setBasedOnVocabularyVersion(Generator.generateUri());
+            final ChangeTrackingContext changeTrackingContext = new ChangeTrackingContext();
+            changeTrackingContext.setUri(Generator.generateUri());
+            context.setChangeTrackingContext(changeTrackingContext);
+            workspace.addRefersToVocabularyContexts(context);
+            final Model model = read("vocabulary-schema.ttl").add(read(vocabulary));
+            Txn.executeWrite(dataset,
+                () -> dataset.addNamedModel(context.getUri().toString(), model));
+        }
+        validationConf = new ValidationConf();
+        validationConf.setBulkFetch(false);
+        validationConf.setReleasedImports(false);
+        validationConf.setTemporaryDirectory(temporaryDirectory.toString());
+        sut = createDao();
+    }
+
+    @AfterEach
+    void tearDown() {
+        daos.forEach(WorkspaceDao::shutdownValidationExecutor);
+    }
+
+    private WorkspaceDao createDao() {
+        final RepositoryConf repositoryConf = new RepositoryConf(null);
+        repositoryConf.setUrl(ENDPOINT);
+        repositoryConf.setReleaseSparqlEndpointUrl(ENDPOINT);
+        meterRegistry = new SimpleMeterRegistry();
+        final ShapesRegistry shapesRegistry = Mockito.mock(ShapesRegistry.class);
+        Mockito.when(shapesRegistry.getShapes()).thenReturn(shapes);
+        Mockito.when(shapesRegistry.getShapes(ArgumentMatchers.any())).thenReturn(shapes);
+        final RepositoryClients repositoryClients = Mockito.mock(RepositoryClients.class);
+        final WorkspaceDao dao = new WorkspaceDao(Mockito.mock(EntityManager.class),
+            new DescriptorFactory(new PersistenceUtils(Mockito.mock(EntityManagerFactory.class))),
+            repositoryConf, validationConf, shapesRegistry,
+            new IncrementalValidationCache(validationConf), new ValidationReportCache(validationConf,
+            meterRegistry), new ValidationMetrics(meterRegistry, validationConf),
+            new ReleasedVocabularyCache(repositoryConf, validationConf, meterRegistry,
+                repositoryClients), repositoryClients);
+        daos.add(dao);
+        return dao;
+    }
+
+    private static Model read(final String file) throws IOException {
+        final Model model = ModelFactory.createDefaultModel();
+        try (InputStream is = WorkspaceDaoTest.class
+            .getResourceAsStream("/validation/" + file)) {
+            model.read(is, null, "TTL");
+        }
+        return model;
+    }
+
+    private static List<String> describe(final List<ValidationResult> results) {
+        return results.stream().map(r -> r.getFocusNode() + " " + r.getPath() + " "
+            + r.getSeverity() + " " + r.getSourceShape() + " " + r.getMessages())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Validates the vocabulary contexts one after another, in the order of the workspace.
+     */
+    private List<ValidationResult> validateSequentially() {
+        final List<ValidationResult> results = new ArrayList<>();
+        for (VocabularyContext c : workspace.getVocabularyContexts()) {
+            final Model model = Txn.calculateRead(dataset, () -> ModelFactory.createDefaultModel()
+                .add(dataset.getNamedModel(c.getUri().toString())));
+            results.addAll(shapes.validate(InferenceMode.MATERIALIZATION.apply(model)).results());
+        }
+        results.sort(new ValidationResultSeverityComparator());
+        return results;
+    }
+
+    @Test
+    void validateWorkspaceMergesConcurrentReportsInOrderOfContexts() throws IOException {
+        validationConf.setThreads(VOCABULARIES.length);
+        final WorkspaceDao concurrent = createDao();
+
+        final ValidationReport report = concurrent.validateWorkspace(workspace);
+
+        Assertions.assertFalse(report.conforms());
+        Assertions.assertEquals(describe(validateSequentially()), describe(report.results()));
+    }
+
+    @Test
+    void validateWorkspaceGivesSameReportWithOneThread() throws IOException {
+        validationConf.setThreads(1);
+        final WorkspaceDao sequential = createDao();
+
+        Assertions.assertEquals(describe(sequential.validateWorkspace(workspace).results()),
+            describe(sut.validateWorkspace(workspace).results()));
+    }
+
+    @Test
+    void backgroundValidationRunsOnLowPriorityThreads() throws IOException {
+        final Set<Integer> priorities = ConcurrentHashMap.newKeySet();
+
+        final ValidationReport report = sut.validateWorkspace(workspace,
+            new ValidationOptions().setBackground(true),
+            (context, r) -> priorities.add(Thread.currentThread().getPriority()));
+
+        Assertions.assertEquals(Collections.singleton(Thread.MIN_PRIORITY), priorities);
+        Assertions.assertEquals(describe(validateSequentially()), describe(report.results()));
+    }
+
+    @Test
+    void validateWorkspaceValidatesOnlySelectedContexts() throws IOException {
+        final VocabularyContext selected = workspace.getVocabularyContexts().iterator().next();
+        final ValidationOptions options = new ValidationOptions()
+            .setContexts(Collections.singleton(selected.getUri()));
+
+        final ValidationReport report = sut.validateWorkspace(workspace, options);
+
+        final Model model = Txn.calculateRead(dataset, () -> ModelFactory.createDefaultModel()
+            .add(dataset.getNamedModel(selected.getUri().toString())));
+        Assertions.assertEquals(
+            shapes.validate(InferenceMode.MATERIALIZATION.apply(model)).results().size(),
+            report.results().size());
+    }
+
+    private boolean contains(final VocabularyContext context, final String term) {
+        return Txn.calculateRead(dataset, () -> dataset.getNamedModel(context.getUri().toString())
+            .containsResource(ResourceFactory.createResource(term)));
+    }
+
+    private VocabularyContext contextOf(final String vocabulary) {
+        return workspace.getVocabularyContexts().stream()
+            .filter(c -> contains(c, vocabulary + "osoba") || contains(c, vocabulary + "vozidlo"))
+            .findFirst().orElseThrow(IllegalStateException::new);
+    }
+
+    /**
+     * Edits the entity in the vocabulary context and records the change in its change tracking
+     * context.
+     */
+    private void edit(final VocabularyContext context, final String entity,
+                      final Consumer<Model> edit) {
+        Txn.executeWrite(dataset, () -> {
+            edit.accept(dataset.getNamedModel(context.getUri().toString()));
+            final Model changes =
+                dataset.getNamedModel(context.getChangeTrackingContext().getUri().toString());
+            changes.createResource()
+                .addProperty(changes.createProperty(Vocabulary.s_p_ma_zmenenou_entitu),
+                    changes.createResource(entity))
+                .addLiteral(changes.createProperty(Vocabulary.s_p_ma_datum_a_cas_modifikace),
+                    changes.createTypedLiteral(Calendar.getInstance()));
+        });
+    }
+
+    private ValidationReport validateIncrementally(final VocabularyContext context)
+        throws IOException {
+        return sut.validateWorkspace(workspace, new ValidationOptions().setIncremental(true)
+            .setContexts(Collections.singleton(context.getUri())));
+    }
+
+    private ValidationReport validateFully(final VocabularyContext context) throws IOException {
+        return createDao().validateWorkspace(workspace,
+            new ValidationOptions().setContexts(Collections.singleton(context.getUri())));
+    }
+
+    private double fetchedTriples() {
+        return meterRegistry.get(ValidationMetrics.TRIPLES_SUMMARY).tag("stage", "fetched")
+            .summary().totalAmount();
+    }
+
+    @Test
+    void incrementalValidationOfEditedEntityGivesSameReportAsFullValidation()
+        throws IOException {
+        final VocabularyContext context = contextOf(VOCABULARY_1);
+        validateIncrementally(context);
+        final long size = Txn.calculateRead(dataset,
+            () -> dataset.getNamedModel(context.getUri().toString()).size());
+        final String osoba = VOCABULARY_1 + "osoba";
+        edit(context, osoba, m -> m.removeAll(m.createResource(osoba), SKOS.prefLabel, null));
+        final double fetchedBefore = fetchedTriples();
+        final ValidationReport incremental = validateIncrementally(context);
+        final double fetched = fetchedTriples() - fetchedBefore;
+
+        Assertions.assertEquals(new HashSet<>(describe(validateFully(context).results())),
+            new HashSet<>(describe(incremental.results())));
+        Assertions.assertTrue(incremental.results().stream()
+            .anyMatch(r -> osoba.equals(r.getFocusNode().toString())));
+        Assertions.assertTrue(fetched > 0);
+        Assertions.assertTrue(fetched < size - 1, fetched + " of " + size + " triples fetched");
+    }
+
+    @Test
+    void incrementalValidationRevalidatesNodesPointingToEditedEntity() throws IOException {
+        final VocabularyContext context = contextOf(VOCABULARY_1);
+        validateIncrementally(context);
+        // the role řidič has the subkind fyzická osoba as its super kind, until it is no kind
+        final String fyzickaOsoba = VOCABULARY_1 + "fyzická-osoba";
+        edit(context, fyzickaOsoba, m -> m.removeAll(m.createResource(fyzickaOsoba), RDF.type,
+            m.createResource(Z_SGOV + "subkind")));
+        final ValidationReport incremental = validateIncrementally(context);
+
+        Assertions.assertEquals(new HashSet<>(describe(validateFully(context).results())),
+            new HashSet<>(describe(incremental.results())));
+        Assertions.assertTrue(incremental.results().stream()
+            .anyMatch(r -> (VOCABULARY_1 + "řidič").equals(r.getFocusNode().toString())));
+    }
+
+    @Test
+    void incrementalValidationReturnsLastReportWithoutChanges() throws IOException {
+        final VocabularyContext context = contextOf(VOCABULARY_2);
+        final ValidationReport first = validateIncrementally(context);
+
+        Assertions.assertEquals(describe(first.results()),
+            describe(validateIncrementally(context).results()));
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("sgov.validation.cache.requests").tag("result", "hit")
+            .counter().count();
+    }
+
+    @Test
+    void validateWorkspaceReusesReportOfContextWithSameContent() throws IOException {
+        validationConf.setThreads(1);
+        final WorkspaceDao sequential = createDao();
+
+        sequential.validateWorkspace(workspace);
+
+        // the second copies of the vocabularies
+        Assertions.assertEquals(2, cacheHits());
+    }
+
+    @Test
+    void validateWorkspaceDoesNotCacheReportsOfContextsWithBlankNodes() throws IOException {
+        workspace.getVocabularyContexts().stream()
+            .filter(c -> contains(c, VOCABULARY_1 + "osoba"))
+            .forEach(c -> Txn.executeWrite(dataset, () -> {
+                final Model m = dataset.getNamedModel(c.getUri().toString());
+                m.createResource(VOCABULARY_1 + "osoba").addProperty(RDFS.subClassOf,
+                    m.createResource().addProperty(OWL.onProperty,
+                        m.createResource(VOCABULARY_1 + "věk")));
+            }));
+        validationConf.setThreads(1);
+        final WorkspaceDao sequential = createDao();
+
+        sequential.validateWorkspace(workspace);
+
+        // only the second copy of the other vocabulary
+        Assertions.assertEquals(1, cacheHits());
+    }
+}
@@ -4,6 +4,7 @@ import com.github.sgov.server.config.conf.JwtConf;
 import com.github.sgov.server.config.conf.PersistenceConf;
 import com.github.sgov.server.config.conf.RepositoryConf;
 import com.github.sgov.server.config.conf.UserConf;
+import com.github.sgov.server.config.conf.ValidationConf;
 import com.github.sgov.server.config.conf.components.ComponentsProperties;
 import com.github.sgov.server.dao.VocabularyDao;
 import com.github.sgov.server.dao.WorkspaceDao;
@@ -11,6 +12,12 @@ import com.github.sgov.server.environment.TransactionalTestRunner;
 import com.github.sgov.server.environment.config.TestDescriptorFactory;
 import com.github.sgov.server.environment.config.TestPersistenceConfig;
 import com.github.sgov.server.environment.config.TestServiceConfig;
+import com.github.sgov.server.validation.IncrementalValidationCache;
+import com.github.sgov.server.validation.ReleasedVocabularyCache;
+import com.github.sgov.server.validation.ShapesRegistry;
+import com.github.sgov.server.validation.ValidationMetrics;
+import com.github.sgov.server.validation.ValidationReportCache;
+import com.github.sgov.server.validation.ValidationReportStore;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
@@ -32,9 +39,16 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
                 PersistenceConf.class,
                 RepositoryConf.class,
                 UserConf.class,
+                ValidationConf.class,
                 ComponentsProperties.class,
                 JwtConf.class,
-                TestDescriptorFactory.class
+                TestDescriptorFactory.class,
+                ShapesRegistry.class,
+                IncrementalValidationCache.class,
+                ValidationReportCache.class,
+                ValidationReportStore.class,
+                ValidationMetrics.class,
+                ReleasedVocabularyCache.class
         })
 @ActiveProfiles("test")
 public class BaseServiceTestRunner extends TransactionalTestRunner {
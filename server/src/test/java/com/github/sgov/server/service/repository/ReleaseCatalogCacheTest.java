@@ -0,0 +1,169 @@
+package com.github.sgov.server.service.repository;
+
+import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.service.repository.ReleaseCatalogCache.ReleasedVocabulary;
+import com.github.sgov.server.util.Vocabulary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.jena.fuseki.main.FusekiServer;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.system.Txn;
+import org.apache.jena.vocabulary.DCTerms;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReleaseCatalogCacheTest {
+
+    private static final String VOCABULARY = "https://example.org/slovník/";
+
+    private FusekiServer server;
+
+    private Dataset dataset;
+
+    private RepositoryConf repositoryConf;
+
+    private MeterRegistry meterRegistry;
+
+    private RepositoryClients repositoryClients;
+
+    @BeforeEach
+    void setUp() {
+        dataset = DatasetFactory.createTxnMem();
+        addVocabulary("b", "Slovník B");
+        addVocabulary("a", "Slovník A");
+        server = FusekiServer.create().port(1239).add("/ds", dataset).build();
+        server.start();
+        repositoryConf = new RepositoryConf(null);
+        repositoryConf.setReleaseSparqlEndpointUrl("http://localhost:1239/ds");
+        meterRegistry = new SimpleMeterRegistry();
+        repositoryClients = new RepositoryClients(repositoryConf, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositoryClients.shutDown();
+        server.stop();
+    }
+
+    private void addVocabulary(final String name, final String title) {
+        final Model model = ModelFactory.createDefaultModel();
+        final Resource vocabulary = model.createResource(VOCABULARY + name);
+        model.add(vocabulary, RDF.type, model.createResource(Vocabulary.s_c_slovnik));
+        model.add(vocabulary, DCTerms.title, model.createLiteral(title, "cs"));
+        model.add(vocabulary, DCTerms.title, model.createLiteral(title + " (en)", "en"));
+        Txn.executeWrite(dataset, () -> dataset.addNamedModel(vocabulary.getURI(), model));
+    }
+
+    private ReleaseCatalogCache createCache(final Duration ttl) {
+        repositoryConf.setReleaseCatalogTtl(ttl);
+        return new ReleaseCatalogCache(repositoryClients, repositoryConf, meterRegistry);
+    }
+
+    private double requests(final String result) {
+        return meterRegistry.counter("sgov.release.catalog.requests", "result", result).count();
+    }
+
+    private double lookups(final String source) {
+        return meterRegistry.counter("sgov.release.catalog.lookups", "source", source).count();
+    }
+
+    private static List<String> labels(final List<ReleasedVocabulary> vocabularies) {
+        return vocabularies.stream().map(ReleasedVocabulary::getLabel)
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    void getReturnsVocabulariesOrderedByLabelInGivenLanguage() {
+        final List<ReleasedVocabulary> vocabularies = createCache(Duration.ofHours(1)).get("cs");
+
+        Assertions.assertEquals(URI.create(VOCABULARY + "a"), vocabularies.get(0).getIri());
+        Assertions.assertEquals(Arrays.asList("Slovník A", "Slovník B"), labels(vocabularies));
+    }
+
+    @Test
+    void getReturnsAllLabelsWithoutLanguage() {
+        Assertions.assertEquals(4, createCache(Duration.ofHours(1)).get(null).size());
+    }
+
+    @Test
+    void getFetchesCatalogOncePerLanguage() {
+        final ReleaseCatalogCache sut = createCache(Duration.ofHours(1));
+
+        sut.get("cs");
+        sut.get("cs");
+        sut.get("en");
+
+        Assertions.assertEquals(2, requests("miss"));
+        Assertions.assertEquals(1, requests("hit"));
+    }
+
+    @Test
+    void getReturnsStaleCatalogAndRefreshesItInBackground() throws InterruptedException {
+        final ReleaseCatalogCache sut = createCache(Duration.ZERO);
+        sut.get("cs");
+        addVocabulary("c", "Slovník C");
+
+        Assertions.assertEquals(2, sut.get("cs").size());
+        for (int i = 0; i < 100 && sut.get("cs").size() == 2; i++) {
+            Thread.sleep(50);
+        }
+
+        Assertions.assertEquals(3, sut.get("cs").size());
+        Assertions.assertTrue(requests("stale") >= 2);
+        Assertions.assertEquals(1, requests("miss"));
+    }
+
+    @Test
+    void refreshFetchesCachedCatalogsAgain() {
+        final ReleaseCatalogCache sut = createCache(Duration.ofHours(1));
+        sut.get("cs");
+        addVocabulary("c", "Slovník C");
+
+        sut.refresh();
+
+        Assertions.assertEquals(Arrays.asList("Slovník A", "Slovník B", "Slovník C"),
+            labels(sut.get("cs")));
+        Assertions.assertEquals(1, requests("miss"));
+    }
+
+    @Test
+    void isReleasedAsksEndpointWhenCatalogIsNotCached() {
+        final ReleaseCatalogCache sut = createCache(Duration.ofHours(1));
+
+        Assertions.assertTrue(sut.isReleased(URI.create(VOCABULARY + "a")));
+        Assertions.assertFalse(sut.isReleased(URI.create(VOCABULARY + "x")));
+        Assertions.assertEquals(2, lookups("ask"));
+    }
+
+    @Test
+    void isReleasedLooksUpCachedCatalogOfAllLanguages() {
+        final ReleaseCatalogCache sut = createCache(Duration.ofHours(1));
+        sut.get(null);
+
+        Assertions.assertTrue(sut.isReleased(URI.create(VOCABULARY + "a")));
+        Assertions.assertEquals(1, lookups("index"));
+        Assertions.assertEquals(0, lookups("ask"));
+    }
+
+    @Test
+    void isReleasedAsksEndpointForVocabularyReleasedSinceCatalogWasCached() {
+        final ReleaseCatalogCache sut = createCache(Duration.ofHours(1));
+        sut.get(null);
+        addVocabulary("c", "Slovník C");
+
+        Assertions.assertTrue(sut.isReleased(URI.create(VOCABULARY + "c")));
+        Assertions.assertEquals(1, lookups("ask"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.sgov.server.service.repository;
+
+import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.event.ReleaseChangedEvent;
+import com.github.sgov.server.util.Vocabulary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.jena.fuseki.main.FusekiServer;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.system.Txn;
+import org.apache.jena.vocabulary.DCTerms;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReleaseWatcherTest {
+
+    private static final String VOCABULARY = "https://example.org/slovník/";
+
+    private FusekiServer server;
+
+    private Dataset dataset;
+
+    private RepositoryClients repositoryClients;
+
+    private final List<Object> events = new ArrayList<>();
+
+    private ReleaseWatcher sut;
+
+    @BeforeEach
+    void setUp() {
+        dataset = DatasetFactory.createTxnMem();
+        addVocabulary("a", "2021-01-01");
+        server = FusekiServer.create().port(1242).add("/ds", dataset).build();
+        server.start();
+        final RepositoryConf repositoryConf = new RepositoryConf(null);
+        repositoryConf.setReleaseSparqlEndpointUrl("http://localhost:1242/ds");
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        repositoryClients = new RepositoryClients(repositoryConf, meterRegistry);
+        sut = new ReleaseWatcher(repositoryClients, events::add, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositoryClients.shutDown();
+        server.stop();
+    }
+
+    private void addVocabulary(final String name, final String modified) {
+        final Model model = ModelFactory.createDefaultModel();
+        final Resource vocabulary = model.createResource(VOCABULARY + name);
+        model.add(vocabulary, RDF.type, model.createResource(Vocabulary.s_c_slovnik));
+        model.add(vocabulary, DCTerms.modified, modified);
+        Txn.executeWrite(dataset, () -> dataset.addNamedModel(vocabulary.getURI(), model));
+    }
+
+    @Test
+    void firstCheckOnlyRecordsFingerprint() {
+        Assertions.assertFalse(sut.check());
+        Assertions.assertNotNull(sut.getFingerprint());
+        Assertions.assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void checkPublishesEventForReleaseChangedSinceStartup() {
+        sut.checkOnStartup();
+        addVocabulary("b", "2021-01-01");
+
+        Assertions.assertTrue(sut.check());
+        Assertions.assertEquals(1, events.size());
+    }
+
+    @Test
+    void firstCheckPublishesEventIfReleaseWasNotCheckedAtStartup() {
+        server.stop();
+        sut.checkOnStartup();
+        server = FusekiServer.create().port(1242).add("/ds", dataset).build();
+        server.start();
+
+        Assertions.assertTrue(sut.check());
+        Assertions.assertEquals(1, events.size());
+    }
+
+    @Test
+    void checkPublishesNothingForUnchangedRelease() {
+        sut.check();
+
+        Assertions.assertFalse(sut.check());
+        Assertions.assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void checkPublishesEventForNewVocabulary() {
+        sut.check();
+        addVocabulary("b", "2021-01-01");
+
+        Assertions.assertTrue(sut.check());
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals(sut.getFingerprint(),
+            ((ReleaseChangedEvent) events.get(0)).getFingerprint());
+    }
+
+    @Test
+    void checkPublishesEventForModifiedVocabulary() {
+        sut.check();
+        Txn.executeWrite(dataset, () -> dataset.removeNamedModel(VOCABULARY + "a"));
+        addVocabulary("a", "2021-02-01");
+
+        Assertions.assertTrue(sut.check());
+        Assertions.assertFalse(sut.check());
+        Assertions.assertEquals(1, events.size());
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.sgov.server.service.repository;
+
+import com.github.sgov.server.config.conf.RepositoryConf;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.jena.fuseki.main.FusekiServer;
+import org.apache.jena.query.DatasetFactory;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sparql.SPARQLRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RepositoryClientsTest {
+
+    private static final String ENDPOINT = "http://localhost:1238/ds";
+
+    private static FusekiServer server;
+
+    private RepositoryConf repositoryConf;
+
+    private MeterRegistry meterRegistry;
+
+    private RepositoryClients sut;
+
+    @BeforeAll
+    static void startServer() {
+        server = FusekiServer.create().port(1238).add("/ds", DatasetFactory.create()).build();
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repositoryConf = new RepositoryConf(null);
+        repositoryConf.setReleaseSparqlEndpointUrl(ENDPOINT);
+        meterRegistry = new SimpleMeterRegistry();
+        sut = new RepositoryClients(repositoryConf, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.shutDown();
+    }
+
+    private double connections(final String state) {
+        return meterRegistry.get("sgov.repository.client.connections").tag("state", state)
+            .gauge().value();
+    }
+
+    @Test
+    void getReleaseRepositoryReturnsSharedRepository() {
+        Assertions.assertSame(sut.getReleaseRepository(), sut.getReleaseRepository());
+    }
+
+    @Test
+    void getReleaseRepositoryFollowsChangedEndpoint() {
+        final SPARQLRepository repository = sut.getReleaseRepository();
+
+        repositoryConf.setReleaseSparqlEndpointUrl("http://localhost:1238/other");
+
+        Assertions.assertNotSame(repository, sut.getReleaseRepository());
+    }
+
+    @Test
+    void closedConnectionsReturnHttpConnectionToPool() {
+        for (int i = 0; i < 3; i++) {
+            try (RepositoryConnection connection = sut.getReleaseRepository().getConnection()) {
+                Assertions.assertFalse(connection.prepareBooleanQuery("ASK {?s ?p ?o}")
+                    .evaluate());
+            }
+        }
+
+        Assertions.assertEquals(0, connections("leased"));
+        Assertions.assertEquals(1, connections("available"));
+    }
+
+    @Test
+    void shutDownShutsRepositoriesDown() {
+        final SPARQLRepository repository = sut.getReleaseRepository();
+        try (RepositoryConnection connection = repository.getConnection()) {
+            connection.prepareBooleanQuery("ASK {?s ?p ?o}").evaluate();
+        }
+
+        sut.shutDown();
+
+        Assertions.assertFalse(repository.isInitialized());
+        Assertions.assertEquals(0, connections("available"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.sgov.server.service.repository;
+
+import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.util.Vocabulary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.apache.jena.fuseki.main.FusekiServer;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.system.Txn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VocabularyImportGraphTest {
+
+    private static final String VOCABULARY = "https://example.org/slovník/";
+
+    private static final URI A = URI.create(VOCABULARY + "a");
+
+    private static final URI B = URI.create(VOCABULARY + "b");
+
+    private static final URI C = URI.create(VOCABULARY + "c");
+
+    private static final URI D = URI.create(VOCABULARY + "d");
+
+    private FusekiServer server;
+
+    private Dataset dataset;
+
+    private RepositoryClients repositoryClients;
+
+    private VocabularyImportGraph sut;
+
+    @BeforeEach
+    void setUp() {
+        dataset = DatasetFactory.createTxnMem();
+        // a imports b, b imports c, c imports b, d imports c
+        addImport(A, B);
+        addImport(B, C);
+        addImport(C, B);
+        addImport(D, C);
+        server = FusekiServer.create().port(1241).add("/ds", dataset).build();
+        server.start();
+        final RepositoryConf repositoryConf = new RepositoryConf(null);
+        repositoryConf.setReleaseSparqlEndpointUrl("http://localhost:1241/ds");
+        repositoryConf.setReleaseCatalogTtl(Duration.ofHours(1));
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        repositoryClients = new RepositoryClients(repositoryConf, meterRegistry);
+        sut = new VocabularyImportGraph(repositoryClients, repositoryConf, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.shutdown();
+        repositoryClients.shutDown();
+        server.stop();
+    }
+
+    private void addImport(final URI vocabulary, final URI imported) {
+        Txn.executeWrite(dataset, () -> {
+            final Model model = dataset.getNamedModel(vocabulary.toString());
+            model.add(model.createResource(vocabulary.toString()),
+                model.createProperty(Vocabulary.DATA_DESCRIPTION_NAMESPACE + "importuje-slovník"),
+                model.createResource(imported.toString()));
+        });
+    }
+
+    @Test
+    void getTransitiveImportsReturnsImportsOfImportedVocabularies() {
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(B, C)),
+            sut.getTransitiveImports(A));
+    }
+
+    @Test
+    void getTransitiveImportsContainsVocabularyInImportCycle() {
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(B, C)),
+            sut.getTransitiveImports(B));
+    }
+
+    @Test
+    void getTransitiveImportsReturnsEmptySetForUnknownVocabulary() {
+        Assertions.assertEquals(Collections.emptySet(),
+            sut.getTransitiveImports(URI.create(VOCABULARY + "x")));
+    }
+
+    @Test
+    void getTransitiveDependentsReturnsImportingVocabularies() {
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(A, B, C, D)),
+            sut.getTransitiveDependents(C));
+        Assertions.assertEquals(Collections.emptySet(), sut.getTransitiveDependents(A));
+    }
+
+    @Test
+    void getTransitiveImportsReusesComputedClosure() {
+        Assertions.assertSame(sut.getTransitiveImports(A), sut.getTransitiveImports(A));
+    }
+
+    @Test
+    void invalidateRebuildsGraph() {
+        sut.getTransitiveImports(A);
+        addImport(C, D);
+
+        sut.invalidate();
+
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(B, C, D)),
+            sut.getTransitiveImports(A));
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.sgov.server.service.repository;
+
+import com.github.sgov.server.dao.WorkspaceDao;
+import com.github.sgov.server.environment.Generator;
+import com.github.sgov.server.model.VocabularyContext;
+import com.github.sgov.server.model.Workspace;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class VocabularyWriteLockIndexTest {
+
+    private static final URI VOCABULARY_A = URI.create("https://example.org/slovník/a");
+
+    private static final URI VOCABULARY_B = URI.create("https://example.org/slovník/b");
+
+    private WorkspaceDao workspaceDao;
+
+    private VocabularyWriteLockIndex sut;
+
+    @BeforeEach
+    void setUp() {
+        workspaceDao = Mockito.mock(WorkspaceDao.class);
+        sut = new VocabularyWriteLockIndex(workspaceDao);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Workspace workspace(final URI... vocabularies) {
+        final Workspace workspace = Generator.generateWorkspace();
+        Arrays.stream(vocabularies).forEach(v -> {
+            final VocabularyContext context = new VocabularyContext();
+            context.setUri(Generator.generateUri());
+            context.setBasedOnVocabularyVersion(v);
+            workspace.addRefersToVocabularyContexts(context);
+        });
+        return workspace;
+    }
+
+    @Test
+    void indexIsBuiltFromAllWorkspacesOnce() {
+        final Workspace w1 = workspace(VOCABULARY_A);
+        final Workspace w2 = workspace(VOCABULARY_A, VOCABULARY_B);
+        Mockito.when(workspaceDao.findAll()).thenReturn(Arrays.asList(w1, w2));
+
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(VOCABULARY_A, VOCABULARY_B)),
+            sut.getWriteLockedVocabularies());
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(w1.getUri(), w2.getUri())),
+            sut.getWorkspaces(VOCABULARY_A).keySet());
+        Mockito.verify(workspaceDao, Mockito.times(1)).findAll();
+    }
+
+    @Test
+    void updateReplacesVocabulariesOfWorkspace() {
+        final Workspace workspace = workspace(VOCABULARY_A);
+        Mockito.when(workspaceDao.findAll()).thenReturn(Collections.singletonList(workspace));
+        sut.getWriteLockedVocabularies();
+
+        workspace.getVocabularyContexts().clear();
+        workspace.addRefersToVocabularyContexts(workspace(VOCABULARY_B).getVocabularyContexts()
+            .iterator().next());
+        sut.updateAfterCommit(workspace);
+
+        Assertions.assertEquals(Collections.singleton(VOCABULARY_B),
+            sut.getWriteLockedVocabularies());
+        Assertions.assertTrue(sut.getWorkspaces(VOCABULARY_A).isEmpty());
+    }
+
+    @Test
+    void removeDropsVocabulariesOfWorkspace() {
+        final Workspace w1 = workspace(VOCABULARY_A);
+        final Workspace w2 = workspace(VOCABULARY_A);
+        Mockito.when(workspaceDao.findAll()).thenReturn(Arrays.asList(w1, w2));
+        sut.getWriteLockedVocabularies();
+
+        sut.removeAfterCommit(w1.getUri());
+
+        Assertions.assertEquals(Collections.singleton(w2.getUri()),
+            sut.getWorkspaces(VOCABULARY_A).keySet());
+    }
+
+    @Test
+    void changesAreAppliedAfterCommit() {
+        Mockito.when(workspaceDao.findAll()).thenReturn(Collections.emptyList());
+        sut.getWriteLockedVocabularies();
+        TransactionSynchronizationManager.initSynchronization();
+
+        sut.updateAfterCommit(workspace(VOCABULARY_A));
+
+        Assertions.assertTrue(sut.getWriteLockedVocabularies().isEmpty());
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(TransactionSynchronization::afterCommit);
+        Assertions.assertEquals(Collections.singleton(VOCABULARY_A),
+            sut.getWriteLockedVocabularies());
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.sgov.server.util;
+
+import java.io.StringReader;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class Rdf4jToJenaTest {
+
+    private final ValueFactory f = SimpleValueFactory.getInstance();
+
+    private Node parseObject(final String turtleObject) {
+        final Model m = ModelFactory.createDefaultModel();
+        m.read(new StringReader("<https://example.org/s> <https://example.org/p> "
+            + turtleObject + " ."), null, "TTL");
+        return m.listStatements().next().getObject().asNode();
+    }
+
+    @Test
+    void toNodeConvertsIri() {
+        Assertions.assertEquals(NodeFactory.createURI("https://slovník.gov.cz/a"),
+            Rdf4jToJena.toNode(f.createIRI("https://slovník.gov.cz/a")));
+    }
+
+    @Test
+    void toNodeConvertsLiteralsAsJenaParsesThem() {
+        Assertions.assertEquals(parseObject("\"Osoba\"@cs"),
+            Rdf4jToJena.toNode(f.createLiteral("Osoba", "cs")));
+        Assertions.assertEquals(parseObject("\"Osoba\""),
+            Rdf4jToJena.toNode(f.createLiteral("Osoba")));
+        Assertions.assertEquals(parseObject("1"),
+            Rdf4jToJena.toNode(f.createLiteral("1", XSD.INTEGER)));
+    }
+
+    @Test
+    void toNodeConvertsBlankNodeKeepingItsIdentity() {
+        final Node node = Rdf4jToJena.toNode(f.createBNode("b1"));
+        Assertions.assertTrue(node.isBlank());
+        Assertions.assertEquals(node, Rdf4jToJena.toNode(f.createBNode("b1")));
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.sgov.server.validation;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    private final AdaptiveConcurrencyLimiter limiter =
+        new AdaptiveConcurrencyLimiter(8, Duration.ofMillis(100));
+
+    @Test
+    void limitGrowsByOneUpToMaximumWhileLatencyIsWithinTarget() {
+        Assertions.assertEquals(1, limiter.getLimit());
+        limiter.onLatency(FAST);
+        Assertions.assertEquals(2, limiter.getLimit());
+        for (int i = 0; i < 20; i++) {
+            limiter.onLatency(FAST);
+        }
+        Assertions.assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    void limitIsHalvedDownToOneWhenLatencyExceedsTarget() {
+        for (int i = 0; i < 7; i++) {
+            limiter.onLatency(FAST);
+        }
+        limiter.onLatency(SLOW);
+        Assertions.assertEquals(4, limiter.getLimit());
+        limiter.onLatency(SLOW);
+        limiter.onLatency(SLOW);
+        limiter.onLatency(SLOW);
+        Assertions.assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void limiterIsOverLimitWhenLimitDropsBelowRunningTasks() throws InterruptedException {
+        limiter.onLatency(FAST);
+        limiter.acquire();
+        limiter.acquire();
+        Assertions.assertFalse(limiter.isOverLimit());
+
+        limiter.onLatency(SLOW);
+
+        Assertions.assertTrue(limiter.isOverLimit());
+        limiter.release();
+        Assertions.assertFalse(limiter.isOverLimit());
+    }
+
+    @Test
+    void acquireWaitsUntilTaskIsReleased() throws InterruptedException {
+        limiter.acquire();
+        final Thread waiting = new Thread(() -> {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiting.start();
+        waiting.join(200);
+        Assertions.assertTrue(waiting.isAlive());
+
+        limiter.release();
+        waiting.join(5000);
+
+        Assertions.assertFalse(waiting.isAlive());
+        Assertions.assertEquals(1, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.sgov.server.validation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.topbraid.shacl.validation.ValidationReport;
+
+class CompiledShapesTest {
+
+    private CompiledShapes sut;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sut = new CompiledShapes(read("shapes.ttl"), "test");
+    }
+
+    static Model read(final String file) throws IOException {
+        final Model model = ModelFactory.createDefaultModel();
+        try (InputStream is = CompiledShapesTest.class
+            .getResourceAsStream("/validation/" + file)) {
+            model.read(is, null, "TTL");
+        }
+        return model;
+    }
+
+    private static Model data(final String vocabulary) throws IOException {
+        return InferenceMode.MATERIALIZATION.apply(
+            read("vocabulary-schema.ttl").add(read(vocabulary)));
+    }
+
+    private static Set<String> describe(final ValidationReport report) {
+        return report.results().stream().map(r -> r.getFocusNode() + " " + r.getPath() + " "
+            + r.getSeverity() + " " + r.getSourceShape() + " " + r.getMessages())
+            .collect(Collectors.toSet());
+    }
+
+    @Test
+    void validateReportsViolationsOfShapes() throws IOException {
+        final ValidationReport report = sut.validate(data("vocabulary-1.ttl"));
+
+        Assertions.assertFalse(report.conforms());
+        Assertions.assertFalse(report.results().isEmpty());
+    }
+
+    @Test
+    void concurrentValidationsGiveSameReportsAsSingleValidation()
+        throws IOException, InterruptedException, ExecutionException {
+        final Set<String> expected1 = describe(sut.validate(data("vocabulary-1.ttl")));
+        final Set<String> expected2 = describe(sut.validate(data("vocabulary-2.ttl")));
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Set<String>>> reports1 = new ArrayList<>();
+            final List<Future<Set<String>>> reports2 = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                final Model data1 = data("vocabulary-1.ttl");
+                final Model data2 = data("vocabulary-2.ttl");
+                reports1.add(executor.submit(() -> describe(sut.validate(data1))));
+                reports2.add(executor.submit(() -> describe(sut.validate(data2))));
+            }
+            for (Future<Set<String>> report : reports1) {
+                Assertions.assertEquals(expected1, report.get());
+            }
+            for (Future<Set<String>> report : reports2) {
+                Assertions.assertEquals(expected2, report.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<List<String>> keys(final String rules) {
+        final Model data = ModelFactory.createDefaultModel();
+        data.add(data.createResource("urn:x"), RDF.type, data.createResource("urn:C"));
+        final Model model = ModelFactory.createDefaultModel();
+        model.read(new StringReader(rules), null, "TTL");
+        return new CompiledShapes(model, "test").validate(data).results().stream()
+            .map(r -> StoredValidationResult.of(null, r).getKey())
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    void resultsOfBlankNodeShapesHaveStableKeys() {
+        final String rules = "@prefix sh: <http://www.w3.org/ns/shacl#> . "
+            + "<urn:shape> a sh:NodeShape ; sh:targetClass <urn:C> ; "
+            + "sh:property [ sh:path [ sh:inversePath <urn:p> ] ; sh:minCount 1 ] .";
+
+        final List<List<String>> keys = keys(rules);
+
+        Assertions.assertEquals(1, keys.size());
+        Assertions.assertNotNull(keys.get(0).get(0));
+        Assertions.assertEquals("^<urn:p>", keys.get(0).get(2));
+        Assertions.assertEquals(keys, keys(rules));
+    }
+
+    @Test
+    void validateChecksOnlyFocusNodesAcceptedByFilter() throws IOException {
+        final Model data = data("vocabulary-1.ttl");
+        final ValidationReport all = sut.validate(data);
+        final RDFNode focusNode = all.results().get(0).getFocusNode();
+
+        final ValidationReport report = sut.validate(data, focusNode::equals);
+
+        Assertions.assertFalse(report.results().isEmpty());
+        Assertions.assertTrue(report.results().stream()
+            .allMatch(r -> focusNode.equals(r.getFocusNode())));
+    }
+}
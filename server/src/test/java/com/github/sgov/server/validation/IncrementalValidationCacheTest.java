@@ -0,0 +1,54 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import java.net.URI;
+import java.util.Collections;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IncrementalValidationCacheTest {
+
+    private static final URI CONTEXT_1 = URI.create("https://example.org/context/1");
+
+    private static final URI CONTEXT_2 = URI.create("https://example.org/context/2");
+
+    private static final URI CONTEXT_3 = URI.create("https://example.org/context/3");
+
+    private IncrementalValidationCache sut;
+
+    @BeforeEach
+    void setUp() {
+        final ValidationConf conf = new ValidationConf();
+        conf.setIncrementalCacheSize(2);
+        sut = new IncrementalValidationCache(conf);
+    }
+
+    private static IncrementalValidationCache.Entry entry() {
+        return new IncrementalValidationCache.Entry(null,
+            new BasicValidationReport(true, Collections.emptyList()));
+    }
+
+    @Test
+    void putEvictsLeastRecentlyUsedReport() {
+        sut.put(CONTEXT_1, "1", entry());
+        sut.put(CONTEXT_2, "1", entry());
+        sut.get(CONTEXT_1, "1");
+
+        sut.put(CONTEXT_3, "1", entry());
+
+        Assertions.assertEquals(2, sut.size());
+        Assertions.assertNotNull(sut.get(CONTEXT_1, "1"));
+        Assertions.assertNull(sut.get(CONTEXT_2, "1"));
+    }
+
+    @Test
+    void evictRemovesReportsOfContextForAllRuleVersions() {
+        sut.put(CONTEXT_1, "1", entry());
+        sut.put(CONTEXT_1, "2", entry());
+
+        sut.evict(CONTEXT_1);
+
+        Assertions.assertEquals(0, sut.size());
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.sgov.server.validation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.SKOS;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+
+class InferenceModeTest {
+
+    private static CompiledShapes shapes;
+
+    @BeforeAll
+    static void compileShapes() throws IOException {
+        shapes = new CompiledShapes(read("shapes.ttl"), "test");
+    }
+
+    private static Model read(final String file) throws IOException {
+        final Model model = ModelFactory.createDefaultModel();
+        try (InputStream is = InferenceModeTest.class
+            .getResourceAsStream("/validation/" + file)) {
+            model.read(is, null, "TTL");
+        }
+        return model;
+    }
+
+    private static Set<String> validate(final InferenceMode mode, final Model data) {
+        final ValidationReport report = shapes.validate(mode.apply(data));
+        return report.results().stream().map(InferenceModeTest::describe)
+            .collect(Collectors.toSet());
+    }
+
+    private static String describe(final ValidationResult r) {
+        return r.getFocusNode() + " " + r.getPath() + " " + r.getSeverity() + " "
+            + r.getSourceConstraintComponent() + " " + r.getValue() + " " + r.getMessages();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"vocabulary-1.ttl", "vocabulary-2.ttl"})
+    void materializationGivesSameReportAsReasoner(final String vocabulary) throws IOException {
+        final Model data = read("vocabulary-schema.ttl").add(read(vocabulary));
+
+        final Set<String> reasoner = validate(InferenceMode.REASONER, data);
+        final Set<String> materialization = validate(InferenceMode.MATERIALIZATION, data);
+
+        Assertions.assertFalse(reasoner.isEmpty());
+        Assertions.assertEquals(reasoner, materialization);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"vocabulary-1.ttl", "vocabulary-2.ttl"})
+    void reportsDependOnInference(final String vocabulary) throws IOException {
+        final Model data = read("vocabulary-schema.ttl").add(read(vocabulary));
+
+        Assertions.assertNotEquals(validate(InferenceMode.MATERIALIZATION, data),
+            shapes.validate(data).results().stream().map(InferenceModeTest::describe)
+                .collect(Collectors.toSet()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"vocabulary-1.ttl", "vocabulary-2.ttl"})
+    void materializationDoesNotModifySourceModel(final String vocabulary) throws IOException {
+        final Model data = read("vocabulary-schema.ttl").add(read(vocabulary));
+        final long size = data.size();
+
+        InferenceMode.MATERIALIZATION.apply(data);
+
+        Assertions.assertEquals(size, data.size());
+    }
+
+    private static Set<String> validate(final Model dataModel, final Model data,
+                                        final Graph background) {
+        final ValidationReport report = shapes.validate(dataModel,
+            n -> data.getGraph().contains(n.asNode(), Node.ANY, Node.ANY)
+                || !background.contains(n.asNode(), Node.ANY, Node.ANY));
+        return report.results().stream().map(InferenceModeTest::describe)
+            .collect(Collectors.toSet());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"REASONER, vocabulary-1.ttl", "REASONER, vocabulary-2.ttl",
+        "MATERIALIZATION, vocabulary-1.ttl", "MATERIALIZATION, vocabulary-2.ttl"})
+    void backgroundGivesSameReportAsCopiedBackground(final InferenceMode mode,
+                                                    final String vocabulary)
+        throws IOException {
+        final Model data = read(vocabulary);
+        final Model background = read("vocabulary-schema.ttl");
+        final long dataSize = data.size();
+        final long backgroundSize = background.size();
+
+        final Set<String> layered =
+            validate(mode.apply(data, background.getGraph()), data, background.getGraph());
+        final Set<String> copied = validate(mode.apply(read(vocabulary).add(background)), data,
+            background.getGraph());
+
+        Assertions.assertFalse(layered.isEmpty());
+        Assertions.assertEquals(copied, layered);
+        Assertions.assertEquals(dataSize, data.size());
+        Assertions.assertEquals(backgroundSize, background.size());
+    }
+
+    @ParameterizedTest
+    @EnumSource(InferenceMode.class)
+    void termsOfBackgroundAreNotValidated(final InferenceMode mode) throws IOException {
+        final Model data = read("vocabulary-schema.ttl").add(read("vocabulary-1.ttl"));
+        final Model background = ModelFactory.createDefaultModel();
+        final Resource passenger =
+            background.createResource("https://example.org/slovník/test-1/pojem/cestující");
+        background.add(passenger, RDF.type, SKOS.Concept);
+
+        final Predicate<String> aboutPassenger = r -> r.startsWith(passenger.getURI() + " ");
+        Assertions.assertTrue(validate(mode, data).stream().anyMatch(aboutPassenger));
+        Assertions.assertTrue(validate(mode.apply(data, background.getGraph()), data,
+            background.getGraph()).stream().noneMatch(aboutPassenger));
+    }
+}
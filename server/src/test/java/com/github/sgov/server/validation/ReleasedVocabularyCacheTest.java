@@ -0,0 +1,168 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.config.conf.ValidationConf;
+import com.github.sgov.server.service.repository.RepositoryClients;
+import com.github.sgov.server.util.Vocabulary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.apache.jena.fuseki.main.FusekiServer;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.jena.vocabulary.SKOS;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReleasedVocabularyCacheTest {
+
+    private static final String VOCABULARY = "https://example.org/slovník/";
+
+    private static final URI A = URI.create(VOCABULARY + "a");
+
+    private static final URI B = URI.create(VOCABULARY + "b");
+
+    private static final URI C = URI.create(VOCABULARY + "c");
+
+    private static FusekiServer server;
+
+    private MeterRegistry meterRegistry;
+
+    private ReleasedVocabularyCache cache;
+
+    @BeforeAll
+    static void startServer() {
+        final Dataset dataset = DatasetFactory.create();
+        // a imports b, b imports c, c imports a
+        addVocabulary(dataset, A, B);
+        addVocabulary(dataset, B, C);
+        addVocabulary(dataset, C, A);
+        final Model glossary = dataset.getNamedModel(B + "/glosář");
+        glossary.add(term(glossary, B), RDF.type, term(glossary, C));
+        final Model model = dataset.getNamedModel(C + "/model");
+        model.add(term(model, C), RDFS.subClassOf, model.createResource(VOCABULARY + "typ"));
+        server = FusekiServer.create().port(1237).add("/ds", dataset).build();
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    private static void addVocabulary(final Dataset dataset, final URI vocabulary,
+                                      final URI imported) {
+        final Model model = ModelFactory.createDefaultModel();
+        model.add(model.createResource(vocabulary.toString()),
+            model.createProperty(Vocabulary.DATA_DESCRIPTION_NAMESPACE + "importuje-slovník"),
+            model.createResource(imported.toString()));
+        dataset.addNamedModel(vocabulary.toString(), model);
+        final Model glossary = ModelFactory.createDefaultModel();
+        glossary.add(term(glossary, vocabulary), RDF.type, SKOS.Concept);
+        dataset.addNamedModel(vocabulary + "/glosář", glossary);
+    }
+
+    private static Resource term(final Model model, final URI vocabulary) {
+        return model.createResource(vocabulary + "/pojem/term");
+    }
+
+    private static boolean contains(final Graph graph, final URI subject, final String object) {
+        return graph.contains(Triple.create(NodeFactory.createURI(subject + "/pojem/term"),
+            RDF.type.asNode(), NodeFactory.createURI(object)));
+    }
+
+    @BeforeEach
+    void setUp() {
+        final RepositoryConf repositoryConf = new RepositoryConf(null);
+        repositoryConf.setReleaseSparqlEndpointUrl("http://localhost:1237/ds");
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ReleasedVocabularyCache(repositoryConf, new ValidationConf(), meterRegistry,
+            new RepositoryClients(repositoryConf, meterRegistry));
+    }
+
+    private double misses() {
+        return meterRegistry.counter("sgov.validation.released.requests", "result", "miss")
+            .count();
+    }
+
+    @Test
+    void getImportsReturnsTransitiveImportsWithoutVocabularyItself() {
+        final Graph imports = cache.getImports(A);
+
+        Assertions.assertTrue(contains(imports, B, SKOS.Concept.getURI()));
+        Assertions.assertTrue(contains(imports, C, SKOS.Concept.getURI()));
+        Assertions.assertFalse(contains(imports, A, SKOS.Concept.getURI()));
+    }
+
+    @Test
+    void getImportsOfWorkspaceVocabularyContainsDirectAndTransitiveImports() {
+        final URI workspaceVocabulary = URI.create(VOCABULARY + "nový");
+        final Graph imports = cache.getImports(new VocabularyImports(
+            Collections.singleton(workspaceVocabulary),
+            new HashSet<>(Arrays.asList(C, URI.create(VOCABULARY + "nevydaný")))));
+
+        Assertions.assertTrue(contains(imports, C, SKOS.Concept.getURI()));
+        Assertions.assertTrue(contains(imports, A, SKOS.Concept.getURI()));
+        Assertions.assertTrue(contains(imports, B, SKOS.Concept.getURI()));
+    }
+
+    @Test
+    void getImportsOfWorkspaceVocabularyLeavesOutImportingVocabularies() {
+        final Graph imports = cache.getImports(new VocabularyImports(
+            Collections.singleton(A), Collections.singleton(C)));
+
+        Assertions.assertTrue(contains(imports, C, SKOS.Concept.getURI()));
+        Assertions.assertFalse(contains(imports, A, SKOS.Concept.getURI()));
+    }
+
+    @Test
+    void getImportsMaterializesEntailmentsOverImportedVocabularies() {
+        final Graph imports = cache.getImports(A);
+
+        Assertions.assertTrue(contains(imports, B, VOCABULARY + "typ"));
+    }
+
+    @Test
+    void getImportsFetchesEachVocabularyOnce() {
+        cache.getImports(A);
+        cache.getImports(B);
+        cache.getImports(C);
+
+        Assertions.assertEquals(3, misses());
+    }
+
+    @Test
+    void invalidateFetchesVocabulariesAgainInNewGeneration() {
+        cache.getImports(A);
+        final long generation = cache.getGeneration();
+
+        cache.invalidate();
+        cache.getImports(A);
+
+        Assertions.assertEquals(generation + 1, cache.getGeneration());
+        Assertions.assertEquals(6, misses());
+    }
+
+    @Test
+    void getImportsReturnsReadOnlyGraph() {
+        final Graph imports = cache.getImports(A);
+        final Triple triple = Triple.create(NodeFactory.createURI(A.toString()),
+            RDF.type.asNode(), SKOS.Concept.asNode());
+
+        Assertions.assertThrows(RuntimeException.class, () -> imports.add(triple));
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.sgov.server.validation;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.jena.rdf.model.Model;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShapesRegistryTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ShapesRegistry sut;
+
+    @BeforeEach
+    void setUp() {
+        sut = new ShapesRegistry(this::rules);
+    }
+
+    /**
+     * The glossary rules are the test shapes, the vocabulary rules the vocabulary schema, which
+     * has no shapes. The model group has no rules.
+     */
+    private Set<URL> rules(final RuleGroup group) {
+        loads.incrementAndGet();
+        switch (group) {
+            case GLOSSARY:
+                return Collections.singleton(resource("shapes.ttl"));
+            case VOCABULARY:
+                return Collections.singleton(resource("vocabulary-schema.ttl"));
+            default:
+                return Collections.emptySet();
+        }
+    }
+
+    private static URL resource(final String file) {
+        return ShapesRegistryTest.class.getResource("/validation/" + file);
+    }
+
+    @Test
+    void getShapesCompilesEachSelectionOnce() {
+        final CompiledShapes shapes = sut.getShapes(EnumSet.of(RuleGroup.GLOSSARY));
+        final int loaded = loads.get();
+
+        Assertions.assertSame(shapes, sut.getShapes(EnumSet.of(RuleGroup.GLOSSARY)));
+        Assertions.assertEquals(loaded, loads.get());
+    }
+
+    @Test
+    void getShapesOfNoGroupsReturnsAllRules() {
+        Assertions.assertSame(sut.getShapes(), sut.getShapes(Collections.emptySet()));
+        Assertions.assertSame(sut.getShapes(), sut.getShapes(EnumSet.allOf(RuleGroup.class)));
+    }
+
+    @Test
+    void versionIsDerivedFromContentOfRules() {
+        final ShapesRegistry other = new ShapesRegistry(this::rules);
+
+        Assertions.assertEquals(sut.getShapes().getVersion(), other.getShapes().getVersion());
+        Assertions.assertEquals(sut.getShapes(EnumSet.of(RuleGroup.GLOSSARY)).getVersion(),
+            other.getShapes(EnumSet.of(RuleGroup.GLOSSARY, RuleGroup.MODEL)).getVersion());
+    }
+
+    @Test
+    void versionDiffersForSelectionsWithDifferentRules() {
+        final String all = sut.getShapes().getVersion();
+
+        Assertions.assertNotEquals(all, sut.getShapes(EnumSet.of(RuleGroup.GLOSSARY)).getVersion());
+        Assertions.assertNotEquals(all,
+            sut.getShapes(EnumSet.of(RuleGroup.VOCABULARY)).getVersion());
+        Assertions.assertNotEquals(sut.getShapes(EnumSet.of(RuleGroup.GLOSSARY)).getVersion(),
+            sut.getShapes(EnumSet.of(RuleGroup.VOCABULARY)).getVersion());
+    }
+
+    @Test
+    void getShapesContainsOnlyRulesOfSelectedGroups() throws IOException {
+        final Model data = InferenceMode.MATERIALIZATION.apply(
+            CompiledShapesTest.read("vocabulary-schema.ttl")
+                .add(CompiledShapesTest.read("vocabulary-2.ttl")));
+
+        Assertions.assertFalse(
+            sut.getShapes(EnumSet.of(RuleGroup.GLOSSARY)).validate(data).conforms());
+        Assertions.assertTrue(
+            sut.getShapes(EnumSet.of(RuleGroup.MODEL)).validate(data).conforms());
+    }
+}
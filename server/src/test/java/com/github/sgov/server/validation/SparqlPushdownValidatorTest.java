@@ -0,0 +1,136 @@
+package com.github.sgov.server.validation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.URI;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.jena.fuseki.main.FusekiServer;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+
+class SparqlPushdownValidatorTest {
+
+    private static final String ENDPOINT = "http://localhost:1235/ds";
+
+    private static CompiledShapes shapes;
+
+    private static FusekiServer server;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        shapes = new CompiledShapes(read("shapes.ttl"), "test");
+        final Dataset dataset = DatasetFactory.create();
+        for (String vocabulary : new String[] {"vocabulary-1.ttl", "vocabulary-2.ttl"}) {
+            dataset.addNamedModel(context(vocabulary).toString(),
+                read("vocabulary-schema.ttl").add(read(vocabulary)));
+        }
+        server = FusekiServer.create().port(1235).add("/ds", dataset).build();
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    private static URI context(final String vocabulary) {
+        return URI.create("https://example.org/context/" + vocabulary);
+    }
+
+    private static Model read(final String file) throws IOException {
+        final Model model = ModelFactory.createDefaultModel();
+        try (InputStream is = SparqlPushdownValidatorTest.class
+            .getResourceAsStream("/validation/" + file)) {
+            model.read(is, null, "TTL");
+        }
+        return model;
+    }
+
+    private static Set<String> describe(final ValidationReport report) {
+        return report.results().stream().map(SparqlPushdownValidatorTest::describe)
+            .collect(Collectors.toSet());
+    }
+
+    private static String describe(final ValidationResult r) {
+        return r.getFocusNode() + " " + r.getPath() + " " + r.getSeverity() + " "
+            + r.getSourceShape() + " " + r.getSourceConstraintComponent() + " "
+            + r.getMessages();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"vocabulary-1.ttl", "vocabulary-2.ttl"})
+    void pushdownGivesSameReportAsInMemoryValidation(final String vocabulary)
+        throws IOException {
+        final Model data = read("vocabulary-schema.ttl").add(read(vocabulary));
+        final ValidationReport inMemory =
+            shapes.validate(InferenceMode.MATERIALIZATION.apply(data));
+
+        final ValidationReport pushdown =
+            shapes.getPushdownValidator().validate(ENDPOINT, context(vocabulary));
+
+        Assertions.assertFalse(inMemory.results().isEmpty());
+        Assertions.assertEquals(describe(inMemory), describe(pushdown));
+        Assertions.assertEquals(inMemory.conforms(), pushdown.conforms());
+    }
+
+    @Test
+    void pushdownValidatesOnlyGivenContext() {
+        final ValidationReport report = shapes.getPushdownValidator()
+            .validate(ENDPOINT, URI.create("https://example.org/context/empty"));
+
+        Assertions.assertTrue(report.conforms());
+        Assertions.assertTrue(report.results().isEmpty());
+    }
+
+    @Test
+    void allTestShapesAreTranslated() {
+        final SparqlPushdownValidator validator = shapes.getPushdownValidator();
+
+        Assertions.assertEquals(4, validator.getQueryCount());
+        Assertions.assertTrue(validator.getUnsupportedConstraints().isEmpty());
+    }
+
+    @Test
+    void unsupportedConstraintsAreReported() {
+        final Model rules = ModelFactory.createDefaultModel();
+        rules.read(new StringReader(
+            "@prefix sh: <http://www.w3.org/ns/shacl#> . "
+                + "<urn:shape> a sh:NodeShape ; sh:targetClass <urn:C> ; "
+                + "sh:property [ sh:path <urn:p> ; sh:datatype <urn:d> ; sh:minCount 1 ] ."),
+            null, "TTL");
+
+        final SparqlPushdownValidator validator = new SparqlPushdownValidator(rules);
+
+        Assertions.assertEquals(1, validator.getQueryCount());
+        Assertions.assertEquals(1, validator.getUnsupportedConstraints().size());
+        Assertions.assertFalse(validator.isComplete());
+    }
+
+    @Test
+    void reportOfUnsupportedConstraintsDoesNotConform() {
+        final Model rules = ModelFactory.createDefaultModel();
+        rules.read(new StringReader(
+            "@prefix sh: <http://www.w3.org/ns/shacl#> . "
+                + "<urn:shape> a sh:NodeShape ; sh:targetClass <urn:C> ; "
+                + "sh:property [ sh:path <urn:p> ; sh:datatype <urn:d> ] ."),
+            null, "TTL");
+
+        final ValidationReport report = new SparqlPushdownValidator(rules)
+            .validate(ENDPOINT, URI.create("https://example.org/context/empty"));
+
+        Assertions.assertTrue(report.results().isEmpty());
+        Assertions.assertFalse(report.conforms());
+    }
+}
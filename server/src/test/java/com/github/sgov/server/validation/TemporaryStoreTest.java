@@ -0,0 +1,86 @@
+package com.github.sgov.server.validation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.topbraid.shacl.validation.ValidationReport;
+
+class TemporaryStoreTest {
+
+    @TempDir
+    Path parent;
+
+    private static Model read(final String file) throws IOException {
+        final Model model = ModelFactory.createDefaultModel();
+        try (InputStream is = TemporaryStoreTest.class
+            .getResourceAsStream("/validation/" + file)) {
+            model.read(is, null, "TTL");
+        }
+        return model;
+    }
+
+    private static Set<String> describe(final ValidationReport report) {
+        return report.results().stream()
+            .map(r -> r.getFocusNode() + " " + r.getPath() + " " + r.getSeverity() + " "
+                + r.getSourceConstraintComponent() + " " + r.getMessages())
+            .collect(Collectors.toSet());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"vocabulary-1.ttl", "vocabulary-2.ttl"})
+    void diskBackedValidationGivesSameReportAsInMemoryValidation(final String vocabulary)
+        throws IOException {
+        final CompiledShapes shapes = new CompiledShapes(read("shapes.ttl"), "test");
+        final Model data = read("vocabulary-schema.ttl").add(read(vocabulary));
+        final Set<String> inMemory =
+            describe(shapes.validate(InferenceMode.MATERIALIZATION.apply(data)));
+
+        final Set<String> onDisk;
+        try (TemporaryStore store = TemporaryStore.create(parent)) {
+            final Model m = store.createModel().add(data);
+            onDisk = describe(shapes.validate(
+                InferenceMode.MATERIALIZATION.apply(m, store.createModel())));
+        }
+
+        Assertions.assertFalse(inMemory.isEmpty());
+        Assertions.assertEquals(inMemory, onDisk);
+    }
+
+    @Test
+    void closeDeletesStoreDirectory() throws IOException {
+        final Path directory;
+        try (TemporaryStore store = TemporaryStore.create(parent)) {
+            directory = store.getDirectory();
+            store.createModel().add(read("vocabulary-1.ttl"));
+            Assertions.assertTrue(Files.isDirectory(directory));
+        }
+
+        Assertions.assertFalse(Files.exists(directory));
+    }
+
+    @Test
+    void deleteDirectoryDeletesOnlyStoresOfOwner() throws IOException {
+        final Path owned = TemporaryStore.createDirectory(parent);
+        final Path other = TemporaryStore.createDirectory(parent);
+        final TemporaryStore store = TemporaryStore.create(owned);
+        store.createModel().add(read("vocabulary-1.ttl"));
+        final TemporaryStore otherStore = TemporaryStore.create(other);
+
+        store.close();
+        TemporaryStore.deleteDirectory(owned);
+
+        Assertions.assertFalse(Files.exists(owned));
+        Assertions.assertTrue(Files.isDirectory(otherStore.getDirectory()));
+        otherStore.close();
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.sgov.server.validation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.apache.jena.fuseki.main.FusekiServer;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.vocabulary.SKOS;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+
+class TermNeighbourhoodTest {
+
+    private static final String ENDPOINT = "http://localhost:1236/ds";
+
+    private static final String TERM_1 = "https://example.org/slovník/test-1/pojem/";
+
+    private static final String TERM_2 = "https://example.org/slovník/test-2/pojem/";
+
+    private static CompiledShapes shapes;
+
+    private static FusekiServer server;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        shapes = new CompiledShapes(read("shapes.ttl"), "test");
+        final Dataset dataset = DatasetFactory.create();
+        for (String vocabulary : new String[] {"vocabulary-1.ttl", "vocabulary-2.ttl"}) {
+            dataset.addNamedModel(context(vocabulary), data(vocabulary));
+        }
+        final Model links = ModelFactory.createDefaultModel();
+        links.add(links.createResource(TERM_1 + "spolujezdec"), SKOS.broader,
+            links.createResource(TERM_2 + "vozidlo"));
+        dataset.addNamedModel(context("links"), links);
+        server = FusekiServer.create().port(1236).add("/ds", dataset).build();
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    private static String context(final String vocabulary) {
+        return "https://example.org/context/" + vocabulary;
+    }
+
+    private static Model read(final String file) throws IOException {
+        final Model model = ModelFactory.createDefaultModel();
+        try (InputStream is = TermNeighbourhoodTest.class
+            .getResourceAsStream("/validation/" + file)) {
+            model.read(is, null, "TTL");
+        }
+        return model;
+    }
+
+    private static Model data(final String vocabulary) throws IOException {
+        return read("vocabulary-schema.ttl").add(read(vocabulary));
+    }
+
+    private static Set<String> describe(final List<ValidationResult> results) {
+        return results.stream()
+            .map(r -> r.getFocusNode() + " " + r.getPath() + " " + r.getSeverity() + " "
+                + r.getSourceShape() + " " + r.getMessages())
+            .collect(Collectors.toSet());
+    }
+
+    private static ValidationReport validateTerm(final List<String> contexts,
+                                                 final Resource term) {
+        final Model neighbourhood = TermNeighbourhood.fetch(ENDPOINT,
+            contexts.stream().map(TermNeighbourhoodTest::context).collect(Collectors.toList()),
+            Collections.singletonList(URI.create(term.getURI())));
+        final Set<RDFNode> focusNodes = Collections.singleton(term);
+        return shapes.validate(InferenceMode.MATERIALIZATION.apply(neighbourhood),
+            focusNodes::contains);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"vocabulary-1.ttl", "vocabulary-2.ttl"})
+    void termValidationGivesSameResultsAsContextValidation(final String vocabulary)
+        throws IOException {
+        final Model data = data(vocabulary);
+        final ValidationReport report =
+            shapes.validate(InferenceMode.MATERIALIZATION.apply(data));
+        final List<Resource> terms = read(vocabulary).listSubjects().toList();
+
+        Assertions.assertFalse(terms.isEmpty());
+        for (Resource term : terms) {
+            final Set<String> expected = describe(report.results().stream()
+                .filter(r -> term.equals(r.getFocusNode())).collect(Collectors.toList()));
+            Assertions.assertEquals(expected, describe(
+                validateTerm(Collections.singletonList(vocabulary), term).results()),
+                "Results of " + term);
+        }
+    }
+
+    @Test
+    void neighbourhoodIsSmallerThanContext() throws IOException {
+        final Model neighbourhood = TermNeighbourhood.fetch(ENDPOINT,
+            Collections.singletonList(context("vocabulary-1.ttl")),
+            Collections.singletonList(URI.create(TERM_1 + "výška")));
+
+        Assertions.assertFalse(neighbourhood.isEmpty());
+        Assertions.assertTrue(neighbourhood.size() < data("vocabulary-1.ttl").size());
+    }
+
+    @Test
+    void neighbourhoodFollowsLinksBetweenContexts() {
+        final Resource term = ResourceFactory.createResource(TERM_1 + "spolujezdec");
+        final Predicate<ValidationResult> noSuperKind = r -> r.getSourceShape().getURI()
+            .equals("https://example.org/test-rules/role-ma-nadrazeny-druh");
+
+        Assertions.assertTrue(validateTerm(Collections.singletonList("vocabulary-1.ttl"), term)
+            .results().stream().anyMatch(noSuperKind));
+        Assertions.assertTrue(validateTerm(
+            Arrays.asList("vocabulary-1.ttl", "links", "vocabulary-2.ttl"), term)
+            .results().stream().noneMatch(noSuperKind));
+    }
+
+    @Test
+    void fetchWithoutContextsReturnsEmptyModel() {
+        Assertions.assertTrue(TermNeighbourhood.fetch(ENDPOINT, Collections.emptyList(),
+            Collections.singletonList(URI.create("urn:term"))).isEmpty());
+    }
+}
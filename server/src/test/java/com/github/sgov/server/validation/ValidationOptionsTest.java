@@ -0,0 +1,26 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.EnumSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ValidationOptionsTest {
+
+    @Test
+    void defaultOptionsAreNotPartial() {
+        Assertions.assertFalse(new ValidationOptions().isPartial());
+        Assertions.assertFalse(new ValidationOptions()
+            .setRuleGroups(Collections.emptySet()).isPartial());
+    }
+
+    @Test
+    void optionsRestrictingRuleGroupsOrContextsArePartial() {
+        Assertions.assertTrue(new ValidationOptions()
+            .setRuleGroups(EnumSet.of(RuleGroup.GLOSSARY)).isPartial());
+        Assertions.assertTrue(new ValidationOptions()
+            .setContexts(Collections.singleton(URI.create("https://example.org/context")))
+            .isPartial());
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.topbraid.shacl.validation.ValidationReport;
+
+class ValidationReportCacheTest {
+
+    private final AtomicInteger validations = new AtomicInteger();
+
+    private MeterRegistry meterRegistry;
+
+    private ValidationReportCache cache;
+
+    @BeforeEach
+    void setUp() {
+        final ValidationConf conf = new ValidationConf();
+        conf.setCacheSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ValidationReportCache(conf, meterRegistry);
+    }
+
+    private ValidationReport validate() {
+        validations.incrementAndGet();
+        return new BasicValidationReport(true, Collections.emptyList());
+    }
+
+    private double requests(final String result) {
+        return meterRegistry.get("sgov.validation.cache.requests").tag("result", result)
+            .counter().count();
+    }
+
+    @Test
+    void getReturnsCachedReportForSameDigestAndRules() {
+        final ValidationReport report = cache.get("d1", "r1", this::validate);
+        Assertions.assertSame(report, cache.get("d1", "r1", this::validate));
+        Assertions.assertEquals(1, validations.get());
+        Assertions.assertEquals(1, requests("hit"));
+        Assertions.assertEquals(1, requests("miss"));
+    }
+
+    @Test
+    void getValidatesAgainWhenRulesChange() {
+        cache.get("d1", "r1", this::validate);
+        cache.get("d1", "r2", this::validate);
+        Assertions.assertEquals(2, validations.get());
+    }
+
+    @Test
+    void getEvictsLeastRecentlyUsedReport() {
+        cache.get("d1", "r1", this::validate);
+        cache.get("d2", "r1", this::validate);
+        cache.get("d1", "r1", this::validate);
+        cache.get("d3", "r1", this::validate);
+        Assertions.assertEquals(3, validations.get());
+        cache.get("d1", "r1", this::validate);
+        Assertions.assertEquals(3, validations.get());
+        cache.get("d2", "r1", this::validate);
+        Assertions.assertEquals(4, validations.get());
+        Assertions.assertEquals(2,
+            meterRegistry.get("sgov.validation.cache.size").gauge().value());
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.topbraid.shacl.vocabulary.SH;
+
+class ValidationReportStoreTest {
+
+    private static final URI WORKSPACE = URI.create("https://example.org/workspace");
+
+    private static final URI CONTEXT_1 = URI.create("https://example.org/context-1");
+
+    private static final URI CONTEXT_2 = URI.create("https://example.org/context-2");
+
+    @TempDir
+    Path directory;
+
+    private ValidationConf conf;
+
+    @BeforeEach
+    void setUp() {
+        conf = new ValidationConf();
+        conf.setReportDirectory(directory.toString());
+    }
+
+    private static StoredValidationResult result(final URI context, final String severity,
+                                                 final String shape, final String focusNode) {
+        return new StoredValidationResult(context, SH.NS + severity, shape, focusNode,
+            null, null, Collections.singletonMap("cs", "Chyba " + focusNode));
+    }
+
+    private static StoredValidationReport report() {
+        return new StoredValidationReport(WORKSPACE, new ValidationOptions(),
+            new HashSet<>(Arrays.asList(CONTEXT_1, CONTEXT_2)), false, Arrays.asList(
+            result(CONTEXT_1, "Violation", "urn:shape-1", "urn:a"),
+            result(CONTEXT_2, "Violation", "urn:shape-2", "urn:b"),
+            result(CONTEXT_1, "Warning", "urn:shape-1", "urn:c"),
+            result(CONTEXT_2, "Warning", "urn:shape-1", "urn:a")));
+    }
+
+    private static List<String> focusNodes(final List<StoredValidationResult> results) {
+        return results.stream().map(StoredValidationResult::getFocusNode)
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    void findWithoutFilterReturnsAllResultsInOrder() {
+        Assertions.assertEquals(Arrays.asList("urn:a", "urn:b", "urn:c", "urn:a"),
+            focusNodes(report().find(new ValidationResultFilter())));
+    }
+
+    @Test
+    void findCombinesFilters() {
+        final ValidationResultFilter filter = new ValidationResultFilter()
+            .setShapes(Collections.singleton("urn:shape-1"))
+            .setContexts(Collections.singleton(CONTEXT_2));
+
+        Assertions.assertEquals(Collections.singletonList("urn:a"),
+            focusNodes(report().find(filter)));
+    }
+
+    @Test
+    void findMatchesAnyValueOfFilter() {
+        final ValidationResultFilter filter = new ValidationResultFilter()
+            .setFocusNodes(new HashSet<>(Arrays.asList("urn:b", "urn:c", "urn:unknown")));
+
+        Assertions.assertEquals(Arrays.asList("urn:b", "urn:c"),
+            focusNodes(report().find(filter)));
+    }
+
+    @Test
+    void severityCountsCountResultsOfEachSeverity() {
+        final Map<String, Integer> counts = report().getSeverityCounts();
+
+        Assertions.assertEquals(2, counts.get(SH.NS + "Violation"));
+        Assertions.assertEquals(2, counts.get(SH.NS + "Warning"));
+    }
+
+    @Test
+    void savedReportIsReadAfterRestart() {
+        new ValidationReportStore(conf).save(report());
+
+        final StoredValidationReport read =
+            new ValidationReportStore(conf).find(WORKSPACE).orElseThrow(AssertionError::new);
+
+        Assertions.assertFalse(read.isConforms());
+        Assertions.assertEquals(report().getResults(), read.getResults());
+        Assertions.assertEquals(report().getContexts(), read.getContexts());
+        Assertions.assertEquals(Collections.singletonList("urn:c"), focusNodes(read.find(
+            new ValidationResultFilter().setSeverities(
+                Collections.singleton(SH.NS + "Warning"))
+                .setContexts(Collections.singleton(CONTEXT_1)))));
+    }
+
+    @Test
+    void removeDeletesReport() {
+        final ValidationReportStore store = new ValidationReportStore(conf);
+        store.save(report());
+
+        store.remove(WORKSPACE);
+
+        Assertions.assertFalse(store.find(WORKSPACE).isPresent());
+        Assertions.assertFalse(new ValidationReportStore(conf).find(WORKSPACE).isPresent());
+    }
+
+    private static StoredValidationReport report(final StoredValidationResult... results) {
+        return new StoredValidationReport(WORKSPACE, new ValidationOptions(),
+            new HashSet<>(Arrays.asList(CONTEXT_1, CONTEXT_2)), results.length == 0,
+            Arrays.asList(results));
+    }
+
+    @Test
+    void saveIncrementsVersion() {
+        final ValidationReportStore store = new ValidationReportStore(conf);
+        store.save(report());
+        store.save(report());
+
+        Assertions.assertEquals(2,
+            new ValidationReportStore(conf).find(WORKSPACE).orElseThrow(AssertionError::new)
+                .getVersion());
+    }
+
+    @Test
+    void deltaContainsResultsAddedAndRemovedSinceVersion() {
+        final ValidationReportStore store = new ValidationReportStore(conf);
+        store.save(report(
+            result(CONTEXT_1, "Violation", "urn:shape-1", "urn:a"),
+            result(CONTEXT_1, "Warning", "urn:shape-1", "urn:b")));
+        store.save(report(
+            result(CONTEXT_1, "Violation", "urn:shape-1", "urn:a"),
+            result(CONTEXT_1, "Warning", "urn:shape-1", "urn:c")));
+        store.save(report(
+            result(CONTEXT_2, "Violation", "urn:shape-1", "urn:a"),
+            result(CONTEXT_1, "Warning", "urn:shape-1", "urn:c"),
+            result(CONTEXT_1, "Violation", "urn:shape-2", "urn:d")));
+        final StoredValidationReport report =
+            new ValidationReportStore(conf).find(WORKSPACE).orElseThrow(AssertionError::new);
+
+        final ValidationReportDelta sinceFirst = report.getDelta(1);
+        Assertions.assertFalse(sinceFirst.isComplete());
+        Assertions.assertEquals(Arrays.asList("urn:c", "urn:d"),
+            focusNodes(sinceFirst.getAdded()));
+        Assertions.assertEquals(Collections.singletonList("urn:b"),
+            focusNodes(sinceFirst.getRemoved()));
+
+        final ValidationReportDelta sinceSecond = report.getDelta(2);
+        Assertions.assertEquals(Collections.singletonList("urn:d"),
+            focusNodes(sinceSecond.getAdded()));
+        Assertions.assertTrue(sinceSecond.getRemoved().isEmpty());
+
+        final ValidationReportDelta sinceLast = report.getDelta(3);
+        Assertions.assertTrue(sinceLast.getAdded().isEmpty());
+        Assertions.assertTrue(sinceLast.getRemoved().isEmpty());
+    }
+
+    @Test
+    void deltaSinceVersionOutOfHistoryIsComplete() {
+        conf.setReportHistory(1);
+        final ValidationReportStore store = new ValidationReportStore(conf);
+        store.save(report(result(CONTEXT_1, "Violation", "urn:shape-1", "urn:a")));
+        store.save(report(result(CONTEXT_1, "Violation", "urn:shape-1", "urn:b")));
+        store.save(report(result(CONTEXT_1, "Violation", "urn:shape-1", "urn:c")));
+        final StoredValidationReport report = store.find(WORKSPACE)
+            .orElseThrow(AssertionError::new);
+
+        Assertions.assertFalse(report.getDelta(2).isComplete());
+        Assertions.assertEquals(Collections.singletonList("urn:b"),
+            focusNodes(report.getDelta(2).getRemoved()));
+        final ValidationReportDelta delta = report.getDelta(1);
+        Assertions.assertTrue(delta.isComplete());
+        Assertions.assertEquals(Collections.singletonList("urn:c"),
+            focusNodes(delta.getAdded()));
+        Assertions.assertTrue(report.getDelta(7).isComplete());
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ValidationTimingsTest {
+
+    @Test
+    void phaseDurationsAreSummedOverContexts() {
+        final ValidationTimings timings = new ValidationTimings();
+        timings.phaseCompleted(ValidationPhase.SHACL, URI.create("https://example.org/1"), 1000);
+        timings.phaseCompleted(ValidationPhase.SHACL, URI.create("https://example.org/2"), 2000);
+        Assertions.assertEquals(3000, timings.getDuration(ValidationPhase.SHACL));
+    }
+
+    @Test
+    void toServerTimingListsCompletedPhasesAndTotal() {
+        final ValidationTimings timings = new ValidationTimings();
+        timings.phaseCompleted(ValidationPhase.FETCH, null, 1_500_000);
+        timings.phaseCompleted(ValidationPhase.SHACL, null, 25_000_000);
+        final String header = timings.toServerTiming();
+        Assertions.assertTrue(header.startsWith("fetch;dur=1.5, shacl;dur=25.0, total;dur="),
+            header);
+        Assertions.assertFalse(header.contains("inference"));
+    }
+}